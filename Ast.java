@@ -62,54 +62,75 @@ class Program extends AST {
     private DeclList myDeclList;
 }
 
+/**
+ * The nodes of a list the parser is building, in an array grown by
+ * doubling. When the list is reduced, toArray() freezes it into an array
+ * of the exact size, which the list node keeps.
+ */
+final class NodeList {
+    private AST[] nodes;
+    private int size;
+
+    NodeList(int capacity) {
+        nodes = new AST[capacity];
+    }
+
+    NodeList add(AST node) {
+        if (size == nodes.length)
+            nodes = Arrays.copyOf(nodes, size * 2);
+        nodes[size++] = node;
+        return this;
+    }
+
+    /** Returns the nodes in an array of the type of <tt>empty</tt>. */
+    @SuppressWarnings("unchecked")
+    <T> T[] toArray(T[] empty) {
+        if (size == 0)
+            return empty;
+        return Arrays.copyOf(nodes, size, (Class<T[]>) empty.getClass());
+    }
+}
+
 class DeclList extends AST {
-    public DeclList(LinkedList<?> S) {
+    static final Decl[] NONE = {};
+
+    public DeclList(Decl[] S) {
         myDecls = S;
     }
 
     public void print(PrintWriter pw, int indentLevel) {
-        Iterator<?> it = myDecls.iterator();
-        try {
-            printNonTerm(pw, indentLevel);
-            while (it.hasNext()) {
-                ((Decl)it.next()).print(pw, indentLevel + 1);
-            }
-        } catch (Exception e) {
-          e.printStackTrace(System.err);
-        }
+        printNonTerm(pw, indentLevel);
+        for (Decl decl : myDecls)
+            decl.print(pw, indentLevel + 1);
     }
 
-    protected LinkedList<?> myDecls;
+    protected Decl[] myDecls;
 }
 
 class StructDeclList extends DeclList {
-    public StructDeclList(LinkedList<?> S) {
+    public StructDeclList(Decl[] S) {
         super(S);
     }
 
 }
 
 class FormalsList extends AST {
-    public FormalsList(LinkedList<?> S) {
+    static final FormalDecl[] NONE = {};
+
+    public FormalsList(FormalDecl[] S) {
         myFormals = S;
     }
 
     public void print(PrintWriter pw, int indentLevel) {
-        Iterator<?> it = myFormals.iterator();
-        try {
-            printNonTerm(pw, indentLevel);
-            while (it.hasNext()) {
-                ((FormalDecl)it.next()).print(pw, indentLevel + 1);
-
-                if (it.hasNext())
-                  printTerm(pw, indentLevel + 1, COMMA);
-            }
-        } catch (Exception e) {
-          e.printStackTrace(System.err);
+        printNonTerm(pw, indentLevel);
+        for (int i = 0; i < myFormals.length; ++i) {
+            if (i > 0)
+                printTerm(pw, indentLevel + 1, COMMA);
+            myFormals[i].print(pw, indentLevel + 1);
         }
     }
 
-    private LinkedList<?> myFormals;
+    private FormalDecl[] myFormals;
 }
 
 class FuncBody extends AST {
@@ -133,24 +154,20 @@ class FuncBody extends AST {
 }
 
 class StmtList extends AST {
-    public StmtList(LinkedList<?> S) {
+    static final Stmt[] NONE = {};
+
+    public StmtList(Stmt[] S) {
         myStmts = S;
     }
 
     // added
     public void print(PrintWriter pw, int indentLevel) {
-        Iterator<?> it = myStmts.iterator();
-        try {
-            printNonTerm(pw, indentLevel);
-            while (it.hasNext()) {
-                ((Stmt)it.next()).print(pw, indentLevel + 1);
-            }
-        } catch (Exception e) {
-          e.printStackTrace(System.err);
-        }
+        printNonTerm(pw, indentLevel);
+        for (Stmt stmt : myStmts)
+            stmt.print(pw, indentLevel + 1);
     }
 
-    private LinkedList<?> myStmts;
+    private Stmt[] myStmts;
 }
 
 abstract class Decl extends AST {
@@ -306,19 +323,24 @@ class IntLiteral extends Expr {
 }
 
 class ID extends Expr {
-    public ID(String strVal) {
-        myStrVal = strVal;
+    public ID(Name name) {
+        myName = name;
     }
 
     public String getName() {
-        return myStrVal;
+        return myName.text;
+    }
+
+    // dense id from the NameTable, equal ids mean equal names
+    public int getSymbolId() {
+        return myName.id;
     }
 
     public void print(PrintWriter pw, int indentLevel) {
       printTerm(pw, indentLevel, ID, getName());
     }
 
-    private String myStrVal;
+    private Name myName;
 }
 
 abstract class BinaryExpr extends Expr {
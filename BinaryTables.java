@@ -0,0 +1,343 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The tables of the generated Scanner and parser, read from a binary
+ * resource next to the class instead of unpacked from the strings JFlex
+ * and CUP write them as.
+ *
+ * Both generators decode their tables from run-length strings when the
+ * class loads, one char at a time in the interpreter; for the char map of
+ * the Scanner alone that is a loop over 64K entries.
+ * Run after the generated classes are compiled, main() writes each table
+ * to <tt>Scanner.tables</tt> and <tt>parser.tables</tt>, its entries in
+ * the narrowest of byte, short and int that holds them and the zeros at
+ * its end left out, and patches the generated source to take it from
+ * there. The resource is read in one go; a table it lacks, or that has a
+ * fingerprint other than the source was patched with, as when the
+ * resource is left from another grammar, is unpacked as generated.
+ *
+ * Usage: BinaryTables [-d directory] class...
+ */
+final class BinaryTables {
+    /** "Tbl1", the first bytes of a resource */
+    private static final int MAGIC = 0x54626c31;
+
+    /** the resource, read whole */
+    private final byte[] data;
+
+    /** where the next read in <tt>data</tt> starts */
+    private int pos;
+
+    /** the length of the table entries() last read */
+    private int length;
+
+    private BinaryTables(byte[] data) {
+        this.data = data;
+    }
+
+    /**
+     * Returns the tables in the resource of <tt>owner</tt>. A missing or
+     * damaged resource holds none.
+     */
+    static BinaryTables of(Class<?> owner) {
+        byte[] data = null;
+        try {
+            data = read(owner, owner.getName().replace('.', '/').concat(".tables"));
+        } catch (IOException e) {
+            // the tables are unpacked as generated
+        }
+        if (data == null || data.length < 4 || new BinaryTables(data).readInt() != MAGIC)
+            data = new byte[4];
+        return new BinaryTables(data);
+    }
+
+    /**
+     * Reads the resource <tt>name</tt> from a directory of the class path
+     * with plain file I/O, and through the class loader of <tt>owner</tt>
+     * when it is not in one. A lookup through the class loader searches the
+     * runtime image first, which costs more at startup than the tables.
+     * Returns null when there is no such resource.
+     */
+    private static byte[] read(Class<?> owner, String name) throws IOException {
+        for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            File file = new File(entry.isEmpty() ? "." : entry, name);
+            if (file.isFile()) {
+                try (InputStream in = new FileInputStream(file)) {
+                    return in.readAllBytes();
+                }
+            }
+        }
+        try (InputStream in = owner.getResourceAsStream("/".concat(name))) {
+            return in == null ? null : in.readAllBytes();
+        }
+    }
+
+    /** Tells if there is a table <tt>name</tt> written with <tt>fingerprint</tt>. */
+    boolean has(String name, int fingerprint) {
+        try {
+            if (!seek(name) || readInt() != fingerprint)
+                return false;
+            int size = readInt();
+            return size >= 0 && pos + size <= data.length;
+        } catch (IndexOutOfBoundsException e) {
+            // a truncated resource
+            return false;
+        }
+    }
+
+    /** Returns the table <tt>name</tt>, which has() has been asked about. */
+    char[] chars(String name) {
+        seek(name);
+        pos += 8;
+        int[] entries = entries();
+        char[] table = new char[length];
+        for (int i = 0; i < entries.length; ++i)
+            table[i] = (char) entries[i];
+        return table;
+    }
+
+    /** Returns the table <tt>name</tt>, which has() has been asked about. */
+    int[] ints(String name) {
+        seek(name);
+        pos += 8;
+        int[] entries = entries();
+        return entries.length == length ? entries : Arrays.copyOf(entries, length);
+    }
+
+    /** Returns the table <tt>name</tt> of rows, which has() has been asked about. */
+    short[][] rows(String name) {
+        seek(name);
+        pos += 8;
+        short[][] table = new short[readInt()][];
+        for (int row = 0; row < table.length; ++row) {
+            int[] entries = entries();
+            short[] shorts = table[row] = new short[length];
+            for (int i = 0; i < entries.length; ++i)
+                shorts[i] = (short) entries[i];
+        }
+        return table;
+    }
+
+    /** Moves to the fingerprint of the table <tt>name</tt>; tells if there is one. */
+    private boolean seek(String name) {
+        pos = 4;
+        while (pos < data.length) {
+            int length = data[pos++];
+            String found = new String(data, pos, length, StandardCharsets.ISO_8859_1);
+            pos += length;
+            if (found.equals(name))
+                return true;
+            pos += 4;
+            int size = readInt();
+            pos += size;
+        }
+        return false;
+    }
+
+    /**
+     * Reads the length of a table, the width of its entries and those up to
+     * the last that is not 0; returns these, the length in <tt>length</tt>.
+     */
+    private int[] entries() {
+        length = readInt();
+        int width = data[pos++];
+        int[] entries = new int[readInt()];
+        byte[] data = this.data;
+        int p = pos;
+        if (width == 1) {
+            for (int i = 0; i < entries.length; ++i)
+                entries[i] = data[p++];
+        } else if (width == 2) {
+            for (int i = 0; i < entries.length; ++i, p += 2)
+                entries[i] = (short) (data[p] << 8 | data[p + 1] & 0xff);
+        } else {
+            for (int i = 0; i < entries.length; ++i, p += 4)
+                entries[i] = data[p] << 24 | (data[p + 1] & 0xff) << 16 | (data[p + 2] & 0xff) << 8
+                        | data[p + 3] & 0xff;
+        }
+        pos = p;
+        return entries;
+    }
+
+    private int readInt() {
+        return data[pos++] << 24 | (data[pos++] & 0xff) << 16 | (data[pos++] & 0xff) << 8 | data[pos++] & 0xff;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Paths.get(".");
+        int first = 0;
+        if (args.length > 1 && args[0].equals("-d")) {
+            directory = Paths.get(args[1]);
+            first = 2;
+        }
+        if (first == args.length) {
+            System.err.println("Usage: BinaryTables [-d directory] class...");
+            System.exit(2);
+        }
+        for (int i = first; i < args.length; ++i)
+            Writer.write(args[i], directory);
+    }
+
+    /** What main() runs, apart so that loading tables loads none of it. */
+    private static final class Writer {
+        /** a JFlex table: the field, then what unpacks it, after the check a patch puts in front */
+        private static final Pattern JFLEX = Pattern.compile(
+                "^(  private static final (?:char|int) \\[\\] (ZZ_\\w+) = )"
+                        + "(?:ZZ_TABLES\\.has\\(.*\\) : )?(zzUnpack\\w*\\(\\w*\\);)$",
+                Pattern.MULTILINE);
+
+        /** a CUP table: the field, the check a patch puts in, then the line that unpacks it */
+        private static final Pattern CUP = Pattern.compile(
+                "^(  protected static final short(?:\\[\\]\\[\\])? (_\\w+_table)(?:\\[\\]\\[\\])? = ?)(\\R)"
+                        + "(?:    _binary_tables\\.has\\(.*\\R)?(    unpackFromStrings\\()",
+                Pattern.MULTILINE);
+
+        /** the field a patch adds to read the resource, with its comment and the blank line after it */
+        private static final Pattern HOLDER = Pattern.compile(
+                "^  /\\*\\* the tables below, .*\\R  private static final BinaryTables \\w+ = .*\\R\\R",
+                Pattern.MULTILINE);
+
+        /**
+         * Writes the tables of the generated class <tt>name</tt>, as its
+         * static initializer unpacked them, to <tt>name.tables</tt> in
+         * <tt>directory</tt>, and patches <tt>name.java</tt> to read them
+         * from there. A source patched before gets the fingerprints of the
+         * tables written now.
+         */
+        static void write(String name, Path directory) throws Exception {
+            Class<?> owner = Class.forName(name);
+            Path source = Paths.get(name + ".java");
+            String text = new String(Files.readAllBytes(source), StandardCharsets.ISO_8859_1);
+            text = HOLDER.matcher(text).replaceAll("");
+            String eol = text.contains("\r\n") ? "\r\n" : "\n";
+
+            ByteArrayOutputStream resource = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(resource);
+            out.writeInt(MAGIC);
+            StringBuffer patched = new StringBuffer();
+            String holder;
+            int firstTable = -1;
+
+            Matcher m = JFLEX.matcher(text);
+            if (m.find()) {
+                holder = "ZZ_TABLES";
+                do {
+                    String table = m.group(2);
+                    Object value = get(owner, table);
+                    String read = value instanceof char[] ? "chars" : "ints";
+                    int fingerprint = writeTable(out, table, value);
+                    m.appendReplacement(patched, Matcher.quoteReplacement(m.group(1) + holder + ".has(\"" + table
+                            + "\", " + fingerprint + ") ? " + holder + "." + read + "(\"" + table + "\") : "
+                            + m.group(3)));
+                    if (firstTable < 0)
+                        firstTable = m.start();
+                } while (m.find());
+            } else {
+                holder = "_binary_tables";
+                m = CUP.matcher(text);
+                while (m.find()) {
+                    String table = m.group(2);
+                    int fingerprint = writeTable(out, table, get(owner, table));
+                    m.appendReplacement(patched, Matcher.quoteReplacement(m.group(1) + m.group(3) + "    " + holder
+                            + ".has(\"" + table + "\", " + fingerprint + ") ? " + holder + ".rows(\"" + table + "\") :"
+                            + m.group(3) + m.group(4)));
+                    if (firstTable < 0)
+                        firstTable = m.start();
+                }
+            }
+            if (firstTable < 0)
+                throw new IllegalArgumentException(source + " has no tables JFlex or CUP generated");
+            m.appendTail(patched);
+
+            // the field that reads the resource goes before the first table, and its comment
+            int at = patched.lastIndexOf("/**", firstTable);
+            at = patched.lastIndexOf(eol, at) + eol.length();
+            patched.insert(at, "  /** the tables below, as BinaryTables wrote them to " + name + ".tables */" + eol
+                    + "  private static final BinaryTables " + holder + " = BinaryTables.of(" + name + ".class);"
+                    + eol + eol);
+
+            Files.write(directory.resolve(name.replace('.', '/') + ".tables"), resource.toByteArray());
+            Files.write(source, patched.toString().getBytes(StandardCharsets.ISO_8859_1));
+        }
+
+        private static Object get(Class<?> owner, String table) throws ReflectiveOperationException {
+            Field field = owner.getDeclaredField(table);
+            field.setAccessible(true);
+            return field.get(null);
+        }
+
+        /** Writes <tt>value</tt> as the table <tt>name</tt>; returns its fingerprint. */
+        private static int writeTable(DataOutputStream out, String name, Object value) throws IOException {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            DataOutputStream entries = new DataOutputStream(body);
+            int fingerprint;
+            if (value instanceof short[][]) {
+                short[][] rows = (short[][]) value;
+                entries.writeInt(rows.length);
+                for (short[] row : rows) {
+                    int[] widened = new int[row.length];
+                    for (int i = 0; i < row.length; ++i)
+                        widened[i] = row[i];
+                    writeArray(entries, widened);
+                }
+                fingerprint = Arrays.deepHashCode(rows);
+            } else if (value instanceof char[]) {
+                char[] chars = (char[]) value;
+                int[] widened = new int[chars.length];
+                for (int i = 0; i < chars.length; ++i)
+                    widened[i] = chars[i];
+                writeArray(entries, widened);
+                fingerprint = Arrays.hashCode(chars);
+            } else {
+                writeArray(entries, (int[]) value);
+                fingerprint = Arrays.hashCode((int[]) value);
+            }
+            byte[] bytes = name.getBytes(StandardCharsets.ISO_8859_1);
+            out.writeByte(bytes.length);
+            out.write(bytes);
+            out.writeInt(fingerprint);
+            out.writeInt(body.size());
+            body.writeTo(out);
+            return fingerprint;
+        }
+
+        /** Writes the length of <tt>table</tt>, the width of its entries and those up to the last that is not 0. */
+        private static void writeArray(DataOutputStream out, int[] table) throws IOException {
+            int stored = table.length;
+            while (stored > 0 && table[stored - 1] == 0)
+                stored--;
+            int min = 0;
+            int max = 0;
+            for (int i = 0; i < stored; ++i) {
+                min = Math.min(min, table[i]);
+                max = Math.max(max, table[i]);
+            }
+            int width = min >= Byte.MIN_VALUE && max <= Byte.MAX_VALUE ? 1
+                    : min >= Short.MIN_VALUE && max <= Short.MAX_VALUE ? 2 : 4;
+            out.writeInt(table.length);
+            out.writeByte(width);
+            out.writeInt(stored);
+            for (int i = 0; i < stored; ++i) {
+                if (width == 1)
+                    out.writeByte(table[i]);
+                else if (width == 2)
+                    out.writeShort(table[i]);
+                else
+                    out.writeInt(table[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,621 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java_cup.runtime.Symbol;
+
+/**
+ * Lexes ASCII input straight from its bytes.
+ *
+ * The generated Scanner works on chars, so a file has to be decoded into a
+ * char[] twice its size first, and every char goes through a 64K-entry
+ * class map. Nearly all sources are plain ASCII, where a byte is the char:
+ * this scanner classifies each byte with a 256-entry table and matches the
+ * tokens of SimpleC.lex by hand, giving the same tokens, offsets, values
+ * and messages as the Scanner would.
+ *
+ * The first byte outside ASCII stops that, wherever it is: in a literal,
+ * a comment, a name or between tokens. The input is decoded then, and a
+ * Scanner over the decoded chars goes on from the token that held the
+ * byte. The ASCII part before it decodes to one char per byte, so offsets,
+ * lines and the comments seen so far stay valid; the Scanner shares them.
+ */
+final class ByteScanner implements Lexer, sym {
+    /* byte classes */
+    private static final byte INVALID = 0;
+    private static final byte BLANK = 1;
+    private static final byte LETTER = 2;
+    private static final byte DIGIT = 3;
+    /** a punctuator that is never the start of a longer token */
+    private static final byte SINGLE = 4;
+    /** a char that starts several tokens, matched in a switch */
+    private static final byte SPECIAL = 5;
+    private static final byte NON_ASCII = 6;
+
+    private static final byte[] classes = new byte[256];
+
+    /** the token of each SINGLE char */
+    private static final short[] singles = new short[128];
+
+    static {
+        for (int c = 0x80; c < 0x100; ++c)
+            classes[c] = NON_ASCII;
+        for (char c : " \t\f\r\n".toCharArray())
+            classes[c] = BLANK;
+        for (int c = 'a'; c <= 'z'; ++c)
+            classes[c] = classes[c - 'a' + 'A'] = LETTER;
+        classes['_'] = LETTER;
+        for (int c = '0'; c <= '9'; ++c)
+            classes[c] = DIGIT;
+        for (char c : "+-./<>=*%&^|!\"'".toCharArray())
+            classes[c] = SPECIAL;
+
+        single('(', LPAREN);
+        single(')', RPAREN);
+        single('{', LCURLY);
+        single('}', RCURLY);
+        single('[', LSQBRACKET);
+        single(']', RSQBRACKET);
+        single(';', SEMICOLON);
+        single(',', COMMA);
+        single(':', SEMICOLON);
+        single('~', TILDE);
+        single('?', QUESTIONMAR);
+        single('#', HASH);
+    }
+
+    private static void single(char c, int token) {
+        classes[c] = SINGLE;
+        singles[c] = (short) token;
+    }
+
+    /** what scan() returns once the rest of the input is the fallback's */
+    private static final int FALLBACK = -1;
+
+    /** what the string and char scans return for a literal with non-ASCII bytes */
+    private static final int DECODE = -2;
+
+    /** what literal() returns when no literal starts there */
+    private static final int NO_MATCH = -3;
+
+    /** what special() returns after skipping a comment */
+    private static final int COMMENT = -4;
+
+    private byte[] source;
+    private int offset;
+    private int end;
+    private int pos;
+
+    private LineIndex lines;
+    private final Trivia trivia = new Trivia((char[]) null);
+    private NameTable names = NameTable.global;
+    private final Literals literals = new Literals();
+
+    /** the input as chars for Literals, one token at a time */
+    private char[] text = new char[64];
+
+    /* the last token matched by scan() */
+    private int tokenStart;
+    private int tokenEnd;
+    private Object value;
+
+    /** the scanner over the decoded input, once a non-ASCII byte showed up */
+    private Scanner fallback;
+
+    /** the fallback of an earlier input, reset for the next one */
+    private Scanner spare;
+
+    /**
+     * Creates a scanner over <tt>length</tt> bytes of <tt>source</tt>
+     * starting at <tt>offset</tt>, which are read in place and must not
+     * change while the scanner is in use.
+     */
+    public ByteScanner(byte[] source, int offset, int length) {
+        reset(source, offset, length);
+    }
+
+    /**
+     * Makes the scanner lex <tt>length</tt> bytes of <tt>source</tt> from
+     * <tt>offset</tt>, as a new ByteScanner would, reusing its buffers and
+     * its Trivia: the comments of the previous input are forgotten.
+     */
+    public void reset(byte[] source, int offset, int length) {
+        this.source = source;
+        this.offset = offset;
+        this.end = offset + length;
+        this.pos = offset;
+        this.lines = new LineIndex(source, offset, length);
+        trivia.clear();
+        trivia.setBytes(source);
+        fallback = null;
+    }
+
+    /**
+     * Creates a scanner over the remaining bytes of <tt>buffer</tt>. The
+     * backing array is read in place; a buffer without one is copied.
+     */
+    public ByteScanner(ByteBuffer buffer) {
+        this(array(buffer), buffer.hasArray() ? buffer.arrayOffset() + buffer.position() : 0,
+                buffer.remaining());
+    }
+
+    private static byte[] array(ByteBuffer buffer) {
+        if (buffer.hasArray())
+            return buffer.array();
+        byte[] copy = new byte[buffer.remaining()];
+        buffer.duplicate().get(copy);
+        return copy;
+    }
+
+    /**
+     * Creates a scanner over the whole content of a file: a ByteScanner
+     * when the platform charset reads ASCII bytes as ASCII chars, a Scanner
+     * over the decoded file otherwise.
+     */
+    public static Lexer fromFile(String fileName) throws IOException {
+        if (!isAsciiCompatible(Charset.defaultCharset()))
+            return Scanner.fromFile(fileName);
+        byte[] source = Scanner.readBytes(fileName);
+        return new ByteScanner(source, 0, source.length);
+    }
+
+    /** Does <tt>charset</tt> decode every ASCII byte to the same char, whatever comes before? */
+    static boolean isAsciiCompatible(Charset charset) {
+        String name = charset.name();
+        return name.equals("UTF-8") || name.equals("US-ASCII")
+                || name.startsWith("ISO-8859-") || name.startsWith("windows-125");
+    }
+
+    /** Makes the scanner intern identifiers into <tt>names</tt>. */
+    public void setNameTable(NameTable names) {
+        this.names = names;
+    }
+
+    /** are names left uninterned and literals other than strings undecoded? */
+    private boolean recognizeOnly;
+
+    public void setRecognizeOnly(boolean recognizeOnly) {
+        this.recognizeOnly = recognizeOnly;
+        if (fallback != null)
+            fallback.setRecognizeOnly(recognizeOnly);
+    }
+
+    public Trivia getTrivia() {
+        return trivia;
+    }
+
+    public LineIndex getLineIndex() {
+        return lines;
+    }
+
+    public String yytext() {
+        if (fallback != null)
+            return fallback.yytext();
+        return new String(source, tokenStart, tokenEnd - tokenStart,
+                java.nio.charset.StandardCharsets.ISO_8859_1);
+    }
+
+    public Symbol next_token() throws IOException {
+        int kind = scan();
+        if (kind == FALLBACK)
+            return fallback.next_token();
+        return new MySymbol(kind, lines, tokenStart, tokenEnd, value);
+    }
+
+    public TokenBuffer tokenize(TokenBuffer tokens) throws IOException {
+        tokens.setLineIndex(lines);
+        int kind;
+        while ((kind = scan()) != FALLBACK) {
+            tokens.add(kind, tokenStart, tokenEnd - tokenStart, value);
+            if (kind == EOF)
+                return tokens;
+        }
+        return fallback.tokenize(tokens);
+    }
+
+    /**
+     * Matches the next token, leaving its bounds and value in the fields,
+     * and returns its kind, or FALLBACK after handing the input over to a
+     * Scanner at the token's start.
+     */
+    private int scan() {
+        if (fallback != null)
+            return FALLBACK;
+        byte[] b = source;
+        int end = this.end;
+        int i = pos;
+        value = null;
+        while (true) {
+            int start = i;
+            if (start == end)
+                return token(EOF, start, start);
+            int c = b[start];
+            switch (classes[c & 0xFF]) {
+                case BLANK:
+                    i++;
+                    while (i < end && classes[b[i] & 0xFF] == BLANK)
+                        i++;
+                    continue;
+
+                case LETTER:
+                    i++;
+                    while (i < end && isIdentifierPart(b[i]))
+                        i++;
+                    if (i - start == 1) {
+                        // {WhiteSpace} takes a lone v, the class [ \v\t\f] holds the letter
+                        if (c == 'v')
+                            continue;
+                        if (c == 'L' && i < end && (b[i] == '"' || b[i] == '\'')) {
+                            int kind = literal(start);
+                            if (kind != NO_MATCH)
+                                return kind;
+                        }
+                    }
+                    int keyword = Keywords.lookup(b, start, i - start);
+                    if (keyword >= 0)
+                        return token(keyword, start, i);
+                    if (!recognizeOnly)
+                        value = names.intern(b, start, i - start);
+                    return token(ID, start, i);
+
+                case DIGIT:
+                    return number(start);
+
+                case SINGLE:
+                    return token(singles[c], start, start + 1);
+
+                case SPECIAL:
+                    int kind = special(start);
+                    if (kind != COMMENT)
+                        return kind;
+                    i = pos;
+                    continue;
+
+                case NON_ASCII:
+                    // any byte outside ASCII hands over, not only one in a
+                    // literal or comment: between tokens too, where the
+                    // Scanner lexes the char it decodes to
+                    return decode(start);
+
+                default:
+                    return illegal(start);
+            }
+        }
+    }
+
+    private static boolean isIdentifierPart(byte c) {
+        byte k = classes[c & 0xFF];
+        return k == LETTER || k == DIGIT;
+    }
+
+    private int token(int kind, int start, int end) {
+        tokenStart = start;
+        tokenEnd = pos = end;
+        return kind;
+    }
+
+    /**
+     * Matches a token starting with a SPECIAL char. Returns COMMENT after
+     * skipping a comment, with pos after it.
+     */
+    private int special(int start) {
+        byte[] b = source;
+        int c = b[start];
+        int next = start + 1 < end ? b[start + 1] : -1;
+        int third = start + 2 < end ? b[start + 2] : -1;
+        switch (c) {
+            case '+':
+            case '-':
+                if (isDigit(next) || (next == '.' && isDigit(third)))
+                    return number(start);
+                if (next == c)
+                    return token(c == '+' ? INC_OP : DEC_OP, start, start + 2);
+                if (next == '=')
+                    return token(c == '+' ? ADD_ASSIGN : SUB_ASSIGN, start, start + 2);
+                if (c == '-' && next == '>')
+                    return token(PTR_OP, start, start + 2);
+                return token(c == '+' ? PLUS : MINUS, start, start + 1);
+            case '.':
+                if (isDigit(next))
+                    return number(start);
+                if (next == '.' && third == '.')
+                    return token(ELLIPSIS, start, start + 3);
+                return token(FULLSTOP, start, start + 1);
+            case '/':
+                if (next == '*')
+                    return blockComment(start);
+                if (next == '/')
+                    return lineComment(start);
+                if (next == '=')
+                    return token(DIV_ASSIGN, start, start + 2);
+                return token(DIVIDE, start, start + 1);
+            case '<':
+            case '>':
+                if (next == c)
+                    return third == '='
+                            ? token(c == '<' ? LEFT_ASSIGN : RIGHT_ASSIGN, start, start + 3)
+                            : token(c == '<' ? LEFT_OP : RIGHT_OP, start, start + 2);
+                if (next == '=')
+                    return token(c == '<' ? LE_OP : GE_OP, start, start + 2);
+                return token(c == '<' ? LESS : GREATER, start, start + 1);
+            case '=':
+                return next == '=' ? token(EQUALS, start, start + 2) : token(ASSIGN, start, start + 1);
+            case '*':
+                return next == '=' ? token(MUL_ASSIGN, start, start + 2) : token(TIMES, start, start + 1);
+            case '%':
+                return next == '=' ? token(MOD_ASSIGN, start, start + 2) : token(PERCENT, start, start + 1);
+            case '^':
+                return next == '=' ? token(XOR_ASSIGN, start, start + 2) : token(CARET, start, start + 1);
+            case '!':
+                return next == '=' ? token(NE_OP, start, start + 2) : token(BANG, start, start + 1);
+            case '&':
+                if (next == '&')
+                    return token(AND_OP, start, start + 2);
+                return next == '=' ? token(AND_ASSIGN, start, start + 2) : token(AMPERSAND, start, start + 1);
+            case '|':
+                if (next == '|')
+                    return token(OR_OP, start, start + 2);
+                return next == '=' ? token(OR_ASSIGN, start, start + 2) : token(VERTICALBAR, start, start + 1);
+            default:
+                int kind = literal(start);
+                return kind != NO_MATCH ? kind : illegal(start);
+        }
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isHexDigit(int c) {
+        return isDigit(c) || ((c | 0x20) >= 'a' && (c | 0x20) <= 'f');
+    }
+
+    private static boolean isOctalDigit(int c) {
+        return c >= '0' && c <= '7';
+    }
+
+    /**
+     * Matches an {IntLiteral} or a {RealLiteral}, whichever is longer, the
+     * int on a tie.
+     */
+    private int number(int start) {
+        int intEnd = intEnd(start);
+        int realEnd = realEnd(start);
+        if (recognizeOnly)
+            return realEnd > intEnd ? token(REALLITERAL, start, realEnd) : token(INTLITERAL, start, intEnd);
+        int length = Math.max(intEnd, realEnd) - start;
+        char[] chars = chars(start, length);
+        if (realEnd > intEnd) {
+            value = literals.realLiteral(chars, 0, length, lines, start);
+            return token(REALLITERAL, start, realEnd);
+        }
+        value = literals.intLiteral(chars, 0, length, lines, start);
+        return token(INTLITERAL, start, intEnd);
+    }
+
+    /** Returns the end of the {IntLiteral} at <tt>i</tt>, or -1 if none starts there. */
+    private int intEnd(int i) {
+        byte[] b = source;
+        int end = this.end;
+        if (b[i] == '+' || b[i] == '-')
+            i++;
+        if (i == end || !isDigit(b[i]))
+            return -1;
+        if (b[i] != '0') {
+            while (i < end && isDigit(b[i]))
+                i++;
+        } else if (i + 2 < end && (b[i + 1] | 0x20) == 'x' && isHexDigit(b[i + 2])) {
+            i += 2;
+            while (i < end && isHexDigit(b[i]))
+                i++;
+        } else {
+            i++;
+            while (i < end && isOctalDigit(b[i]))
+                i++;
+        }
+
+        if (i < end && (b[i] | 0x20) == 'u')
+            i++;
+        if (i < end && (b[i] == 'l' || b[i] == 'L')) {
+            if (i + 1 < end && b[i + 1] == b[i])
+                i++;
+            i++;
+        }
+        return i;
+    }
+
+    /** Returns the end of the {RealLiteral} at <tt>i</tt>, or -1 if none starts there. */
+    private int realEnd(int i) {
+        byte[] b = source;
+        int end = this.end;
+        if (b[i] == '+' || b[i] == '-')
+            i++;
+        int digits = i;
+        while (i < end && isDigit(b[i]))
+            i++;
+        if (i > digits) {
+            if (i < end && b[i] == '.')
+                i++;
+        } else if (i + 1 < end && b[i] == '.' && isDigit(b[i + 1])) {
+            i++;
+        } else {
+            return -1;
+        }
+        while (i < end && isDigit(b[i]))
+            i++;
+
+        if (i < end && (b[i] | 0x20) == 'e') {
+            int exponent = i + 1;
+            if (exponent < end && (b[exponent] == '+' || b[exponent] == '-'))
+                exponent++;
+            if (exponent < end && isDigit(b[exponent])) {
+                i = exponent;
+                while (i < end && isDigit(b[i]))
+                    i++;
+            }
+        }
+        if (i < end && ((b[i] | 0x20) == 'f' || (b[i] | 0x20) == 'l'))
+            i++;
+        return i;
+    }
+
+    /**
+     * Matches the {StringLiteral} or {CharLiteral} at <tt>start</tt>.
+     * Returns NO_MATCH if it does not end, and FALLBACK if it holds a
+     * non-ASCII byte.
+     */
+    private int literal(int start) {
+        int quote = source[start] == 'L' ? start + 1 : start;
+        boolean string = source[quote] == '"';
+        int end = string ? stringEnd(quote + 1) : charEnd(quote + 1);
+        if (end == DECODE)
+            return decode(start);
+        if (end < 0)
+            return NO_MATCH;
+        if (recognizeOnly && !string)
+            return token(CHARLITERAL, start, end);
+        int length = end - start;
+        char[] chars = chars(start, length);
+        if (string) {
+            value = literals.stringLiteral(chars, 0, length);
+            return token(STRINGLITERAL, start, end);
+        }
+        value = literals.charLiteral(chars, 0, length, lines, start);
+        return token(CHARLITERAL, start, end);
+    }
+
+    /** Returns the end of a string literal whose text starts at <tt>i</tt>, or -1. */
+    private int stringEnd(int i) {
+        byte[] b = source;
+        int end = this.end;
+        while (i < end) {
+            byte c = b[i];
+            if (c == '"')
+                return i + 1;
+            if (c < 0)
+                return DECODE;
+            if (c == '\\') {
+                // \\. and . is anything but \n
+                if (i + 1 == end || b[i + 1] == '\n')
+                    return -1;
+                if (b[i + 1] < 0)
+                    return DECODE;
+                i += 2;
+            } else {
+                i++;
+            }
+        }
+        return -1;
+    }
+
+    /** Returns the end of a char literal whose text starts at <tt>i</tt>, or -1. */
+    private int charEnd(int i) {
+        byte[] b = source;
+        int end = this.end;
+        int first = i;
+        while (i < end) {
+            byte c = b[i];
+            if (c == '\'')
+                return i > first ? i + 1 : -1;
+            if (c < 0)
+                return DECODE;
+            if (c == '\r' || c == '\n')
+                return -1;
+            if (c == '\\') {
+                if (i + 1 == end)
+                    return -1;
+                byte escaped = b[i + 1];
+                if (escaped < 0)
+                    return DECODE;
+                if (escaped == 'x') {
+                    if (i + 2 == end || !isHexDigit(b[i + 2]))
+                        return -1;
+                    i += 3;
+                } else if (escaped == '\r' || escaped == '\n') {
+                    return -1;
+                } else {
+                    i += 2;
+                }
+            } else {
+                i++;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Skips the comment "/*" starts at <tt>start</tt>, or returns DIVIDE
+     * when it does not end: {CommentBlock} fails and "/" is the longest match.
+     */
+    private int blockComment(int start) {
+        byte[] b = source;
+        int last = end - 1;
+        boolean ascii = true;
+        for (int i = start + 2; i < last; ++i) {
+            byte c = b[i];
+            if (c == '*' && b[i + 1] == '/') {
+                if (!ascii)
+                    return decode(start);
+                trivia.add(start, i + 2 - start);
+                pos = i + 2;
+                return COMMENT;
+            }
+            ascii &= c >= 0;
+        }
+        return token(DIVIDE, start, start + 1);
+    }
+
+    private int lineComment(int start) {
+        byte[] b = source;
+        int i = start + 2;
+        while (i < end && b[i] != '\n' && b[i] != '\r') {
+            if (b[i] < 0)
+                return decode(start);
+            i++;
+        }
+        trivia.add(start, i - start);
+        pos = i;
+        return COMMENT;
+    }
+
+    /** Reports the byte at <tt>start</tt> and matches it as an ILLEGAL token. */
+    private int illegal(int start) {
+        Errors.fatal(lines, start, "Illegal character \"" + (char) source[start] + "\"");
+        return token(ILLEGAL, start, start + 1);
+    }
+
+    /** Returns the <tt>length</tt> bytes from <tt>start</tt> widened to chars. */
+    private char[] chars(int start, int length) {
+        if (text.length < length)
+            text = new char[Math.max(length, text.length * 2)];
+        char[] chars = text;
+        byte[] b = source;
+        for (int i = 0; i < length; ++i)
+            chars[i] = (char) b[start + i];
+        return chars;
+    }
+
+    /**
+     * Decodes the input and hands it over to a Scanner that goes on at
+     * <tt>start</tt>. The decoded chars sit at the offsets of the bytes,
+     * which are the same up to <tt>start</tt>.
+     */
+    private int decode(int start) {
+        String decoded = new String(source, offset, end - offset, Charset.defaultCharset());
+        char[] chars = new char[offset + decoded.length()];
+        decoded.getChars(0, decoded.length(), chars, offset);
+
+        lines.setSource(chars, decoded.length());
+        trivia.setSource(chars);
+        if (spare == null)
+            spare = new Scanner(chars, start, chars.length - start);
+        else
+            spare.reset(chars, start, chars.length - start);
+        fallback = spare;
+        fallback.setLineIndex(lines);
+        fallback.setTrivia(trivia);
+        fallback.setNameTable(names);
+        fallback.setRecognizeOnly(recognizeOnly);
+        fallback.setCharRuns(CharRuns.get());
+        return FALLBACK;
+    }
+}
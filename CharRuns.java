@@ -0,0 +1,66 @@
+/**
+ * Finds the end of the character runs the scanner skips over: blanks,
+ * identifier characters and block comment bodies.
+ *
+ * A scanner given a CharRuns matches such a run by its first characters
+ * only and lets the action jump to the end of the run, instead of walking
+ * every character through the DFA. This class does the scan one char at
+ * a time; {@link #get()} returns a VectorCharRuns when one was compiled
+ * from the vector directory and the jdk.incubator.vector module is present.
+ */
+class CharRuns {
+    private static CharRuns best;
+
+    /**
+     * Returns the fastest implementation available. The vector one is
+     * loaded by name, so the scanner builds and runs without it and without
+     * the incubator module.
+     */
+    static synchronized CharRuns get() {
+        if (best == null) {
+            try {
+                best = (CharRuns) Class.forName("VectorCharRuns").getDeclaredConstructor()
+                        .newInstance();
+            } catch (Throwable e) {
+                best = new CharRuns();
+            }
+        }
+        return best;
+    }
+
+    static boolean isBlank(char c) {
+        return c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f';
+    }
+
+    static boolean isIdentifierPart(char c) {
+        return (char) ((c | 0x20) - 'a') < 26 || (char) (c - '0') < 10 || c == '_';
+    }
+
+    /** Returns the first index from <tt>from</tt> on that is not a blank. */
+    int skipBlanks(char[] buf, int from, int end) {
+        int i = from;
+        while (i < end && isBlank(buf[i]))
+            i++;
+        return i;
+    }
+
+    /** Returns the first index from <tt>from</tt> on that is not [_a-zA-Z0-9]. */
+    int skipIdentifier(char[] buf, int from, int end) {
+        int i = from;
+        while (i < end && isIdentifierPart(buf[i]))
+            i++;
+        return i;
+    }
+
+    /**
+     * Returns the index just after the first "*&#47;" starting at or after
+     * <tt>from</tt>, or -1 if there is none before <tt>end</tt>.
+     */
+    int skipComment(char[] buf, int from, int end) {
+        for (int i = from; i < end - 1; ++i) {
+            if (buf[i] == '*' && buf[i + 1] == '/')
+                return i + 2;
+        }
+        return -1;
+    }
+}
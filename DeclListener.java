@@ -0,0 +1,12 @@
+/**
+ * Takes the top-level declarations of an input as the parser completes
+ * them, in order, instead of the Program keeping them.
+ *
+ * A declaration is handed over once it is final: when the parser has
+ * seen the token after it and no error recovery can take it back. A
+ * declaration dropped by recovery is never seen. With a listener set, the
+ * parse returns a Program whose DeclList is empty.
+ */
+interface DeclListener {
+    void declaration(Decl decl) throws Exception;
+}
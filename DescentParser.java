@@ -0,0 +1,302 @@
+import java_cup.runtime.Symbol;
+
+/**
+ * A hand-written parser for the language of SimpleC.cup, building the same
+ * tree as the generated one: recursive descent for declarations and
+ * statements, precedence climbing for expressions.
+ *
+ * It asks the lexer for one token at a time, as the CUP parser does, but
+ * keeps no symbol stack and creates nothing per reduction, so it is the
+ * cheaper of the two when the tables are not needed.
+ *
+ * Errors are reported and recovered from as the CUP parser does it with
+ * the error productions of SimpleC.cup: a broken statement is dropped up
+ * to a ; and a broken declaration up to a ; or }, the first one after which
+ * the next two tokens parse, so both parsers report the same errors and
+ * keep the same declarations and statements.
+ */
+final class DescentParser implements sym {
+    /** Unwinds to the construct the parse goes on after; the error is reported. */
+    private static final class SyntaxError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        SyntaxError() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final SyntaxError SYNTAX_ERROR = new SyntaxError();
+
+    private final java_cup.runtime.Scanner lexer;
+
+    /** where the top-level declarations go, null to keep them in the Program */
+    private DeclListener declListener;
+
+    /** the lookahead */
+    private Symbol token;
+
+    /** the tokens after it, read by peek() during error recovery */
+    private final Symbol[] ahead = new Symbol[2];
+    private int aheadCount;
+
+    DescentParser(java_cup.runtime.Scanner lexer) {
+        this.lexer = lexer;
+    }
+
+    /** Hands each top-level declaration to <tt>listener</tt> as it is parsed. */
+    void setDeclListener(DeclListener listener) {
+        declListener = listener;
+    }
+
+    /**
+     * Parses the input and returns its tree. Throws an Exception when no
+     * construct could be taken up after an error; the errors have been
+     * reported then.
+     */
+    Program parse() throws Exception {
+        next();
+        // the CUP parser has no declaration list to recover in before the first declaration
+        if (token.sym != INT && token.sym != VOID && token.sym != EOF) {
+            report();
+            throw new Exception("Can't recover from previous error(s)");
+        }
+        NodeList decls = new NodeList(64);
+        while (token.sym != EOF) {
+            try {
+                Decl decl = declaration();
+                // the CUP parser takes a declaration only with the next one or the end after it
+                if (token.sym != INT && token.sym != VOID && token.sym != EOF)
+                    error();
+                if (declListener == null)
+                    decls.add(decl);
+                else
+                    declListener.declaration(decl);
+            } catch (SyntaxError e) {
+                recover(true);
+            }
+        }
+        return new Program(new DeclList(decls.toArray(DeclList.NONE)));
+    }
+
+    /** Returns the comments of the parsed input, read by a Lexer. */
+    Trivia getTrivia() {
+        return ((Lexer) lexer).getTrivia();
+    }
+
+    // decl ::= varDecl | funcDef
+    private Decl declaration() throws Exception {
+        Type type = type();
+        ID id = id();
+        if (token.sym != LPAREN)
+            return variable(type, id);
+
+        FormalsList formals = formals();
+        return new FuncDef(type, 0, id, formals, body());
+    }
+
+    // varDecl ::= type id SEMICOLON | type id LSQBRACKET INTLITERAL RSQBRACKET SEMICOLON
+    private VarDecl variable(Type type, ID id) throws Exception {
+        if (token.sym == SEMICOLON) {
+            next();
+            return new VarDecl(type, id);
+        }
+        expect(LSQBRACKET);
+        if (token.sym != INTLITERAL)
+            error();
+        IntLiteral size = new IntLiteral((Integer) token.value);
+        next();
+        expect(RSQBRACKET);
+        expect(SEMICOLON);
+        return new VarDecl(type, id, size);
+    }
+
+    // formals ::= LPAREN [formalDecl {COMMA formalDecl} [COMMA]] RPAREN
+    private FormalsList formals() throws Exception {
+        expect(LPAREN);
+        NodeList formals;
+        if (token.sym == RPAREN) {
+            formals = new NodeList(1);
+        } else {
+            formals = new NodeList(4);
+            do {
+                Type type = type();
+                formals.add(new FormalDecl(type, id()));
+                if (token.sym != COMMA)
+                    break;
+                next();
+            } while (token.sym != RPAREN);
+        }
+        expect(RPAREN);
+        return new FormalsList(formals.toArray(FormalsList.NONE));
+    }
+
+    // funcBody ::= LCURLY {varDecl} {stmt} RCURLY
+    private FuncBody body() throws Exception {
+        expect(LCURLY);
+        NodeList decls = new NodeList(4);
+        while (token.sym == INT || token.sym == VOID) {
+            Type type = type();
+            decls.add(variable(type, id()));
+        }
+        // only here do the statements begin, and with them recovery inside the body
+        if (token.sym != ID && token.sym != RCURLY)
+            error();
+
+        NodeList stmts = new NodeList(8);
+        for (;;) {
+            try {
+                if (token.sym != RCURLY) {
+                    Stmt stmt = statement();
+                    // and a statement only with the next one or the } after it
+                    if (token.sym != ID && token.sym != RCURLY)
+                        error();
+                    stmts.add(stmt);
+                    continue;
+                }
+                next();
+                // the CUP parser closes the body only before a declaration or
+                // the end; anything else is an error among its statements
+                if (token.sym == INT || token.sym == VOID || token.sym == EOF)
+                    break;
+                error();
+            } catch (SyntaxError e) {
+                recover(false);
+            }
+        }
+        return new FuncBody(new DeclList(decls.toArray(DeclList.NONE)),
+                            new StmtList(stmts.toArray(StmtList.NONE)));
+    }
+
+    // stmt ::= id ASSIGN exp SEMICOLON
+    private Stmt statement() throws Exception {
+        ID loc = id();
+        expect(ASSIGN);
+        Expr exp = expression(1);
+        expect(SEMICOLON);
+        return new AssignStmt(loc, exp);
+    }
+
+    /**
+     * Parses an expression whose operators all bind at least as tightly as
+     * <tt>minPrecedence</tt>; operators of equal precedence associate to
+     * the left.
+     */
+    private Expr expression(int minPrecedence) throws Exception {
+        Expr left = term();
+        for (int precedence; (precedence = precedence(token.sym)) >= minPrecedence; ) {
+            int operator = token.sym;
+            next();
+            Expr right = expression(precedence + 1);
+            left = operator == PLUS ? new PlusExpr(left, right) : new MinusExpr(left, right);
+        }
+        return left;
+    }
+
+    /** Returns how tightly a binary operator binds, 0 for other tokens. */
+    private static int precedence(int token) {
+        switch (token) {
+        case PLUS:
+        case MINUS:
+            return 1;
+        default:
+            return 0;
+        }
+    }
+
+    // the operands of exp: ID | INTLITERAL
+    private Expr term() throws Exception {
+        if (token.sym != INTLITERAL)
+            return id();
+        IntLiteral literal = new IntLiteral((Integer) token.value);
+        next();
+        return literal;
+    }
+
+    // type ::= INT | VOID
+    private Type type() throws Exception {
+        Type type;
+        if (token.sym == INT)
+            type = new IntType();
+        else if (token.sym == VOID)
+            type = new VoidType();
+        else
+            throw error();
+        next();
+        return type;
+    }
+
+    private ID id() throws Exception {
+        if (token.sym != ID)
+            error();
+        ID id = new ID((Name) token.value);
+        next();
+        return id;
+    }
+
+    private void expect(int kind) throws Exception {
+        if (token.sym != kind)
+            error();
+        next();
+    }
+
+    private void next() throws Exception {
+        if (aheadCount == 0) {
+            token = lexer.next_token();
+            return;
+        }
+        token = ahead[0];
+        ahead[0] = ahead[1];
+        --aheadCount;
+    }
+
+    /** Returns the kind of the <tt>k</tt>-th token after the lookahead, 1 or 2. */
+    private int peek(int k) throws Exception {
+        while (aheadCount < k)
+            ahead[aheadCount++] = lexer.next_token();
+        return ahead[k - 1].sym;
+    }
+
+    /** Reports the lookahead and unwinds. */
+    private SyntaxError error() {
+        report();
+        throw SYNTAX_ERROR;
+    }
+
+    /** Reports the lookahead as the CUP parser does. */
+    private void report() {
+        parser.reportSyntaxError(token, lexer instanceof Lexer ? (Lexer) lexer : null);
+    }
+
+    /**
+     * Drops the input after an error up to and including a ; or, for a
+     * <tt>declaration</tt>, a ; or } that the parse can go on after. Like
+     * CUP's error recovery, which tries three tokens, it asks for the two
+     * after it to start the next statement or declaration, or to end the
+     * function body or the input. Gives up at the end of the input.
+     */
+    private void recover(boolean declaration) throws Exception {
+        for (; token.sym != EOF; next()) {
+            if (declaration ? (token.sym == SEMICOLON || token.sym == RCURLY) && declarationFollows()
+                            : token.sym == SEMICOLON && statementFollows()) {
+                next();
+                return;
+            }
+        }
+        throw new Exception("Can't recover from previous error(s)");
+    }
+
+    private boolean declarationFollows() throws Exception {
+        int first = peek(1);
+        return first == EOF || (first == INT || first == VOID) && peek(2) == ID;
+    }
+
+    private boolean statementFollows() throws Exception {
+        int first = peek(1);
+        if (first == ID)
+            return peek(2) == ASSIGN;
+        if (first != RCURLY)
+            return false;
+        int second = peek(2);
+        return second == INT || second == VOID || second == EOF;
+    }
+}
@@ -0,0 +1,131 @@
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The errors and warnings of one input, collected in order.
+ *
+ * Errors reports to the Diagnostics installed on the calling thread, or
+ * straight to System.err when there is none. Past <tt>limit</tt> errors
+ * the input is abandoned: error() throws LimitExceeded, which the code
+ * driving the parse catches, so one broken file costs at most that many
+ * messages and the run goes on with the next.
+ */
+final class Diagnostics {
+    /** the number of errors after which an input is given up, as javac does */
+    static final int DEFAULT_LIMIT = 100;
+
+    private static final ThreadLocal<Diagnostics> current = new ThreadLocal<Diagnostics>();
+
+    /** Returns the diagnostics of the calling thread, null if none is installed. */
+    static Diagnostics current() {
+        return current.get();
+    }
+
+    /**
+     * Makes the calling thread report to <tt>diagnostics</tt>, or to
+     * System.err when null, and returns the ones it reported to before.
+     */
+    static Diagnostics install(Diagnostics diagnostics) {
+        Diagnostics previous = current.get();
+        current.set(diagnostics);
+        return previous;
+    }
+
+    /** One error or warning. */
+    static final class Message {
+        final boolean error;
+        final int line;
+        final int column;
+        final String text;
+
+        Message(boolean error, int line, int column, String text) {
+            this.error = error;
+            this.line = line;
+            this.column = column;
+            this.text = text;
+        }
+
+        public String toString() {
+            return format(error, line, column, text);
+        }
+    }
+
+    static String format(boolean error, int line, int column, String text) {
+        return "At line: " + line + ", column: " + column
+                + (error ? " **ERROR** " : " **WARNING** ") + text;
+    }
+
+    /** Thrown when an input has more errors than the limit. */
+    static final class LimitExceeded extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        LimitExceeded(int limit) {
+            super("Too many errors (" + limit + ")", null, false, false);
+        }
+    }
+
+    private final int limit;
+    /** where messages are printed as they come, null for none */
+    private final PrintStream echo;
+    private final List<Message> messages = new ArrayList<Message>();
+    private int errors;
+
+    /**
+     * Creates diagnostics that give up after <tt>limit</tt> errors (0 for
+     * no limit) and print each message to <tt>echo</tt> unless null.
+     */
+    Diagnostics(int limit, PrintStream echo) {
+        this.limit = limit;
+        this.echo = echo;
+    }
+
+    void error(int line, int column, String text) {
+        add(new Message(true, line, column, text));
+        if (++errors == limit)
+            throw new LimitExceeded(limit);
+    }
+
+    void warn(int line, int column, String text) {
+        add(new Message(false, line, column, text));
+    }
+
+    /**
+     * Reports the messages collected here again through Errors, on the
+     * calling thread, for messages collected on another.
+     */
+    void replay() {
+        replay(0, messages.size());
+    }
+
+    /** Reports messages <tt>from</tt> to <tt>to</tt> - 1 again, as replay() does all. */
+    void replay(int from, int to) {
+        for (Message message : messages.subList(from, to)) {
+            if (message.error)
+                Errors.fatal(message.line, message.column, message.text);
+            else
+                Errors.warn(message.line, message.column, message.text);
+        }
+    }
+
+    private void add(Message message) {
+        messages.add(message);
+        if (echo != null)
+            echo.println(message);
+    }
+
+    /** Returns the messages so far, in the order they were reported. */
+    List<Message> getMessages() {
+        return messages;
+    }
+
+    int getErrorCount() {
+        return errors;
+    }
+
+    /** Forgets all messages, for the next input. */
+    void clear() {
+        messages.clear();
+        errors = 0;
+    }
+}
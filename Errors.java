@@ -2,14 +2,28 @@
 
 class Errors {
     static void fatal(int lineNum, int charNum, String msg) {
-        System.err.println("At line: " + lineNum + ", column: " + charNum
-                + " **ERROR** " + msg);
         fatalError = true;
+        Diagnostics diagnostics = Diagnostics.current();
+        if (diagnostics != null)
+            diagnostics.error(lineNum, charNum, msg);
+        else
+            System.err.println(Diagnostics.format(true, lineNum, charNum, msg));
     }
 
     static void warn(int lineNum, int charNum, String msg) {
-        System.err.println("At line: " + lineNum + ", column: " + charNum
-                + " **WARNING** " + msg);
+        Diagnostics diagnostics = Diagnostics.current();
+        if (diagnostics != null)
+            diagnostics.warn(lineNum, charNum, msg);
+        else
+            System.err.println(Diagnostics.format(false, lineNum, charNum, msg));
+    }
+
+    static void fatal(LineIndex lines, int offset, String msg) {
+        fatal(lines.getLine(offset), lines.getColumn(offset), msg);
+    }
+
+    static void warn(LineIndex lines, int offset, String msg) {
+        warn(lines.getLine(offset), lines.getColumn(offset), msg);
     }
 
     static boolean fatalError = false;
@@ -0,0 +1,286 @@
+import java.io.IOException;
+
+/**
+ * Keeps the token stream of a source up to date while the source is edited.
+ *
+ * After an edit the scanner restarts at the last token that starts at or
+ * before the beginning of the edited line, so no token whose match could
+ * have looked at the edited characters is kept. It stops as soon as a new
+ * token starts where an old token after the edit started (moved by the
+ * length change): from a token boundary the scanner only looks forward, so
+ * all later tokens are the old ones. Only the tokens in between are
+ * scanned again; the rest of the buffer is moved with arraycopy.
+ *
+ * Two constructs can look further than their line before they fail. An
+ * unterminated "/*" scans to the end of the input before it is lexed as
+ * DIVIDE followed by TIMES; an edit that produces a "*&#47;" restarts before
+ * the first such pair. A string literal may span lines: a " is an ILLEGAL
+ * token only as long as no later " closes it, with no \ and newline in
+ * between. An edit that inserts or removes a ", a \ or a line end restarts
+ * before the first such ILLEGAL token.
+ *
+ * Both kinds of token are rare and are kept in sorted lists of their
+ * indexes, updated with the tokens, so that finding the first of them
+ * does not scan the tokens from the start of the file on every edit.
+ */
+final class IncrementalLexer {
+    private char[] source;
+    private int length;
+    private final TokenBuffer tokens = new TokenBuffer();
+    private final Trivia trivia;
+    private final LineIndex lines;
+    /** the ILLEGAL " tokens */
+    private final Marks strayQuotes = new Marks();
+    /** the DIVIDEs of "&#47;*" pairs, comments that did not end */
+    private final Marks openComments = new Marks();
+
+    /**
+     * Lexes the first <tt>length</tt> characters of <tt>source</tt>. The
+     * array is owned by the lexer from now on and is edited in place.
+     */
+    IncrementalLexer(char[] source, int length) throws IOException {
+        this.source = source;
+        this.length = length;
+        Scanner scanner = new Scanner(source, 0, length);
+        scanner.tokenize(tokens);
+        trivia = scanner.getTrivia();
+        lines = scanner.getLineIndex();
+        mark(0, tokens.size());
+    }
+
+    public TokenBuffer getTokens() {
+        return tokens;
+    }
+
+    public Trivia getTrivia() {
+        return trivia;
+    }
+
+    /** Returns the current text. */
+    public String getText() {
+        return new String(source, 0, length);
+    }
+
+    /** The tokens an edit replaced. */
+    static final class Change {
+        /** index of the first replaced token */
+        final int first;
+        /** number of old tokens that were removed */
+        final int removed;
+        /** number of new tokens now starting at <tt>first</tt> */
+        final int inserted;
+
+        Change(int first, int removed, int inserted) {
+            this.first = first;
+            this.removed = removed;
+            this.inserted = inserted;
+        }
+
+        public String toString() {
+            return "[" + first + ", -" + removed + ", +" + inserted + "]";
+        }
+    }
+
+    /**
+     * Replaces <tt>removed</tt> characters at <tt>offset</tt> with
+     * <tt>inserted</tt> and brings the tokens and comments up to date.
+     * Tokens after the returned range are the old ones, moved to their new
+     * offsets. Symbols made from the buffer earlier must not be
+     * used any more, they share the edited array.
+     */
+    public Change edit(int offset, int removed, String inserted) throws IOException {
+        if (offset < 0 || removed < 0 || offset + removed > length)
+            throw new IndexOutOfBoundsException("edit " + offset + "+" + removed
+                    + " outside 0.." + length);
+
+        int first = restartToken(offset);
+        int delta = inserted.length() - removed;
+        boolean quotes = closesString(source, offset, offset + removed)
+                || closesString(inserted.toCharArray(), 0, inserted.length());
+        splice(offset, removed, inserted);
+        lines.edit(source, length, offset, removed, inserted.length());
+        if (opensComment(offset, inserted.length()))
+            first = unterminatedComment(first);
+        if (quotes)
+            first = strayQuote(first);
+
+        // with no token before the line the scanner starts from the top
+        int restart = 0;
+        Scanner scanner;
+        if (first < 0) {
+            first = 0;
+            scanner = new Scanner(source, 0, length);
+        } else {
+            restart = tokens.getStart(first);
+            scanner = new Scanner(source, restart, length - restart);
+        }
+        scanner.setLineIndex(lines);
+        TokenBuffer fresh = new TokenBuffer(64);
+        fresh.setSource(source);
+
+        int editEnd = offset + inserted.length();
+        int last = tokens.size();
+        int n;
+        while (true) {
+            boolean more = scanner.tokenizeNext(fresh);
+            n = fresh.size() - 1;
+            int start = fresh.getStart(n);
+            if (start >= editEnd) {
+                int old = tokens.find(start - delta);
+                if (old >= 0) {
+                    last = old;
+                    break;
+                }
+            }
+            if (!more) {
+                n++;
+                break;
+            }
+        }
+
+        tokens.shift(last, delta);
+        int oldEnd = last < tokens.size() ? tokens.getStart(last) - delta : length - delta;
+        trivia.replace(restart, oldEnd, scanner.getTrivia(), delta);
+        tokens.replace(first, last, fresh, n);
+        tokens.setSource(source);
+        trivia.setSource(source);
+        // a "/" before the new tokens may start a pair with the first of them
+        int from = Math.max(first - 1, 0);
+        strayQuotes.replace(from, last, n - (last - first));
+        openComments.replace(from, last, n - (last - first));
+        mark(from, first + n);
+        return new Change(first, last - first, n);
+    }
+
+    /** Adds the marked tokens from <tt>from</tt> to <tt>to</tt> - 1 to their lists. */
+    private void mark(int from, int to) {
+        for (int i = from; i < to; ++i) {
+            int kind = tokens.getKind(i);
+            if (kind == sym.ILLEGAL && source[tokens.getStart(i)] == '"')
+                strayQuotes.add(i);
+            else if (kind == sym.DIVIDE && i + 1 < tokens.size()
+                    && tokens.getStart(i + 1) == tokens.getStart(i) + 1
+                    && (tokens.getKind(i + 1) == sym.TIMES || tokens.getKind(i + 1) == sym.MUL_ASSIGN))
+                openComments.add(i);
+        }
+    }
+
+    /**
+     * Returns the index of the last token starting at or before the
+     * beginning of the line holding <tt>offset</tt>, or -1 if there is none.
+     * A comment or token spanning the line start begins after that token.
+     */
+    private int restartToken(int offset) {
+        int lineStart = offset;
+        while (lineStart > 0 && source[lineStart - 1] != '\n' && source[lineStart - 1] != '\r')
+            lineStart--;
+        int i = tokens.find(lineStart);
+        if (i < 0)
+            i = -(i + 1) - 1;
+        return i;
+    }
+
+    /** Does the edited text now hold a "*&#47;" touching the inserted characters? */
+    private boolean opensComment(int offset, int inserted) {
+        int from = Math.max(offset - 1, 0);
+        int to = Math.min(offset + inserted, length - 1);
+        for (int i = from; i < to; ++i) {
+            if (source[i] == '*' && source[i + 1] == '/')
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the DIVIDE of the first unterminated block comment before
+     * token <tt>first</tt>, or <tt>first</tt> if there is none.
+     */
+    private int unterminatedComment(int first) {
+        return Math.min(openComments.first(), first);
+    }
+
+    /**
+     * Do <tt>chars</tt> from <tt>from</tt> to <tt>to</tt> hold a character
+     * that can end a string literal, or end one too early?
+     */
+    private static boolean closesString(char[] chars, int from, int to) {
+        for (int i = from; i < to; ++i) {
+            char c = chars[i];
+            if (c == '"' || c == '\\' || c == '\r' || c == '\n')
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the first ILLEGAL " before token <tt>first</tt>, a string
+     * literal that did not end, or <tt>first</tt> if there is none.
+     */
+    private int strayQuote(int first) {
+        return Math.min(strayQuotes.first(), first);
+    }
+
+    /** Replaces the characters in the source array, growing it if needed. */
+    private void splice(int offset, int removed, String inserted) {
+        int newLength = length - removed + inserted.length();
+        int tail = length - offset - removed;
+        if (newLength > source.length) {
+            char[] grown = new char[Math.max(newLength, source.length + (source.length >> 1))];
+            System.arraycopy(source, 0, grown, 0, offset);
+            System.arraycopy(source, offset + removed, grown, offset + inserted.length(), tail);
+            source = grown;
+        } else {
+            System.arraycopy(source, offset + removed, source, offset + inserted.length(), tail);
+        }
+        inserted.getChars(0, inserted.length(), source, offset);
+        length = newLength;
+    }
+
+    /** A sorted list of token indexes, moved along as tokens are replaced. */
+    private static final class Marks {
+        private int[] at = new int[16];
+        private int count;
+
+        /** Returns the first index, Integer.MAX_VALUE if there is none. */
+        int first() {
+            return count == 0 ? Integer.MAX_VALUE : at[0];
+        }
+
+        /** Adds <tt>index</tt>, which is not in the list. */
+        void add(int index) {
+            int i = find(index);
+            if (count == at.length)
+                at = java.util.Arrays.copyOf(at, count * 2);
+            System.arraycopy(at, i, at, i + 1, count - i);
+            at[i] = index;
+            count++;
+        }
+
+        /**
+         * Drops the indexes from <tt>from</tt> to <tt>to</tt> - 1 and moves
+         * the ones after by <tt>delta</tt>.
+         */
+        void replace(int from, int to, int delta) {
+            int i = find(from);
+            int j = find(to);
+            System.arraycopy(at, j, at, i, count - j);
+            count -= j - i;
+            for (int k = i; k < count; ++k)
+                at[k] += delta;
+        }
+
+        /** Returns the position of the first index not below <tt>index</tt>. */
+        private int find(int index) {
+            int lo = 0;
+            int hi = count;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (at[mid] < index)
+                    lo = mid + 1;
+                else
+                    hi = mid;
+            }
+            return lo;
+        }
+    }
+}
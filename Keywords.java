@@ -0,0 +1,92 @@
+/**
+ * Keyword recognition for the scanner.
+ *
+ * Keywords are matched by the {Identifier} rule like any other word and then
+ * looked up here, which keeps their states out of the DFA tables. The hash
+ * below is perfect for the keyword set: every keyword lands in its own slot,
+ * so a lookup is one multiply and at most one comparison.
+ */
+final class Keywords implements sym {
+    private static final String[] WORDS = {
+        "int", "bool", "return", "void", "if", "else", "true", "false",
+        "TRUE", "FALSE", "auto", "break", "case", "char", "const",
+        "continue", "default", "do", "double", "enum", "extern", "float",
+        "for", "goto", "long", "register", "short", "signed", "sizeof",
+        "static", "struct", "switch", "typedef", "union", "unsigned",
+        "volatile", "while", "null", "NULL"
+    };
+
+    private static final int[] CODES = {
+        INT, BOOL, RETURN, VOID, IF, ELSE, TRUE, FALSE,
+        TRUE, FALSE, AUTO, BREAK, CASE, CHAR, CONST,
+        CONTINUE, DEFAULT, DO, DOUBLE, ENUM, EXTERN, FLOAT,
+        FOR, GOTO, LONG, REGISTER, SHORT, SIGNED, SIZEOF,
+        STATIC, STRUCT, SWITCH, TYPEDEF, UNION, UNSIGNED,
+        VOLATILE, WHILE, NULL, NULL
+    };
+
+    /** multiplier found by search so that no two keywords collide */
+    private static final int MULTIPLIER = 0x2848e20f;
+    private static final int SLOT_BITS = 7;
+
+    private static final int MIN_LENGTH = 2;
+    private static final int MAX_LENGTH = 8;
+
+    private static final char[][] slotWords = new char[1 << SLOT_BITS][];
+    private static final int[] slotCodes = new int[1 << SLOT_BITS];
+
+    static {
+        for (int i = 0; i < WORDS.length; ++i) {
+            char[] word = WORDS[i].toCharArray();
+            int slot = slot(word, 0, word.length);
+            if (slotWords[slot] != null)
+                throw new Error("keyword hash collision: " + WORDS[i]);
+            slotWords[slot] = word;
+            slotCodes[slot] = CODES[i];
+        }
+    }
+
+    private static int slot(int c0, int c1, int last, int length) {
+        int key = (c0 << 16 | c1 << 8 | last) ^ (length << 24);
+        return (key * MULTIPLIER) >>> (32 - SLOT_BITS);
+    }
+
+    private static int slot(char[] buf, int offset, int length) {
+        return slot(buf[offset], buf[offset + 1], buf[offset + length - 1], length);
+    }
+
+    /**
+     * Returns the sym code of the keyword spelled by the characters, or -1
+     * if they are not a keyword.
+     */
+    static int lookup(char[] buf, int offset, int length) {
+        if (length < MIN_LENGTH || length > MAX_LENGTH)
+            return -1;
+
+        int slot = slot(buf, offset, length);
+        char[] word = slotWords[slot];
+        if (word == null || word.length != length)
+            return -1;
+        for (int i = 0; i < length; ++i) {
+            if (word[i] != buf[offset + i])
+                return -1;
+        }
+        return slotCodes[slot];
+    }
+
+    /** Same as the char version, for ASCII bytes. */
+    static int lookup(byte[] buf, int offset, int length) {
+        if (length < MIN_LENGTH || length > MAX_LENGTH)
+            return -1;
+
+        int slot = slot(buf[offset], buf[offset + 1], buf[offset + length - 1], length);
+        char[] word = slotWords[slot];
+        if (word == null || word.length != length)
+            return -1;
+        for (int i = 0; i < length; ++i) {
+            if (word[i] != buf[offset + i])
+                return -1;
+        }
+        return slotCodes[slot];
+    }
+}
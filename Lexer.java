@@ -0,0 +1,33 @@
+import java.io.IOException;
+
+/**
+ * What the parser and the tools need from a scanner, whatever it reads.
+ * {@link Scanner} lexes characters; {@link ByteScanner} lexes ASCII bytes
+ * and hands over to a Scanner when the input turns out not to be ASCII.
+ */
+interface Lexer extends java_cup.runtime.Scanner {
+    /** Returns the comments seen so far. */
+    Trivia getTrivia();
+
+    /** Returns the index that maps offsets of this input to lines. */
+    LineIndex getLineIndex();
+
+    /**
+     * Scans the rest of the input into <tt>tokens</tt>, EOF token included,
+     * without creating a symbol per token.
+     */
+    TokenBuffer tokenize(TokenBuffer tokens) throws IOException;
+
+    /** Returns the text of the last token matched. */
+    String yytext();
+
+    /**
+     * Makes the lexer leave out the values of its tokens, or put them in
+     * again: names are not interned and literals not decoded, nor warned
+     * about, for a caller that needs only the kinds and positions. String
+     * literals keep their value, which a syntax error at one quotes. A
+     * lexer that needs the values itself, as the Preprocessor does for its
+     * directives, keeps them all.
+     */
+    void setRecognizeOnly(boolean recognizeOnly);
+}
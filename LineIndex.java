@@ -0,0 +1,234 @@
+/**
+ * Maps character offsets to 1-based lines and columns.
+ *
+ * The scanner only tracks offsets. Lines come from a sorted array of line
+ * start offsets searched by binary search. The array is built the first
+ * time a line is asked for, by one pass over the source; a scanner reading
+ * from a Reader has no source to go back to, so it feeds the index the
+ * characters that can hold a line terminator while it scans. An index over
+ * ASCII bytes is built from the bytes directly.
+ *
+ * Line terminators are those of JFlex's %line: \r\n counts once, and \r,
+ * \n, U+000B, U+000C, U+0085, U+2028 and U+2029 each end a line.
+ */
+final class LineIndex {
+    private char[] source;
+    private byte[] bytes;
+    private final int origin;
+    private int end;
+
+    /** line start offsets, null until the index is built */
+    private volatile int[] starts;
+    private int count;
+
+    /** the offset of the last '\r' fed, whose line start a '\n' moves */
+    private int lastCR = -2;
+
+    /**
+     * Creates an index over <tt>length</tt> characters of <tt>source</tt>
+     * starting at <tt>offset</tt>, the first of them on line 1. The array
+     * is only scanned when a line is first asked for.
+     */
+    LineIndex(char[] source, int offset, int length) {
+        this.source = source;
+        this.origin = offset;
+        this.end = offset + length;
+    }
+
+    /** Same as the char version, for a source of ASCII bytes. */
+    LineIndex(byte[] source, int offset, int length) {
+        this.bytes = source;
+        this.origin = offset;
+        this.end = offset + length;
+    }
+
+    /** Creates an index that is fed by {@link #scan} as input is read. */
+    LineIndex() {
+        this.origin = 0;
+        this.starts = new int[64];
+        this.count = 1;
+    }
+
+    static boolean isTerminator(char c) {
+        return c <= '\r' ? c >= '\n' : c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private synchronized int[] build() {
+        int[] s = starts;
+        if (s != null)
+            return s;
+        s = new int[64];
+        s[0] = origin;
+        int n = 1;
+        if (bytes != null) {
+            // only the ASCII terminators: a byte source moves to chars before anything else
+            byte[] src = bytes;
+            for (int i = origin; i < end; ++i) {
+                byte c = src[i];
+                if (c <= '\r' && c >= '\n' && !(c == '\r' && i + 1 < end && src[i + 1] == '\n')) {
+                    if (n == s.length)
+                        s = grow(s, n);
+                    s[n++] = i + 1;
+                }
+            }
+            count = n;
+            starts = s;
+            return s;
+        }
+        char[] src = source;
+        for (int i = origin; i < end; ++i) {
+            char c = src[i];
+            // the common case first: no terminator is between '\r' and '\u0085'
+            if (c > '\r' && c < '\u0085')
+                continue;
+            if (isTerminator(c) && !(c == '\r' && i + 1 < end && src[i + 1] == '\n')) {
+                if (n == s.length)
+                    s = grow(s, n);
+                s[n++] = i + 1;
+            }
+        }
+        count = n;
+        starts = s;
+        return s;
+    }
+
+    private static int[] grow(int[] s, int n) {
+        int[] grown = new int[s.length * 2];
+        System.arraycopy(s, 0, grown, 0, n);
+        return grown;
+    }
+
+    /**
+     * Records the line terminators among <tt>length</tt> characters of
+     * <tt>buf</tt> from <tt>offset</tt>, which sit at <tt>position</tt> in
+     * the input. Spans must be fed in input order.
+     */
+    synchronized void scan(char[] buf, int offset, int length, int position) {
+        int[] s = starts;
+        int n = count;
+        for (int i = 0; i < length; ++i) {
+            char c = buf[offset + i];
+            if (!isTerminator(c))
+                continue;
+            int at = position + i;
+            if (c == '\n' && lastCR == at - 1) {
+                s[n - 1] = at + 1;
+                continue;
+            }
+            if (n == s.length)
+                s = grow(s, n);
+            s[n++] = at + 1;
+            if (c == '\r')
+                lastCR = at;
+        }
+        count = n;
+        starts = s;
+    }
+
+    /**
+     * Makes the index cover <tt>length</tt> characters of <tt>source</tt>
+     * from the origin on, when a scanner of bytes hands over to one of the
+     * decoded characters. The index is built again on next use.
+     */
+    synchronized void setSource(char[] source, int length) {
+        this.source = source;
+        this.bytes = null;
+        this.end = origin + length;
+        this.starts = null;
+    }
+
+    /**
+     * Brings a built index up to date after <tt>removed</tt> characters at
+     * <tt>offset</tt> were replaced by <tt>inserted</tt> characters of the
+     * new <tt>source</tt>. An index not built yet is simply built later.
+     */
+    synchronized void edit(char[] source, int length, int offset, int removed, int inserted) {
+        this.source = source;
+        this.end = origin + length;
+        int[] s = starts;
+        if (s == null)
+            return;
+
+        // a line start depends on the characters just before and at it, so
+        // only starts from offset to the end of the edit can change
+        int from = Math.max(find(s, count, offset - 1) + 1, 1);
+        int to = find(s, count, offset + removed) + 1;
+        int delta = inserted - removed;
+
+        int[] fresh = new int[4];
+        int n = 0;
+        for (int at = Math.max(offset, origin + 1); at <= Math.min(offset + inserted, end); ++at) {
+            char c = source[at - 1];
+            if (isTerminator(c) && !(c == '\r' && at < end && source[at] == '\n')) {
+                if (n == fresh.length)
+                    fresh = grow(fresh, n);
+                fresh[n++] = at;
+            }
+        }
+
+        int tail = count - to;
+        int newCount = from + n + tail;
+        if (newCount > s.length) {
+            int[] grown = new int[Math.max(newCount, s.length * 2)];
+            System.arraycopy(s, 0, grown, 0, from);
+            System.arraycopy(s, to, grown, from + n, tail);
+            s = grown;
+        } else {
+            System.arraycopy(s, to, s, from + n, tail);
+        }
+        System.arraycopy(fresh, 0, s, from, n);
+        for (int i = from + n; i < newCount; ++i)
+            s[i] += delta;
+        count = newCount;
+        starts = s;
+    }
+
+    /** Returns the index of the last start at or before <tt>offset</tt>. */
+    private static int find(int[] s, int n, int offset) {
+        int low = 0;
+        int high = n - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (s[mid] <= offset)
+                low = mid + 1;
+            else
+                high = mid - 1;
+        }
+        return high;
+    }
+
+    private int[] starts() {
+        int[] s = starts;
+        return s != null ? s : build();
+    }
+
+    /** Returns the 1-based line holding <tt>offset</tt>. */
+    public int getLine(int offset) {
+        int[] s = starts();
+        return Math.max(find(s, count, offset), 0) + 1;
+    }
+
+    /** Returns the 1-based column of <tt>offset</tt> in its line. */
+    public int getColumn(int offset) {
+        int[] s = starts();
+        return offset - s[Math.max(find(s, count, offset), 0)] + 1;
+    }
+
+    /**
+     * Returns the text from offset <tt>left</tt> to <tt>right</tt>, null
+     * for an index fed as input is read, which keeps no source.
+     */
+    public synchronized String getText(int left, int right) {
+        if (source != null)
+            return new String(source, left, right - left);
+        if (bytes != null)
+            return new String(bytes, left, right - left, java.nio.charset.StandardCharsets.ISO_8859_1);
+        return null;
+    }
+
+    /** Returns the number of lines seen. */
+    public int size() {
+        starts();
+        return count;
+    }
+}
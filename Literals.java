@@ -0,0 +1,254 @@
+/**
+ * Decodes the values of literal tokens straight from a scanner buffer,
+ * without copying the matched text out first.
+ *
+ * Offsets and lines are only used for warnings. An instance keeps scratch
+ * space, so each scanner has its own.
+ */
+final class Literals {
+    /** boxed values for the integer literals that show up most */
+    private static final Integer[] smallInts = new Integer[256];
+
+    static {
+        for (int i = 0; i < smallInts.length; ++i)
+            smallInts[i] = Integer.valueOf(i);
+    }
+
+    /** scratch space for string literals that contain escapes */
+    private char[] literal = new char[64];
+
+    /** position after the last escape decoded by escape() */
+    private int escapeEnd;
+
+    /**
+     * Decodes the {IntLiteral} in <tt>buf</tt> from <tt>start</tt> to
+     * <tt>end</tt>, found at <tt>offset</tt> of the input: optional sign, decimal, octal or hex
+     * digits and a [uU][lL] suffix. Values that do not fit an int (or an
+     * unsigned int for hex, octal and u-suffixed literals) are truncated to
+     * their low 32 bits with a warning.
+     */
+    Integer intLiteral(char[] buf, int start, int end, LineIndex lines, int offset) {
+        int pos = start;
+
+        boolean negative = false;
+        if (buf[pos] == '+' || buf[pos] == '-')
+            negative = buf[pos++] == '-';
+
+        boolean unsigned = false;
+        for (char c = buf[end - 1]; c == 'u' || c == 'U' || c == 'l' || c == 'L'; c = buf[end - 1]) {
+            unsigned |= c == 'u' || c == 'U';
+            end--;
+        }
+
+        int radix = 10;
+        if (end - pos > 1 && buf[pos] == '0') {
+            if (buf[pos + 1] == 'x' || buf[pos + 1] == 'X') {
+                radix = 16;
+                pos += 2;
+            } else {
+                radix = 8;
+                pos++;
+            }
+        }
+
+        int low = 0;
+        long magnitude = 0;
+        boolean tooBig = false;
+        for (; pos < end; ++pos) {
+            int digit = Character.digit(buf[pos], radix);
+            low = low * radix + digit;
+            if (!tooBig) {
+                magnitude = magnitude * radix + digit;
+                tooBig = magnitude > 0xFFFFFFFFL;
+            }
+        }
+
+        long max = radix == 10 && !unsigned ? (negative ? 0x80000000L : 0x7FFFFFFFL) : 0xFFFFFFFFL;
+        if (tooBig || magnitude > max)
+            Errors.warn(lines, offset, "Integer literal \"" + new String(buf, start, end - start)
+                    + "\" truncated to int");
+
+        int value = negative ? -low : low;
+        return value >= 0 && value < smallInts.length ? smallInts[value] : Integer.valueOf(value);
+    }
+
+    private static final double[] powersOfTen = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Decodes the {RealLiteral} in <tt>buf</tt> from <tt>start</tt> to <tt>end</tt>. When the digits fit in 53 bits and
+     * the exponent is within 10^22 the value is exact in double arithmetic;
+     * anything else goes through Double.parseDouble. An f/F suffix rounds
+     * the value to float precision.
+     */
+    Double realLiteral(char[] buf, int start, int end, LineIndex lines, int offset) {
+        int matched = end;
+        char suffix = buf[end - 1];
+        boolean isFloat = suffix == 'f' || suffix == 'F';
+        if (isFloat || suffix == 'l' || suffix == 'L')
+            end--;
+
+        int pos = start;
+        boolean negative = false;
+        if (buf[pos] == '+' || buf[pos] == '-')
+            negative = buf[pos++] == '-';
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean fraction = false;
+        for (; pos < end; ++pos) {
+            char c = buf[pos];
+            if (c == '.') {
+                fraction = true;
+            } else if (c >= '0' && c <= '9') {
+                if (mantissa != 0 || c != '0')
+                    digits++;
+                mantissa = mantissa * 10 + (c - '0');
+                if (fraction)
+                    scale--;
+            } else {
+                break;
+            }
+        }
+
+        int exponent = 0;
+        if (pos < end) {
+            boolean negativeExponent = false;
+            char c = buf[++pos];
+            if (c == '+' || c == '-') {
+                negativeExponent = c == '-';
+                pos++;
+            }
+            for (; pos < end && exponent < 10000; ++pos)
+                exponent = exponent * 10 + (buf[pos] - '0');
+            if (negativeExponent)
+                exponent = -exponent;
+        }
+        exponent += scale;
+
+        double value;
+        if (digits <= 15 && exponent >= -22 && exponent <= 22
+                && (!isFloat || (exponent >= 0 && mantissa * powersOfTen[exponent] < 0x1p53))) {
+            value = exponent >= 0 ? mantissa * powersOfTen[exponent] : mantissa / powersOfTen[-exponent];
+            if (negative)
+                value = -value;
+            if (isFloat)
+                value = (float) value;
+        } else {
+            String text = new String(buf, start, end - start);
+            value = isFloat ? Float.parseFloat(text) : Double.parseDouble(text);
+            if (Double.isInfinite(value))
+                Errors.warn(lines, offset, "Real literal \"" + new String(buf, start, matched - start)
+                        + "\" out of range");
+        }
+        return Double.valueOf(value);
+    }
+
+    /**
+     * Decodes the {CharLiteral} in <tt>buf</tt> from <tt>start</tt> to
+     * <tt>end</tt>. A multi-character constant keeps
+     * its last character, like the value of a wide one in C.
+     */
+    Character charLiteral(char[] buf, int start, int end, LineIndex lines, int offset) {
+        return character(buf, start + (buf[start] == 'L' ? 2 : 1), end - 1, lines, offset);
+    }
+
+    /**
+     * Decodes the first part of a {CharLiteral} too long to keep whole: the
+     * text from its opening quote at <tt>start</tt> up to <tt>end</tt>.
+     */
+    Character charPrefix(char[] buf, int start, int end, LineIndex lines, int offset) {
+        return character(buf, start + (buf[start] == 'L' ? 2 : 1), end, lines, offset);
+    }
+
+    private Character character(char[] buf, int pos, int end, LineIndex lines, int offset) {
+        char value = 0;
+        int count = 0;
+        while (pos < end) {
+            if (buf[pos] == '\\') {
+                value = escape(buf, pos + 1, end);
+                pos = escapeEnd;
+            } else {
+                value = buf[pos++];
+            }
+            count++;
+        }
+        if (count > 1)
+            Errors.warn(lines, offset, "Multi-character character constant");
+        return Character.valueOf(value);
+    }
+
+    /** Decodes the {StringLiteral} in <tt>buf</tt> into its value, without the quotes. */
+    String stringLiteral(char[] buf, int start, int end) {
+        return string(buf, start + (buf[start] == 'L' ? 2 : 1), end - 1);
+    }
+
+    /**
+     * Decodes the first part of a {StringLiteral} too long to keep whole:
+     * the text from its opening quote at <tt>start</tt> up to <tt>end</tt>.
+     */
+    String stringPrefix(char[] buf, int start, int end) {
+        return string(buf, start + (buf[start] == 'L' ? 2 : 1), end);
+    }
+
+    /** Decodes the text of a string literal from <tt>pos</tt> to <tt>end</tt>. */
+    private String string(char[] buf, int pos, int end) {
+        int escape = pos;
+        while (escape < end && buf[escape] != '\\')
+            escape++;
+        if (escape == end)
+            return new String(buf, pos, end - pos);
+
+        if (literal.length < end - pos)
+            literal = new char[Math.max(end - pos, literal.length * 2)];
+        char[] out = literal;
+        int length = escape - pos;
+        System.arraycopy(buf, pos, out, 0, length);
+        pos = escape;
+        while (pos < end) {
+            if (buf[pos] == '\\') {
+                out[length++] = escape(buf, pos + 1, end);
+                pos = escapeEnd;
+            } else {
+                out[length++] = buf[pos++];
+            }
+        }
+        return new String(out, 0, length);
+    }
+
+    /**
+     * Decodes the escape sequence whose first character after the backslash
+     * is at <tt>pos</tt>, and leaves the position after it in escapeEnd.
+     */
+    private char escape(char[] buf, int pos, int end) {
+        char c = buf[pos++];
+        int value;
+        switch (c) {
+            case 'n': value = '\n'; break;
+            case 't': value = '\t'; break;
+            case 'r': value = '\r'; break;
+            case 'v': value = 0x0B; break;
+            case 'b': value = '\b'; break;
+            case 'f': value = '\f'; break;
+            case 'a': value = 0x07; break;
+            case 'x':
+                value = 0;
+                for (int digit; pos < end && (digit = Character.digit(buf[pos], 16)) >= 0; ++pos)
+                    value = value << 4 | digit;
+                break;
+            default:
+                if (c >= '0' && c <= '7') {
+                    value = c - '0';
+                    for (int n = 1; n < 3 && pos < end && buf[pos] >= '0' && buf[pos] <= '7'; ++n)
+                        value = value << 3 | (buf[pos++] - '0');
+                } else {
+                    value = c;
+                }
+        }
+        escapeEnd = pos;
+        return (char) value;
+    }
+}
@@ -5,51 +5,175 @@ import java.io.*;
 public class MyParser {
     public static void main(String[] args) throws IOException {
         String inName = "", outName = "";
+        boolean descent = false;
+        boolean check = false;
+        boolean parallel = false;
 
-        if (args.length == 2) {
-            inName = args[0];
-            outName = args[1];
+        int first = 0;
+        for (; first < args.length && args[first].startsWith("--"); ++first) {
+            if (args[first].equals("--descent"))
+                descent = true; // the hand-written parser instead of the CUP tables
+            else if (args[first].equals("--check"))
+                check = true; // only whether the inputs parse, no tree
+            else if (args[first].equals("--parallel"))
+                parallel = true; // lex and parse on all cores, a run of declarations each
+            else
+                usage();
+        }
+        if (check) {
+            if (first == args.length)
+                usage();
+            System.exit(check(args, first));
+        }
+        // on one core the tokens held for the slices only cost time; the
+        // input is read as it is without --parallel
+        if (parallel && Runtime.getRuntime().availableProcessors() == 1)
+            parallel = false;
+        if (args.length - first == 2) {
+            inName = args[first];
+            outName = args[first + 1];
         } else {
-            System.err.println("Usage: MyParser <input file> <output file>");
-            System.exit(-1);
+            usage();
         }
 
         // open input file
-        FileReader inFile = null;
+        byte[] bytes;
+        Lexer scanner;
         try {
-            inFile = new FileReader(inName);
-        } catch (FileNotFoundException ex) {
+            bytes = Scanner.readBytes(inName);
+            scanner = Preprocessor.fromBytes(inName, bytes, java.util.Collections.<String>emptyList());
+        } catch (java.nio.file.NoSuchFileException ex) {
             System.err.println("File " + inName + " not found.");
             System.exit(-1);
+            return;
         }
 
-        parser P = new parser(new Scanner(inFile));
-        Program root = null;
-
+        File outFile = new File(outName);
+        PrintWriter p;
         try {
-            root = (Program) P.parse().value;
-            System.out.println("Parsed Successfully!");
-        } catch (Exception ex) {
-            System.err.println("Exception occured during parse: " + ex);
+            p = new PrintWriter(new BufferedWriter(new FileWriter(outFile)));
+        } catch (IOException ex) {
+            System.err.println("File " + outName + " could not be opened.");
             System.exit(-1);
+            return;
         }
 
-        // print tree
-        PrintWriter p = null;
+        // errors are printed as they come; the parse goes on past them
+        Diagnostics diagnostics = new Diagnostics(Diagnostics.DEFAULT_LIMIT, System.err);
+        Diagnostics.install(diagnostics);
         try {
-            File outFile = new File(outName);
-            p = new PrintWriter(new BufferedWriter(new FileWriter(outFile)));
-
-            root.print(p, 0); // print the treeee!!!
-        } catch (IOException ex) {
-            System.err.println("File " + outName + " could not be opened.");
+            // the tree is printed a declaration at a time as the parse
+            // goes, so no more than one is kept; the Program and its
+            // DeclList, empty here, print the lines above them
+            new Program(new DeclList(DeclList.NONE)).print(p, 0);
+            DeclListener printer = decl -> decl.print(p, 2);
+            java_cup.runtime.Scanner input = scanner;
+            boolean parsed = false;
+            if (parallel) {
+                // the lexer's messages are held back and reported with the
+                // tokens they came with, as reading from the lexer would
+                Diagnostics lexed = new Diagnostics(0, null);
+                TokenSlices tokens;
+                if (scanner instanceof Preprocessor) {
+                    // the directives are obeyed in one pass, which makes a symbol per token
+                    RecordedTokens recorded = new RecordedTokens(scanner, lexed);
+                    tokens = recorded;
+                    input = recorded;
+                } else {
+                    char[] source = Scanner.decode(bytes, bytes.length);
+                    TokenBuffer buffer = new TokenBuffer();
+                    Diagnostics previous = Diagnostics.install(lexed);
+                    try {
+                        new ParallelLexer().tokenize(source, 0, source.length, buffer);
+                    } finally {
+                        Diagnostics.install(previous);
+                    }
+                    tokens = buffer;
+                    input = new TokenStream(buffer, lexed);
+                }
+                // the slices are printed as they are done; one fails only on
+                // a syntax error, which the parse below reports, and no tree
+                // is written then
+                if (lexed.getErrorCount() == 0)
+                    parsed = new ParallelParser(descent).parse(tokens, printer);
+                if (parsed)
+                    lexed.replay();
+                // an input with errors is parsed again from its tokens, in one piece
+            }
+            if (!parsed) {
+                if (descent) {
+                    DescentParser parser = new DescentParser(input);
+                    parser.setDeclListener(printer);
+                    parser.parse();
+                } else {
+                    parser parser = new parser(input);
+                    parser.setDeclListener(printer);
+                    parser.parse();
+                }
+            }
+        } catch (Diagnostics.LimitExceeded ex) {
+            System.err.println(ex.getMessage());
+        } catch (Exception ex) {
+            if (diagnostics.getErrorCount() == 0) {
+                System.err.println("Exception occured during parse: " + ex);
+                p.close();
+                outFile.delete();
+                System.exit(-1);
+            }
+        }
+        p.close();
+        if (diagnostics.getErrorCount() > 0) {
+            // no tree is written for an input with errors
+            outFile.delete();
+            System.err.println(diagnostics.getErrorCount() + " error(s)");
             System.exit(-1);
-        } catch (Exception ex){
-            System.err.println("Exception occured during print tree: " + ex);
+        }
+        if (p.checkError()) {
+            System.err.println("Exception occured during print tree: could not write " + outName);
             System.exit(-1);
-        } finally {
-            p.close();
         }
+        System.out.println("Parsed Successfully!");
+    }
+
+    /**
+     * Checks the syntax of the files from args[first] on, printing the
+     * first error of each that fails, and returns the exit status.
+     */
+    private static int check(String[] args, int first) {
+        Recognizer recognizer = new Recognizer();
+        int failed = 0;
+        for (int i = first; i < args.length; ++i) {
+            try {
+                Diagnostics.Message error = recognizer.check(Preprocessor.fromFile(args[i]));
+                if (error != null) {
+                    System.err.println(args[i] + ": " + error);
+                    failed++;
+                }
+            } catch (java.nio.file.NoSuchFileException ex) {
+                System.err.println("File " + args[i] + " not found.");
+                failed++;
+            } catch (Exception ex) {
+                System.err.println(args[i] + ": Exception occured during parse: " + ex);
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            System.err.println(failed + " of " + (args.length - first) + " file(s) failed");
+            return -1;
+        }
+        System.out.println("Checked Successfully!");
+        return 0;
+    }
 
+    private static void usage() {
+        System.err.println("Usage: MyParser [--descent] [--parallel] <input file> <output file>");
+        System.err.println("       MyParser --check <input file>...");
+        System.err.println("  --descent   parse with the hand-written parser instead of the CUP tables");
+        System.err.println("  --parallel  lex the input, then parse its top-level declarations, on all cores");
+        System.err.println("              with the parser --descent picks; a file with directives is lexed");
+        System.err.println("              in one piece, and an input with errors is parsed again from the");
+        System.err.println("              same tokens, in one piece, to report them; ignored on one core");
+        System.err.println("  --check     report only the first syntax error of each input, building no tree");
+        System.exit(-1);
     }
 }
@@ -1,34 +1,81 @@
 
 
 public class MySymbol extends java_cup.runtime.Symbol {
-    private int line;
-    private int column;
+    private LineIndex lines;
+    private char[] source;
 
-    public MySymbol(int type, int line, int column) {
-        this(type, line, column, -1, -1, null);
+    /**
+     * Creates a symbol spanning the offsets <tt>left</tt> to <tt>right</tt>.
+     * Its line and column are looked up in <tt>lines</tt> when asked for.
+     */
+    public MySymbol(int type, LineIndex lines, int left, int right, Object value) {
+        super(type, left, right, value);
+        this.lines = lines;
     }
 
-    public MySymbol(int type, int line, int column, Object value) {
-        this(type, line, column, -1, -1, value);
+    /**
+     * Creates a symbol whose text stays in <tt>source</tt> between the
+     * offsets <tt>left</tt> and <tt>right</tt> until someone asks for it.
+     */
+    public MySymbol(int type, LineIndex lines, char[] source, int left, int right) {
+        this(type, lines, left, right, null);
+        this.source = source;
     }
 
-    public MySymbol(int type, int line, int column, int left, int right,
-            Object value) {
-        super(type, left, right, value);
-        this.line = line;
-        this.column = column;
+    /** Returns the index the line and column are looked up in. */
+    LineIndex getLineIndex() {
+        return lines;
     }
 
     public int getLine() {
-        return line;
+        return lines.getLine(left);
     }
 
     public int getColumn() {
-        return column;
+        return lines.getColumn(left);
+    }
+
+    /**
+     * Returns the matched text, copied out of the source buffer on demand,
+     * or out of the source the line index covers. Symbols scanned from a
+     * Reader only know the text of their value.
+     */
+    public String getText() {
+        if (source != null)
+            return new String(source, left, right - left);
+        if (value instanceof Name)
+            return ((Name) value).text;
+        if (value instanceof String)
+            return (String) value;
+        return lines == null ? null : lines.getText(left, right);
     }
 
+    /** Returns the name of the sym constant with the given code. */
+    public static String tokenName(int token) {
+        String[] names = tokenNames;
+        if (names == null) {
+            java.lang.reflect.Field[] fields = sym.class.getFields();
+            int max = 0;
+            try {
+                for (int i = 0; i < fields.length; ++i)
+                    max = Math.max(max, fields[i].getInt(null));
+                names = new String[max + 1];
+                for (int i = 0; i < fields.length; ++i)
+                    names[fields[i].getInt(null)] = fields[i].getName();
+            } catch (IllegalAccessException e) {
+                throw new Error(e);
+            }
+            tokenNames = names;
+        }
+        if (token < 0 || token >= names.length || names[token] == null)
+            return "UNKNOWN TOKEN";
+        return names[token];
+    }
+
+    private static String[] tokenNames;
+
     public String toString() {
-        return "line " + line + ", column " + column + ", sym: " + sym
+        return "line " + getLine() + ", column " + getColumn() + ", sym: " + sym
                 + (value == null ? "" : (", value: '" + value + "'"));
     }
 }
@@ -0,0 +1,235 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Interning table for identifier names.
+ *
+ * Every distinct name is stored once, as a canonical {@link Name} holding
+ * the String and a dense int id (0, 1, 2, ... in order of first sight).
+ * Lookups hash straight over the scanner buffer and do not allocate when
+ * the name is already known.
+ *
+ * The table is split into segments that are locked separately and lookups
+ * of known names take no lock at all, so one table can be shared by
+ * scanners running on many threads.
+ *
+ * The global table only grows. A table that serves one input after
+ * another, as the one of a ParserPool does, is cleared in between, so it
+ * holds the names of one input rather than of every input seen.
+ */
+final class NameTable {
+    /** the table shared by all scanners unless they are given their own */
+    static final NameTable global = new NameTable();
+
+    private static final int SEGMENTS = 16;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final AtomicInteger nextId = new AtomicInteger();
+    private volatile String[] byId = new String[INITIAL_CAPACITY];
+
+    NameTable() {
+        for (int i = 0; i < SEGMENTS; ++i)
+            segments[i] = new Segment();
+    }
+
+    /** Same value as String.hashCode() of the given characters. */
+    static int hash(char[] buf, int offset, int length) {
+        int h = 0;
+        for (int i = offset, end = offset + length; i < end; ++i)
+            h = 31 * h + buf[i];
+        return h;
+    }
+
+    public Name intern(String text) {
+        char[] chars = text.toCharArray();
+        return intern(chars, 0, chars.length);
+    }
+
+    public Name intern(char[] buf, int offset, int length) {
+        return intern(buf, offset, length, hash(buf, offset, length));
+    }
+
+    /**
+     * Returns the canonical name for ASCII bytes, which stand for the
+     * chars of the same value.
+     */
+    public Name intern(byte[] buf, int offset, int length) {
+        int hash = 0;
+        for (int i = offset, end = offset + length; i < end; ++i)
+            hash = 31 * hash + buf[i];
+        int spread = hash ^ (hash >>> 16);
+        Segment segment = segments[spread & (SEGMENTS - 1)];
+
+        Name name = segment.find(buf, offset, length, hash, spread >>> 4);
+        if (name != null)
+            return name;
+        char[] chars = new char[length];
+        for (int i = 0; i < length; ++i)
+            chars[i] = (char) buf[offset + i];
+        return intern(chars, 0, length, hash);
+    }
+
+    /** Returns the canonical name for the characters, adding it if needed. */
+    public Name intern(char[] buf, int offset, int length, int hash) {
+        int spread = hash ^ (hash >>> 16);
+        Segment segment = segments[spread & (SEGMENTS - 1)];
+
+        Name name = segment.find(buf, offset, length, hash, spread >>> 4);
+        if (name != null)
+            return name;
+
+        synchronized (segment) {
+            name = segment.find(buf, offset, length, hash, spread >>> 4);
+            if (name == null) {
+                name = new Name(new String(buf, offset, length), nextId.getAndIncrement(),
+                        hash);
+                publish(name);
+                segment.add(name, spread >>> 4);
+            }
+            return name;
+        }
+    }
+
+    /** Returns the name with the given id. */
+    public String name(int id) {
+        return byId[id];
+    }
+
+    /** Returns the number of distinct names seen so far. */
+    public int size() {
+        return nextId.get();
+    }
+
+    /**
+     * Forgets all names, keeping the room they took. The names handed out
+     * before keep their text, but their ids are given out again, so they
+     * compare by id only with each other. No scanner may be using the
+     * table meanwhile.
+     */
+    synchronized void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        Arrays.fill(byId, 0, nextId.get(), null);
+        nextId.set(0);
+    }
+
+    private synchronized void publish(Name name) {
+        String[] ids = byId;
+        if (name.id >= ids.length) {
+            String[] grown = new String[Math.max(ids.length * 2, name.id + 1)];
+            System.arraycopy(ids, 0, grown, 0, ids.length);
+            ids = grown;
+        }
+        ids[name.id] = name.text;
+        byId = ids;
+    }
+
+    /**
+     * An open-addressed hash table. Slots are only ever filled, and a Name
+     * has final fields only, so readers can probe without the lock; a miss
+     * is confirmed under the lock by the writer path.
+     */
+    private static final class Segment {
+        private volatile Name[] table = new Name[INITIAL_CAPACITY];
+        private int count;
+
+        Name find(char[] buf, int offset, int length, int hash, int spread) {
+            Name[] tab = table;
+            int mask = tab.length - 1;
+            for (int i = spread & mask; ; i = (i + 1) & mask) {
+                Name n = tab[i];
+                if (n == null)
+                    return null;
+                if (n.hash == hash && n.matches(buf, offset, length))
+                    return n;
+            }
+        }
+
+        Name find(byte[] buf, int offset, int length, int hash, int spread) {
+            Name[] tab = table;
+            int mask = tab.length - 1;
+            for (int i = spread & mask; ; i = (i + 1) & mask) {
+                Name n = tab[i];
+                if (n == null)
+                    return null;
+                if (n.hash == hash && n.matches(buf, offset, length))
+                    return n;
+            }
+        }
+
+        void clear() {
+            Arrays.fill(table, null);
+            count = 0;
+        }
+
+        void add(Name name, int spread) {
+            Name[] tab = table;
+            if (count >= tab.length - (tab.length >>> 2))
+                tab = rehash(tab);
+            insert(tab, name, spread);
+            count++;
+            table = tab;
+        }
+
+        private static void insert(Name[] tab, Name name, int spread) {
+            int mask = tab.length - 1;
+            int i = spread & mask;
+            while (tab[i] != null)
+                i = (i + 1) & mask;
+            tab[i] = name;
+        }
+
+        private static Name[] rehash(Name[] old) {
+            Name[] tab = new Name[old.length * 2];
+            for (Name n : old) {
+                if (n != null)
+                    insert(tab, n, (n.hash ^ (n.hash >>> 16)) >>> 4);
+            }
+            return tab;
+        }
+    }
+}
+
+/**
+ * A canonical identifier name. Two names from the same table are equal
+ * exactly when they are the same object, or when their ids are equal.
+ */
+final class Name {
+    final String text;
+    final int id;
+    final int hash;
+
+    Name(String text, int id, int hash) {
+        this.text = text;
+        this.id = id;
+        this.hash = hash;
+    }
+
+    boolean matches(char[] buf, int offset, int length) {
+        if (text.length() != length)
+            return false;
+        for (int i = 0; i < length; ++i) {
+            if (text.charAt(i) != buf[offset + i])
+                return false;
+        }
+        return true;
+    }
+
+    boolean matches(byte[] buf, int offset, int length) {
+        if (text.length() != length)
+            return false;
+        for (int i = 0; i < length; ++i) {
+            if (text.charAt(i) != buf[offset + i])
+                return false;
+        }
+        return true;
+    }
+
+    public String toString() {
+        return text;
+    }
+}
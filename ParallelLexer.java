@@ -0,0 +1,206 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Lexes one large source in parallel.
+ *
+ * The source is cut after newlines that a cheap character scan proves to
+ * be outside block comments, string literals and char literals, so every
+ * chunk starts where the sequential scanner would start a token. The
+ * chunks are tokenized on a ForkJoinPool and their token streams are
+ * joined in order. All chunks share one LineIndex over the whole source,
+ * so the result is the token stream the sequential Scanner produces.
+ * MyParser --parallel lexes a file without directives this way, for
+ * ParallelParser to cut.
+ */
+final class ParallelLexer {
+    /** sources shorter than two chunks of this size are lexed in one piece */
+    static final int DEFAULT_CHUNK = 1 << 18;
+
+    private final ForkJoinPool pool;
+    private final int minChunk;
+    private Trivia trivia;
+
+    ParallelLexer() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK);
+    }
+
+    ParallelLexer(ForkJoinPool pool, int minChunk) {
+        this.pool = pool;
+        this.minChunk = minChunk;
+    }
+
+    /** Returns the comments found by the last call to tokenize(). */
+    public Trivia getTrivia() {
+        return trivia;
+    }
+
+    /**
+     * Appends the tokens of <tt>length</tt> characters of <tt>source</tt>
+     * starting at <tt>offset</tt> to <tt>tokens</tt>, EOF token included.
+     */
+    public TokenBuffer tokenize(final char[] source, int offset, int length, TokenBuffer tokens)
+            throws IOException {
+        // a pool of one thread gains nothing from chunks, which are copied once lexed
+        int chunks = pool.getParallelism() == 1 ? 1 : Math.min(length / minChunk, pool.getParallelism() * 4);
+        int[] bounds = new int[Math.max(chunks, 1) + 1];
+        int n = split(source, offset, offset + length, bounds);
+        final LineIndex lines = new LineIndex(source, offset, length);
+        final CharRuns runs = CharRuns.get();
+        if (n == 1) {
+            Scanner scanner = new Scanner(source, offset, length);
+            scanner.setLineIndex(lines);
+            scanner.setCharRuns(runs);
+            scanner.tokenize(tokens);
+            trivia = scanner.getTrivia();
+            return tokens;
+        }
+
+        List<ForkJoinTask<Scanner>> tasks = new ArrayList<>(n);
+        final TokenBuffer[] parts = new TokenBuffer[n];
+        final Diagnostics[] messages = new Diagnostics[n];
+        for (int i = 0; i < n; ++i) {
+            final int index = i;
+            final int begin = bounds[i];
+            final int end = bounds[i + 1];
+            tasks.add(pool.submit(() -> {
+                // errors are kept per chunk and reported in source order once joined
+                Diagnostics previous = Diagnostics.install(messages[index] = new Diagnostics(0, null));
+                try {
+                    Scanner scanner = new Scanner(source, begin, end - begin);
+                    scanner.setLineIndex(lines);
+                    scanner.setCharRuns(runs);
+                    parts[index] = scanner.tokenize(new TokenBuffer(Math.max(1024, (end - begin) / 3)));
+                    return scanner;
+                } finally {
+                    Diagnostics.install(previous);
+                }
+            }));
+        }
+
+        tokens.setSource(source);
+        tokens.setLineIndex(lines);
+        trivia = new Trivia(source);
+        Scanner[] scanners = new Scanner[n];
+        int total = tokens.size();
+        for (int i = 0; i < n; ++i) {
+            scanners[i] = tasks.get(i).join();
+            total += parts[i].size() - 1;
+        }
+        // the joined tokens are copied once, into arrays of their size
+        tokens.ensureCapacity(total + 1);
+        for (int i = 0; i < n; ++i) {
+            messages[i].replay();
+            TokenBuffer part = parts[i];
+            // every chunk ends with its own EOF token, only the last one is kept
+            tokens.append(part, i == n - 1 ? part.size() : part.size() - 1);
+            parts[i] = null;
+            trivia.addAll(scanners[i].getTrivia());
+        }
+        return tokens;
+    }
+
+    private static final int NORMAL = 0;
+    private static final int LINE_COMMENT = 1;
+    private static final int BLOCK_COMMENT = 2;
+    private static final int STRING = 3;
+    private static final int CHAR = 4;
+
+    /**
+     * Fills <tt>bounds</tt> with chunk start offsets (plus the end) and
+     * returns the number of chunks.
+     */
+    private static int split(char[] src, int begin, int end, int[] bounds) {
+        int chunks = bounds.length - 1;
+        int n = 0;
+        bounds[n++] = begin;
+        if (chunks == 1) {
+            bounds[n] = end;
+            return 1;
+        }
+
+        int step = (end - begin) / chunks;
+        int target = begin + step;
+        int state = NORMAL;
+        // the opening quote of the literal being scanned
+        int quote = begin;
+
+        for (int i = begin; i < end; ++i) {
+            char c = src[i];
+            boolean lineEnd = false;
+            switch (state) {
+            case NORMAL:
+                if (c == '/' && i + 1 < end && (src[i + 1] == '/' || src[i + 1] == '*')) {
+                    state = src[i + 1] == '/' ? LINE_COMMENT : BLOCK_COMMENT;
+                    i++;
+                } else if (c == '"') {
+                    state = STRING;
+                    quote = i;
+                } else if (c == '\'') {
+                    state = CHAR;
+                    quote = i;
+                } else {
+                    lineEnd = c == '\n';
+                }
+                break;
+            case LINE_COMMENT:
+                if (c == '\r' || c == '\n') {
+                    state = NORMAL;
+                    lineEnd = c == '\n';
+                }
+                break;
+            case BLOCK_COMMENT:
+                if (c == '*' && i + 1 < end && src[i + 1] == '/') {
+                    state = NORMAL;
+                    i++;
+                }
+                break;
+            case STRING:
+                if (c == '\\') {
+                    // an escape does not take a \n, which ends no {StringLiteral}
+                    if (i + 1 < end && src[i + 1] == '\n') {
+                        state = NORMAL;
+                        i = quote;
+                    } else {
+                        i++;
+                    }
+                } else if (c == '"') {
+                    state = NORMAL;
+                }
+                break;
+            case CHAR:
+                if (c == '\'' && i > quote + 1) {
+                    state = NORMAL;
+                } else if (c == '\\' && i + 1 < end && src[i + 1] != '\r' && src[i + 1] != '\n'
+                        && (src[i + 1] != 'x' || i + 2 < end && isHexDigit(src[i + 2]))) {
+                    // what follows \x is hex digits, which are plain chars too
+                    i++;
+                } else if (c == '\'' || c == '\\' || c == '\r' || c == '\n') {
+                    // no {CharLiteral} ends here: the scanner reports the quote
+                    // as an illegal character and lexes what follows it again
+                    state = NORMAL;
+                    i = quote;
+                }
+                break;
+            }
+
+            // the scanner is between tokens right after a newline it lexed as whitespace
+            if (lineEnd && i + 1 >= target && i + 1 < end) {
+                bounds[n++] = i + 1;
+                if (n == chunks)
+                    break;
+                target = i + 1 + step;
+            }
+        }
+
+        bounds[n] = end;
+        return n;
+    }
+
+    private static boolean isHexDigit(char c) {
+        return c >= '0' && c <= '9' || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F';
+    }
+}
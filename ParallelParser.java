@@ -0,0 +1,197 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Parses the tokens of one large source in parallel, a run of top-level
+ * declarations at a time, with the CUP parser or the hand-written one.
+ *
+ * The declarations of a program do not depend on one another, and each
+ * ends in a ; or } at brace depth 0: a function's formals hold no ; and
+ * its body is closed by the } that gets back to depth 0. One pass over the
+ * token kinds finds those ends, the tokens are cut at some of them into
+ * slices of at least a given size, and each slice is parsed by a parser of
+ * its own on a ForkJoinPool, with an EOF token after it. The
+ * declarations of the slices are handed on in source order.
+ *
+ * Every slice parses exactly when the whole does, for the grammar is a
+ * list of declarations, so the tree is the one the parser builds. Error
+ * recovery is another matter: it can run across a cut, and reports
+ * differ. A source with a syntax error is left to a parser reading the
+ * tokens from the start, which reports the errors in order.
+ */
+final class ParallelParser {
+    /** the tokens a slice has at least; sources of fewer than two slices are parsed in one piece */
+    static final int DEFAULT_SLICE = 1 << 14;
+
+    private final ForkJoinPool pool;
+    private final int minSlice;
+    /** whether the slices go to DescentParser instead of the CUP parser */
+    private final boolean descent;
+
+    ParallelParser(boolean descent) {
+        this(ForkJoinPool.commonPool(), DEFAULT_SLICE, descent);
+    }
+
+    ParallelParser(ForkJoinPool pool, int minSlice, boolean descent) {
+        this.pool = pool;
+        this.minSlice = minSlice;
+        this.descent = descent;
+    }
+
+    /**
+     * Returns the tree of <tt>tokens</tt>, or null when they have a syntax
+     * error; nothing is reported then, and parsing them with a parser
+     * reports the errors as usual. The lexer's messages are not reported
+     * here either.
+     */
+    Program parse(TokenSlices tokens) throws Exception {
+        final NodeList decls = new NodeList(64);
+        if (!parse(tokens, decl -> decls.add(decl)))
+            return null;
+        return new Program(new DeclList(decls.toArray(DeclList.NONE)));
+    }
+
+    /**
+     * Hands the declarations of <tt>tokens</tt> to <tt>listener</tt> in
+     * source order, a slice at a time as each is parsed, so that they need
+     * not be kept whole, and returns true. Returns false at the first slice
+     * with a syntax error, the declarations before it handed over already;
+     * the slices after it are cancelled, and nothing is reported.
+     */
+    boolean parse(final TokenSlices tokens, DeclListener listener) throws Exception {
+        int count = tokens.size() - 1;
+        int[] bounds = new int[count / minSlice + 2];
+        int n = split(tokens, minSlice, bounds);
+        if (n < 0)
+            return false;
+        if (n == 1)
+            return parse(tokens, 0, count, listener);
+
+        // no more slices are in hand than the pool has threads to keep
+        // busy, so that those parsed ahead of the listener are not kept
+        // in numbers
+        int ahead = Math.max(2, pool.getParallelism() * 2);
+        List<ForkJoinTask<Decl[]>> tasks = new ArrayList<>(n);
+        for (int i = 0; i < n; ++i) {
+            if (i < ahead)
+                tasks.add(submit(tokens, bounds[i], bounds[i + 1]));
+            else
+                tasks.add(null);
+        }
+        for (int i = 0; i < n; ++i) {
+            Decl[] decls = tasks.get(i).join();
+            // a slice is let go once handed over
+            tasks.set(i, null);
+            if (decls == null) {
+                for (int j = i + 1; j < n && j < i + ahead; ++j)
+                    tasks.get(j).cancel(false);
+                return false;
+            }
+            if (i + ahead < n)
+                tasks.set(i + ahead, submit(tokens, bounds[i + ahead], bounds[i + ahead + 1]));
+            hand(decls, listener);
+        }
+        return true;
+    }
+
+    private ForkJoinTask<Decl[]> submit(final TokenSlices tokens, final int begin, final int end) {
+        return pool.submit(() -> parse(tokens, begin, end));
+    }
+
+    /**
+     * Fills <tt>bounds</tt> with the token indexes the slices start at,
+     * plus the index of the EOF token, and returns the number of slices.
+     * Returns -1 for tokens no slice can parse: an ILLEGAL token, whose
+     * error the lexer reported and the parser recovers from silently, or
+     * a } with no { before it.
+     */
+    private static int split(TokenSlices tokens, int size, int[] bounds) {
+        int count = tokens.size() - 1;
+        int n = 0;
+        bounds[n++] = 0;
+        int target = size;
+        int depth = 0;
+        for (int i = 0; i < count; ++i) {
+            switch (tokens.getKind(i)) {
+            case sym.LCURLY:
+                depth++;
+                continue;
+            case sym.RCURLY:
+                if (--depth < 0)
+                    return -1;
+                break;
+            case sym.SEMICOLON:
+                break;
+            case sym.ILLEGAL:
+                return -1;
+            default:
+                continue;
+            }
+            // a declaration ends here; cut after it when the slice is full
+            // and enough is left for another
+            if (depth == 0 && i + 1 >= target && count - (i + 1) >= size) {
+                bounds[n++] = i + 1;
+                target = i + 1 + size;
+            }
+        }
+        bounds[n] = count;
+        return n;
+    }
+
+    /** Parses tokens <tt>begin</tt> to <tt>end</tt> - 1 and returns their declarations, null on an error. */
+    private Decl[] parse(TokenSlices tokens, int begin, int end) throws Exception {
+        final NodeList decls = new NodeList(64);
+        return parse(tokens, begin, end, decl -> decls.add(decl)) ? decls.toArray(DeclList.NONE) : null;
+    }
+
+    /**
+     * Parses tokens <tt>begin</tt> to <tt>end</tt> - 1, handing their
+     * declarations to <tt>listener</tt> as they come, and returns false on
+     * an error.
+     */
+    private boolean parse(TokenSlices tokens, int begin, int end, DeclListener listener) throws Exception {
+        // the first error gives the slice up; it is not printed
+        Diagnostics previous = Diagnostics.install(new Diagnostics(1, null));
+        try {
+            if (descent) {
+                DescentParser parser = new DescentParser(tokens.slice(begin, end));
+                parser.setDeclListener(listener);
+                parser.parse();
+            } else {
+                parser parser = new parser(tokens.slice(begin, end));
+                parser.setDeclListener(listener);
+                parser.parse();
+            }
+            return true;
+        } catch (Diagnostics.LimitExceeded e) {
+            return false;
+        } finally {
+            Diagnostics.install(previous);
+        }
+    }
+
+    /** Hands <tt>decls</tt> to <tt>listener</tt>; false if they are null, for a slice with an error. */
+    private static boolean hand(Decl[] decls, DeclListener listener) throws Exception {
+        if (decls == null)
+            return false;
+        for (Decl decl : decls)
+            listener.declaration(decl);
+        return true;
+    }
+}
+
+/**
+ * The tokens of a whole source as ParallelParser cuts them: their kinds,
+ * and a stream over any run of them that a parser can read on any thread.
+ */
+interface TokenSlices {
+    /** Returns the number of tokens, the EOF token last. */
+    int size();
+
+    int getKind(int i);
+
+    /** Returns a stream of tokens <tt>from</tt> to <tt>to</tt> - 1 and then EOF. */
+    java_cup.runtime.Scanner slice(int from, int to);
+}
@@ -0,0 +1,124 @@
+import java.util.Arrays;
+import java.util.EmptyStackException;
+import java.util.Stack;
+
+import java_cup.runtime.Symbol;
+
+/**
+ * The parse stack of {@link parser}: unsynchronized, and with no Symbol
+ * per entry.
+ *
+ * lr_parser keeps a java.util.Stack of Symbols, a Vector whose push, pop,
+ * peek and elementAt each take its monitor. This one keeps the state,
+ * symbol, position and value of each entry in parallel arrays, and
+ * parser.parse() uses them through push(int, ...), state() and pop(int).
+ * It is still a Stack, for the generated actions and the error recovery
+ * of lr_parser are written against one: push(Object) copies the Symbol
+ * given into the arrays, and elementAt and peek hand out one Symbol per
+ * slot, reused and refreshed from the arrays on each call, so such a
+ * Symbol is good until its slot is popped. Neither keeps one longer.
+ *
+ * Only the Stack methods the parser calls are overridden; the Vector
+ * underneath stays empty.
+ */
+final class ParseStack extends Stack<Object> {
+    private static final long serialVersionUID = 1L;
+
+    private int[] states = new int[64];
+    private int[] symbols = new int[64];
+    private int[] lefts = new int[64];
+    private int[] rights = new int[64];
+    private Object[] values = new Object[64];
+    private Symbol[] views = new Symbol[64];
+    private int size;
+
+    /** Pushes an entry in <tt>state</tt> for a symbol spanning <tt>left</tt> to <tt>right</tt>. */
+    void push(int state, int symbol, int left, int right, Object value) {
+        if (size == states.length)
+            grow();
+        states[size] = state;
+        symbols[size] = symbol;
+        lefts[size] = left;
+        rights[size] = right;
+        values[size] = value;
+        size++;
+    }
+
+    /** Returns the state of the top entry. */
+    int state() {
+        return states[size - 1];
+    }
+
+    /** Pops <tt>count</tt> entries. */
+    void pop(int count) {
+        for (int i = 0; i < count; ++i)
+            values[--size] = null;
+    }
+
+    private void grow() {
+        int length = 2 * states.length;
+        states = Arrays.copyOf(states, length);
+        symbols = Arrays.copyOf(symbols, length);
+        lefts = Arrays.copyOf(lefts, length);
+        rights = Arrays.copyOf(rights, length);
+        values = Arrays.copyOf(values, length);
+        views = Arrays.copyOf(views, length);
+    }
+
+    public Object push(Object item) {
+        Symbol symbol = (Symbol) item;
+        push(symbol.parse_state, symbol.sym, symbol.left, symbol.right, symbol.value);
+        return item;
+    }
+
+    public Object pop() {
+        Object top = peek();
+        values[--size] = null;
+        return top;
+    }
+
+    public Object peek() {
+        if (size == 0)
+            throw new EmptyStackException();
+        return elementAt(size - 1);
+    }
+
+    public boolean empty() {
+        return size == 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Object elementAt(int index) {
+        if (index >= size)
+            throw new ArrayIndexOutOfBoundsException(index + " >= " + size);
+        Symbol view = views[index];
+        if (view == null)
+            view = views[index] = new Symbol(0);
+        view.sym = symbols[index];
+        view.parse_state = states[index];
+        view.left = lefts[index];
+        view.right = rights[index];
+        view.value = values[index];
+        return view;
+    }
+
+    public Object get(int index) {
+        return elementAt(index);
+    }
+
+    public void removeAllElements() {
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+    }
+
+    public void clear() {
+        removeAllElements();
+    }
+}
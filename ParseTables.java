@@ -0,0 +1,210 @@
+import java.util.Arrays;
+
+/**
+ * The action and goto tables of a CUP parser, laid out for lookups that do
+ * not search.
+ *
+ * CUP packs each state's row as (symbol, entry) pairs closed by a default
+ * entry, and lr_parser.get_action searches that row for every token and
+ * get_reduce for every reduction. When the parser class loads, load()
+ * unpacks the rows once, into one of:
+ * <ul>
+ * <li>dense state by symbol matrices, one array access per lookup;
+ * <li>comb vectors for grammars whose matrices would be too large: the
+ *     rows overlaid in one array at offsets where their entries do not
+ *     collide, each entry tagged with its state, and the state's entry in
+ *     the default column taken for a slot that belongs to another.
+ * </ul>
+ * The -Dparser.tables=dense|comb|packed property picks one by hand,
+ * packed meaning the stock lookups.
+ */
+abstract class ParseTables {
+    /** the largest matrices, in entries, load() lays out dense unless told */
+    static final int DENSE_LIMIT = 1 << 20;
+
+    /**
+     * Returns the action of <tt>state</tt> on <tt>token</tt>, as
+     * lr_parser.get_action does: n > 0 shifts to state n-1, n < 0 reduces
+     * by production -n-1, 0 is an error.
+     */
+    abstract int action(int state, int token);
+
+    /**
+     * Returns the state to go to from <tt>state</tt> on the nonterminal
+     * <tt>lhs</tt>, as lr_parser.get_reduce does, -1 if there is none.
+     */
+    abstract int reduce(int state, int lhs);
+
+    /**
+     * Unpacks the tables of a CUP parser as -Dparser.tables says, or as fits
+     * their size. Returns null for the stock lookups.
+     */
+    static ParseTables load(short[][] action, short[][] reduce) {
+        String kind = System.getProperty("parser.tables");
+        if (kind == null)
+            return unpack(action, reduce);
+        switch (kind) {
+        case "dense":
+            return new Dense(action, reduce);
+        case "comb":
+            return new Comb(action, reduce);
+        case "packed":
+            return null;
+        default:
+            throw new IllegalArgumentException("parser.tables must be dense, comb or packed, not " + kind);
+        }
+    }
+
+    /** Unpacks the tables of a CUP parser dense, or as comb vectors when too large. */
+    static ParseTables unpack(short[][] action, short[][] reduce) {
+        long entries = (long) action.length * (columns(action) + columns(reduce));
+        if (entries <= DENSE_LIMIT)
+            return new Dense(action, reduce);
+        return new Comb(action, reduce);
+    }
+
+    /** Returns one more than the largest symbol the rows have an entry for. */
+    static int columns(short[][] rows) {
+        int max = -1;
+        for (short[] row : rows) {
+            for (int i = 0; i + 1 < row.length; i += 2)
+                max = Math.max(max, row[i]);
+        }
+        return max + 1;
+    }
+
+    /** Returns the entries of each row for symbols it does not list. */
+    static short[] defaults(short[][] rows) {
+        short[] defaults = new short[rows.length];
+        for (int state = 0; state < rows.length; ++state) {
+            short[] row = rows[state];
+            // a row ends in the pair (-1, default); a goto row may have no default
+            defaults[state] = row.length % 2 == 0 && row[row.length - 2] == -1
+                    ? row[row.length - 1] : -1;
+        }
+        return defaults;
+    }
+
+    /** A state by symbol matrix per table, defaults filled in. */
+    private static final class Dense extends ParseTables {
+        private final int terminals;
+        private final short[] actions;
+        private final short[] actionDefaults;
+        private final int nonterminals;
+        private final short[] gotos;
+
+        Dense(short[][] action, short[][] reduce) {
+            terminals = columns(action);
+            actionDefaults = defaults(action);
+            actions = expand(action, terminals, actionDefaults);
+            nonterminals = columns(reduce);
+            gotos = expand(reduce, nonterminals, defaults(reduce));
+        }
+
+        private static short[] expand(short[][] rows, int columns, short[] defaults) {
+            short[] matrix = new short[rows.length * columns];
+            for (int state = 0; state < rows.length; ++state) {
+                int base = state * columns;
+                Arrays.fill(matrix, base, base + columns, defaults[state]);
+                short[] row = rows[state];
+                for (int i = 0; i + 1 < row.length; i += 2) {
+                    if (row[i] >= 0)
+                        matrix[base + row[i]] = row[i + 1];
+                }
+            }
+            return matrix;
+        }
+
+        int action(int state, int token) {
+            // tokens the grammar never shifts, such as ILLEGAL, are past the last column
+            if (token >= terminals)
+                return actionDefaults[state];
+            return actions[state * terminals + token];
+        }
+
+        int reduce(int state, int lhs) {
+            return gotos[state * nonterminals + lhs];
+        }
+    }
+
+    /** The rows of each table overlaid in one comb vector. */
+    private static final class Comb extends ParseTables {
+        private final CombVector actions;
+        private final CombVector gotos;
+
+        Comb(short[][] action, short[][] reduce) {
+            actions = new CombVector(action);
+            gotos = new CombVector(reduce);
+        }
+
+        int action(int state, int token) {
+            return actions.get(state, token);
+        }
+
+        int reduce(int state, int lhs) {
+            return gotos.get(state, lhs);
+        }
+    }
+
+    /**
+     * The rows of one table packed first fit, the fullest first: row s has
+     * its entry for symbol c at base[s] + c when check there is s.
+     */
+    private static final class CombVector {
+        private final int[] base;
+        private final short[] defaults;
+        private short[] entries = new short[256];
+        private int[] check = new int[256];
+
+        CombVector(short[][] rows) {
+            base = new int[rows.length];
+            defaults = defaults(rows);
+            Arrays.fill(check, -1);
+
+            Integer[] order = new Integer[rows.length];
+            for (int state = 0; state < rows.length; ++state)
+                order[state] = state;
+            Arrays.sort(order, (a, b) -> rows[b].length - rows[a].length);
+
+            for (int state : order) {
+                short[] row = rows[state];
+                int offset = 0;
+                while (!fits(row, offset))
+                    offset++;
+                base[state] = offset;
+                for (int i = 0; i + 1 < row.length; i += 2) {
+                    if (row[i] >= 0) {
+                        entries[offset + row[i]] = row[i + 1];
+                        check[offset + row[i]] = state;
+                    }
+                }
+            }
+        }
+
+        /** Tells if the entries of <tt>row</tt> all fall on free slots at <tt>offset</tt>, growing the vector to hold them. */
+        private boolean fits(short[] row, int offset) {
+            for (int i = 0; i + 1 < row.length; i += 2) {
+                if (row[i] < 0)
+                    continue;
+                int slot = offset + row[i];
+                if (slot >= check.length) {
+                    int length = Math.max(2 * check.length, slot + 1);
+                    entries = Arrays.copyOf(entries, length);
+                    int free = check.length;
+                    check = Arrays.copyOf(check, length);
+                    Arrays.fill(check, free, length, -1);
+                }
+                if (check[slot] != -1)
+                    return false;
+            }
+            return true;
+        }
+
+        int get(int state, int symbol) {
+            int slot = base[state] + symbol;
+            if (slot < check.length && check[slot] == state)
+                return entries[slot];
+            return defaults[state];
+        }
+    }
+}
@@ -0,0 +1,171 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+
+/**
+ * A scanner and a parser per thread, reset for every input, for runs over
+ * many small files.
+ *
+ * A fresh Scanner allocates its 16 KB buffer and a fresh parser its stack,
+ * which for small files costs as much as the lexing. Here each thread
+ * keeps one of each, plus a byte array the files are read into, a
+ * TokenBuffer and a NameTable, all grown to the largest input seen and
+ * reused. The table is cleared for every input, so a long run does not
+ * keep the names of all the files it went through, as the global one
+ * would; the names of a tree compare by id only within that tree.
+ *
+ * Whatever a call returns that belongs to the pool (the TokenBuffer, the
+ * comments, the diagnostics) is only valid until the thread's next call;
+ * the trees built by the parser are the caller's. Errors are collected,
+ * not printed, so a broken file costs its parse and nothing more.
+ */
+final class ParserPool {
+    private static final ThreadLocal<ParserPool> pools = ThreadLocal.withInitial(ParserPool::new);
+
+    /** Returns the pool of the calling thread. */
+    static ParserPool get() {
+        return pools.get();
+    }
+
+    private byte[] bytes = new byte[64 * 1024];
+    private final ByteScanner byteScanner = new ByteScanner(bytes, 0, 0);
+
+    /** the names of the current input */
+    private final NameTable names = new NameTable();
+
+    /** for Readers, and for files when the platform charset is not ASCII-compatible */
+    private Scanner scanner;
+
+    private final parser parser = new parser(byteScanner);
+    private final TokenBuffer tokens = new TokenBuffer();
+
+    /** the lexer of the last input */
+    private Lexer lexer;
+
+    /** the errors and warnings of the last input */
+    private final Diagnostics diagnostics = new Diagnostics(Diagnostics.DEFAULT_LIMIT, null);
+
+    private ParserPool() {
+        byteScanner.setNameTable(names);
+    }
+
+    /**
+     * Parses a file and returns its tree, null when the parser could not
+     * recover from an error or the file has too many. The errors are in
+     * getDiagnostics().
+     */
+    Program parse(String fileName) throws Exception {
+        Diagnostics previous = start();
+        try {
+            return parse(open(fileName));
+        } finally {
+            Diagnostics.install(previous);
+        }
+    }
+
+    /** Parses all that <tt>reader</tt> holds, as parse(fileName) does a file. */
+    Program parse(Reader reader) throws Exception {
+        Diagnostics previous = start();
+        try {
+            return parse(open(reader));
+        } finally {
+            Diagnostics.install(previous);
+        }
+    }
+
+    private Program parse(Lexer lexer) throws Exception {
+        parser.setScanner(lexer);
+        try {
+            return (Program) parser.parse().value;
+        } catch (Diagnostics.LimitExceeded e) {
+            return null;
+        } catch (Exception e) {
+            // the parser gives up with a plain Exception once errors are reported
+            if (diagnostics.getErrorCount() == 0)
+                throw e;
+            return null;
+        }
+    }
+
+    /**
+     * Returns the tokens of a file, EOF token included, or null when the
+     * file has too many errors.
+     */
+    TokenBuffer tokenize(String fileName) throws IOException {
+        tokens.clear();
+        Diagnostics previous = start();
+        try {
+            return open(fileName).tokenize(tokens);
+        } catch (Diagnostics.LimitExceeded e) {
+            return null;
+        } finally {
+            Diagnostics.install(previous);
+        }
+    }
+
+    /** Returns the errors and warnings of the last input. */
+    Diagnostics getDiagnostics() {
+        return diagnostics;
+    }
+
+    /** Makes the thread report to the pool for a new input; returns what it reported to. */
+    private Diagnostics start() {
+        diagnostics.clear();
+        names.clear();
+        return Diagnostics.install(diagnostics);
+    }
+
+    /** Returns the comments of the last input. */
+    Trivia getTrivia() {
+        return lexer.getTrivia();
+    }
+
+    private Lexer open(String fileName) throws IOException {
+        if (!ByteScanner.isAsciiCompatible(Charset.defaultCharset())) {
+            char[] source = Scanner.readFile(fileName);
+            if (scanner == null) {
+                scanner = new Scanner(source, 0, source.length);
+                scanner.setNameTable(names);
+            } else {
+                scanner.reset(source, 0, source.length);
+            }
+            scanner.setCharRuns(CharRuns.get());
+            return lexer = scanner;
+        }
+        int length = read(fileName);
+        byteScanner.reset(bytes, 0, length);
+        return lexer = byteScanner;
+    }
+
+    private Lexer open(Reader reader) {
+        if (scanner == null) {
+            scanner = new Scanner(reader);
+            scanner.setNameTable(names);
+        } else {
+            scanner.reset(reader);
+        }
+        return lexer = scanner;
+    }
+
+    /** Reads a whole file into <tt>bytes</tt>, growing it if needed, and returns its length. */
+    private int read(String fileName) throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(fileName));
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IOException("File " + fileName + " is too large");
+            if (size > bytes.length)
+                bytes = new byte[(int) Math.max(size, 2L * bytes.length)];
+
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, (int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0)
+                ;
+            return buffer.position();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,1193 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java_cup.runtime.Symbol;
+
+/**
+ * The C preprocessor, between the Scanners of the source files and the
+ * parser.
+ *
+ * A HASH token that starts a line begins a directive. The directive's
+ * logical line is found with a raw scan, lexed by the file's Scanner bounded
+ * to it, and the Scanner then jumps past it. #include, #define (object-like
+ * and function-like, variadic included), #undef, #if, #ifdef, #ifndef,
+ * #elif, #else, #endif, #error and #warning are handled; #line and #pragma
+ * other than "#pragma once" are ignored. The # and ## operators are not
+ * supported.
+ *
+ * The lines of an inactive branch are never lexed: a raw scan of line
+ * starts for '#' finds the directive that ends the branch. Included files
+ * are kept decoded, with their line index, in a cache shared by all
+ * preprocessors and checked against the file's time and size; past 16M
+ * chars, the files least recently included are dropped. A file whose
+ * tokens all sit in one #ifndef group is remembered as guarded by its
+ * macro, and is not read again while the macro is defined.
+ */
+final class Preprocessor implements Lexer, sym {
+    /** the deepest #include nesting allowed */
+    private static final int MAX_DEPTH = 200;
+
+    private static final Integer ZERO = Integer.valueOf(0);
+    private static final Integer ONE = Integer.valueOf(1);
+
+    /** An included file as last read, shared by all preprocessors. */
+    private static final class Source {
+        final long modified;
+        final long size;
+        final char[] text;
+        final LineIndex lines;
+        /** the macro whose #ifndef group holds the whole file, once a read has found it */
+        volatile Name guard;
+
+        Source(long modified, long size, char[] text) {
+            this.modified = modified;
+            this.size = size;
+            this.text = text;
+            this.lines = new LineIndex(text, 0, text.length);
+        }
+    }
+
+    /** the most chars the cache keeps, the files least recently included dropped first */
+    private static final long MAX_CACHED = 16 << 20;
+
+    /** the cached files, least recently included first; guarded by itself */
+    private static final LinkedHashMap<String, Source> includes = new LinkedHashMap<String, Source>(16, 0.75f, true);
+    private static long cached;
+
+    /** Returns the cached content of a file, reading it if it is new or has changed. */
+    private static Source load(String path) throws IOException {
+        File file = new File(path);
+        long modified = file.lastModified();
+        long size = file.length();
+        Source source;
+        synchronized (includes) {
+            source = includes.get(path);
+        }
+        if (source == null || source.modified != modified || source.size != size) {
+            source = new Source(modified, size, Scanner.readFile(path));
+            synchronized (includes) {
+                Source old = includes.put(path, source);
+                if (old != null)
+                    cached -= old.text.length;
+                cached += source.text.length;
+                // the file just read stays, however large
+                Iterator<Source> eldest = includes.values().iterator();
+                while (cached > MAX_CACHED && includes.size() > 1) {
+                    cached -= eldest.next().text.length;
+                    eldest.remove();
+                }
+            }
+        }
+        return source;
+    }
+
+    private static final class Macro {
+        /** parameter names, null for an object-like macro */
+        final Name[] params;
+        /** is the last parameter __VA_ARGS__, standing for "..." */
+        final boolean variadic;
+        final MySymbol[] body;
+        /** for each body token, the parameter it names, -1 for none */
+        final int[] uses;
+        /** set while the expansion is rescanned, which must not expand the macro again */
+        boolean active;
+
+        Macro(Name[] params, boolean variadic, MySymbol[] body) {
+            this.params = params;
+            this.variadic = variadic;
+            this.body = body;
+            this.uses = new int[body.length];
+            for (int i = 0; i < body.length; ++i) {
+                uses[i] = -1;
+                for (int p = 0; params != null && p < params.length; ++p) {
+                    if (body[i].sym == ID && body[i].value == params[p])
+                        uses[i] = p;
+                }
+            }
+        }
+    }
+
+    /**
+     * A token of a macro body or argument copied to where the macro is
+     * used. Its text is the text of the token it was copied from.
+     */
+    private static final class Expanded extends MySymbol {
+        private final MySymbol origin;
+        /** a name of a macro met in its own expansion, which is never expanded */
+        final boolean painted;
+
+        Expanded(MySymbol origin, LineIndex lines, int left, int right, boolean painted) {
+            super(origin.sym, lines, left, right, origin.value);
+            this.origin = origin instanceof Expanded ? ((Expanded) origin).origin : origin;
+            this.painted = painted;
+        }
+
+        public String getText() {
+            return origin.getText();
+        }
+    }
+
+    private static boolean isPainted(MySymbol token) {
+        return token instanceof Expanded && ((Expanded) token).painted;
+    }
+
+    private static final int GUARD_NONE = 0;
+    private static final int GUARD_OPEN = 1;
+    private static final int GUARD_CLOSED = 2;
+    private static final int UNGUARDED = 3;
+
+    /** A file being read. */
+    private static final class Frame {
+        Scanner scanner;
+        String path;
+        char[] source;
+        LineIndex lines;
+        int end;
+        Source cached;
+        /** the conditionals open when the file was entered */
+        int conditionals;
+        /** the #include line in the main file that the tokens of the file come from */
+        int left, right;
+        /** the #ifndef group that may guard the file, with the nesting it opened */
+        int guardState;
+        Name guard;
+        int guardLevel;
+    }
+
+    private final Frame[] frames = new Frame[MAX_DEPTH];
+    private Frame frame;
+    private int depth;
+
+    private final List<String> includeDirs;
+    private final HashMap<Name, Macro> macros = new HashMap<Name, Macro>();
+
+    /** where the scanners intern names, which macros are looked up by */
+    private NameTable names = NameTable.global;
+    /** what "..." names in a macro body, interned in <tt>names</tt> */
+    private Name vaArgs = names.intern("__VA_ARGS__");
+
+    /** resolved include paths by including directory and name, null for none */
+    private final HashMap<String, String> resolved = new HashMap<String, String>();
+    /** the guard macro of each guarded file read */
+    private final HashMap<String, Name> guards = new HashMap<String, Name>();
+    private final HashSet<String> once = new HashSet<String>();
+
+    /** tokens of expansions, read before the files */
+    private final ArrayDeque<MySymbol> pending = new ArrayDeque<MySymbol>();
+
+    private static final byte TAKEN = 1;
+    private static final byte ELSE = 2;
+
+    /** the open conditionals, innermost last: whether a branch was taken, whether #else was seen */
+    private byte[] conditionFlags = new byte[16];
+    private int[] conditionOffsets = new int[16];
+    private int conditionals;
+
+    /** the last token returned */
+    private MySymbol last;
+
+    /** lexes copies of directive lines continued with backslashes */
+    private Scanner lineScanner;
+
+    /** set by lineEnd() when the line is continued */
+    private boolean spliced;
+
+    /**
+     * Creates a preprocessor over the decoded content of the file
+     * <tt>fileName</tt>. Includes in double quotes are looked up next to the
+     * including file, then in <tt>includeDirs</tt>; includes in angle
+     * brackets in <tt>includeDirs</tt> only.
+     */
+    Preprocessor(String fileName, char[] source, List<String> includeDirs) {
+        this.includeDirs = includeDirs;
+        Scanner scanner = new Scanner(source, 0, source.length);
+        scanner.setCharRuns(CharRuns.get());
+        frame = frames[0] = new Frame();
+        frame.scanner = scanner;
+        frame.path = fileName;
+        frame.source = source;
+        frame.lines = scanner.getLineIndex();
+        frame.end = source.length;
+    }
+
+    /**
+     * Creates the lexer for a file: a ByteScanner when the file has no '#'
+     * and its bytes can be lexed as they are, a Preprocessor over the
+     * decoded file otherwise.
+     */
+    public static Lexer fromFile(String fileName) throws IOException {
+        return fromFile(fileName, Collections.<String>emptyList());
+    }
+
+    /** Same as fromFile(fileName), looking up includes in <tt>includeDirs</tt>. */
+    public static Lexer fromFile(String fileName, List<String> includeDirs) throws IOException {
+        return fromBytes(fileName, Scanner.readBytes(fileName), includeDirs);
+    }
+
+    /** Same as fromFile(fileName, includeDirs), for the <tt>bytes</tt> read from it. */
+    static Lexer fromBytes(String fileName, byte[] bytes, List<String> includeDirs) {
+        if (ByteScanner.isAsciiCompatible(Charset.defaultCharset()) && !contains(bytes, (byte) '#'))
+            return new ByteScanner(bytes, 0, bytes.length);
+        return new Preprocessor(fileName, Scanner.decode(bytes, bytes.length), includeDirs);
+    }
+
+    private static boolean contains(byte[] bytes, byte b) {
+        for (int i = 0; i < bytes.length; ++i) {
+            if (bytes[i] == b)
+                return true;
+        }
+        return false;
+    }
+
+    /** Returns the comments of the main file. */
+    public Trivia getTrivia() {
+        return frames[0].scanner.getTrivia();
+    }
+
+    /** Returns the line index of the main file. */
+    public LineIndex getLineIndex() {
+        return frames[0].lines;
+    }
+
+    /**
+     * Makes the scanners of all files intern identifiers into
+     * <tt>names</tt>. Must be called before the first token is read.
+     */
+    public void setNameTable(NameTable names) {
+        this.names = names;
+        vaArgs = names.intern("__VA_ARGS__");
+        frames[0].scanner.setNameTable(names);
+    }
+
+    public String yytext() {
+        return last == null ? null : last.getText();
+    }
+
+    /** Does nothing: the directives and macros need the names and values. */
+    public void setRecognizeOnly(boolean recognizeOnly) {
+    }
+
+    public Symbol next_token() throws IOException {
+        while (true) {
+            MySymbol token = read();
+            if (token.sym == ID && !macros.isEmpty() && !isPainted(token)) {
+                Macro macro = macros.get(token.value);
+                if (macro != null && expand(macro, token))
+                    continue;
+            }
+            return last = token;
+        }
+    }
+
+    /**
+     * Scans the rest of the input into <tt>tokens</tt>, EOF token included.
+     * The buffer has the main file as its source: tokens of included files
+     * are placed on their #include line, and tokens of an expansion on the
+     * use of the macro.
+     */
+    public TokenBuffer tokenize(TokenBuffer tokens) throws IOException {
+        Frame main = frames[0];
+        tokens.setSource(main.source);
+        tokens.setLineIndex(main.lines);
+        while (true) {
+            MySymbol token = (MySymbol) next_token();
+            if (token.getLineIndex() == main.lines)
+                tokens.add(token.sym, token.left, token.right - token.left, token.value);
+            else
+                tokens.add(token.sym, frames[1].left, frames[1].right - frames[1].left, token.value);
+            if (token.sym == EOF)
+                return tokens;
+        }
+    }
+
+    private MySymbol read() throws IOException {
+        MySymbol token = pending.pollFirst();
+        return token != null ? token : readFiles();
+    }
+
+    /** Returns the next token of the files, obeying the directives on the way. */
+    private MySymbol readFiles() throws IOException {
+        while (true) {
+            Frame f = frame;
+            MySymbol token = (MySymbol) f.scanner.next_token();
+            if (token.sym == HASH && startsLine(f.source, token.left)) {
+                directive(f, token);
+                continue;
+            }
+            if (token.sym == EOF) {
+                if (conditionals > f.conditionals) {
+                    Errors.fatal(f.lines, conditionOffsets[conditionals - 1], "Unterminated conditional directive");
+                    conditionals = f.conditionals;
+                }
+                if (depth == 0)
+                    return token;
+                leave(f);
+                continue;
+            }
+            if (f.guardState != GUARD_OPEN)
+                f.guardState = UNGUARDED;
+            return token;
+        }
+    }
+
+    /** Is there nothing but blanks before <tt>offset</tt> on its line? */
+    private static boolean startsLine(char[] s, int offset) {
+        for (int i = offset - 1; i >= 0; --i) {
+            char c = s[i];
+            if (c == '\n' || c == '\r')
+                return true;
+            if (!isBlank(c))
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean isBlank(char c) {
+        return c == ' ' || c == '\t' || c == '\f' || c == '\u000B';
+    }
+
+    /**
+     * Returns where the logical line going on at <tt>i</tt> ends: at the
+     * first line terminator that is neither escaped by a backslash nor
+     * inside a block comment. Quotes end with the line, as they may in a
+     * skipped branch.
+     */
+    private int lineEnd(char[] s, int i, int end) {
+        while (i < end) {
+            char c = s[i];
+            if (c == '\r' || c == '\n')
+                return i;
+            if (c == '\\') {
+                i = splice(s, i, end);
+            } else if (c == '/' && i + 1 < end && s[i + 1] == '*') {
+                for (i += 2; i < end && !(s[i] == '*' && i + 1 < end && s[i + 1] == '/'); ++i)
+                    ;
+                i = Math.min(i + 2, end);
+            } else if (c == '/' && i + 1 < end && s[i + 1] == '/') {
+                while (i < end && s[i] != '\r' && s[i] != '\n')
+                    i++;
+                return i;
+            } else if (c == '"' || c == '\'') {
+                for (i++; i < end && s[i] != c && s[i] != '\r' && s[i] != '\n'; ) {
+                    if (s[i] == '\\')
+                        i = Math.min(splice(s, i, end) + 1, end);
+                    else
+                        i++;
+                }
+                if (i < end && s[i] == c)
+                    i++;
+            } else {
+                i++;
+            }
+        }
+        return end;
+    }
+
+    /** Steps over the backslash at <tt>i</tt>, and the line terminator after it if any. */
+    private int splice(char[] s, int i, int end) {
+        if (i + 1 < end && (s[i + 1] == '\n' || s[i + 1] == '\r')) {
+            spliced = true;
+            return s[i + 1] == '\r' && i + 2 < end && s[i + 2] == '\n' ? i + 3 : i + 2;
+        }
+        return i + 1;
+    }
+
+    /** Returns the tokens between <tt>from</tt> and <tt>to</tt>, a directive line of <tt>f</tt>. */
+    private List<MySymbol> lineTokens(Frame f, int from, int to) throws IOException {
+        List<MySymbol> tokens = new ArrayList<MySymbol>();
+        if (!spliced) {
+            f.scanner.restart(from, to);
+            for (MySymbol t; (t = (MySymbol) f.scanner.next_token()).sym != EOF; )
+                tokens.add(t);
+            return tokens;
+        }
+
+        // the backslash-newlines are taken out of a copy of the line, lexed on its own
+        char[] s = f.source;
+        char[] copy = new char[to - from];
+        int[] origins = new int[to - from];
+        int n = 0;
+        for (int i = from; i < to; ) {
+            int next = s[i] == '\\' ? splice(s, i, to) : i + 1;
+            if (next == i + 1) {
+                origins[n] = i;
+                copy[n++] = s[i];
+            }
+            i = next;
+        }
+        if (lineScanner == null) {
+            lineScanner = new Scanner(copy, 0, n);
+            lineScanner.setNameTable(names);
+        } else {
+            lineScanner.reset(copy, 0, n);
+        }
+        for (MySymbol t; (t = (MySymbol) lineScanner.next_token()).sym != EOF; ) {
+            int left = origins[t.left];
+            int right = origins[t.right - 1] + 1;
+            tokens.add(t.value == null ? new MySymbol(t.sym, f.lines, s, left, right)
+                    : new MySymbol(t.sym, f.lines, left, right, t.value));
+        }
+        return tokens;
+    }
+
+    /**
+     * Handles the directive that starts with <tt>hash</tt>, then goes on
+     * after its line. A directive in error is reported and ignored.
+     */
+    private void directive(Frame f, MySymbol hash) throws IOException {
+        spliced = false;
+        int end = lineEnd(f.source, hash.right, f.end);
+        List<MySymbol> line = lineTokens(f, hash.right, end);
+        f.scanner.restart(end, f.end);
+        String name = line.isEmpty() ? "" : directiveName(line.get(0));
+        try {
+            directive(f, hash, line, name, end);
+        } catch (Failure e) {
+            // reported
+        }
+    }
+
+    private void directive(Frame f, MySymbol hash, List<MySymbol> line, String name, int end) throws IOException {
+
+        if (f.guardState == GUARD_NONE && !name.equals("ifndef") || f.guardState == GUARD_CLOSED)
+            f.guardState = UNGUARDED;
+
+        switch (name) {
+        case "":
+            break;
+        case "if":
+            condition(f, end, evaluate(f, hash, line) != 0, hash.left);
+            break;
+        case "ifdef":
+        case "ifndef": {
+            // without a name the group is skipped
+            Name macro = line.size() > 1 && line.get(1).sym == ID ? (Name) line.get(1).value : null;
+            if (macro == null)
+                Errors.fatal(f.lines, hash.left, "Macro name missing after #" + name);
+            else if (line.size() > 2)
+                Errors.warn(f.lines, line.get(2).left, "Extra tokens at end of #" + name + " directive");
+            if (f.guardState == GUARD_NONE && macro != null) {
+                f.guardState = GUARD_OPEN;
+                f.guard = macro;
+                f.guardLevel = conditionals + 1;
+            }
+            condition(f, end, macro != null && macros.containsKey(macro) == name.equals("ifdef"), hash.left);
+            break;
+        }
+        case "elif":
+            checkOpen(f, hash, name);
+            if (f.guardState == GUARD_OPEN && conditionals == f.guardLevel)
+                f.guardState = UNGUARDED;
+            if ((conditionFlags[conditionals - 1] & TAKEN) != 0)
+                skip(f, end);
+            else if (evaluate(f, hash, line) != 0)
+                conditionFlags[conditionals - 1] |= TAKEN;
+            else
+                skip(f, end);
+            break;
+        case "else": {
+            checkOpen(f, hash, name);
+            if (f.guardState == GUARD_OPEN && conditionals == f.guardLevel)
+                f.guardState = UNGUARDED;
+            byte flags = conditionFlags[conditionals - 1];
+            conditionFlags[conditionals - 1] = TAKEN | ELSE;
+            if ((flags & TAKEN) != 0)
+                skip(f, end);
+            break;
+        }
+        case "endif":
+            if (conditionals == f.conditionals)
+                fatal(f.lines, hash.left, "#endif without #if");
+            if (f.guardState == GUARD_OPEN && conditionals == f.guardLevel)
+                f.guardState = GUARD_CLOSED;
+            conditionals--;
+            break;
+        case "define":
+            define(f, hash, line);
+            break;
+        case "undef":
+            macros.remove(macroName(f, hash, line, name));
+            break;
+        case "include":
+            include(f, hash, line, end);
+            break;
+        case "error":
+            Errors.fatal(f.lines, hash.left, new String(f.source, hash.left, end - hash.left).trim());
+            break;
+        case "warning":
+            Errors.warn(f.lines, hash.left, new String(f.source, hash.left, end - hash.left).trim());
+            break;
+        case "pragma":
+            if (line.size() > 1 && line.get(1).sym == ID && ((Name) line.get(1).value).text.equals("once"))
+                once.add(f.path);
+            break;
+        case "line":
+            break;
+        default:
+            Errors.warn(f.lines, hash.left, "Unknown directive #" + name + " ignored");
+        }
+    }
+
+    private static String directiveName(MySymbol token) {
+        if (token.sym == ID)
+            return ((Name) token.value).text;
+        String text = token.getText();
+        return text == null ? "?" : text;
+    }
+
+    /** Returns the macro name a directive starts with. */
+    private Name macroName(Frame f, MySymbol hash, List<MySymbol> line, String directive) {
+        if (line.size() < 2 || line.get(1).sym != ID)
+            fatal(f.lines, hash.left, "Macro name missing after #" + directive);
+        return (Name) line.get(1).value;
+    }
+
+    /** Opens a conditional, skipping its first branch unless <tt>taken</tt>. */
+    private void condition(Frame f, int end, boolean taken, int offset) {
+        if (conditionals == conditionFlags.length) {
+            conditionFlags = java.util.Arrays.copyOf(conditionFlags, 2 * conditionals);
+            conditionOffsets = java.util.Arrays.copyOf(conditionOffsets, 2 * conditionals);
+        }
+        conditionFlags[conditionals] = taken ? TAKEN : 0;
+        conditionOffsets[conditionals++] = offset;
+        if (!taken)
+            skip(f, end);
+    }
+
+    private void checkOpen(Frame f, MySymbol hash, String directive) {
+        if (conditionals == f.conditionals)
+            fatal(f.lines, hash.left, "#" + directive + " without #if");
+        if ((conditionFlags[conditionals - 1] & ELSE) != 0)
+            fatal(f.lines, hash.left, "#" + directive + " after #else");
+    }
+
+    /**
+     * Skips the lines of an inactive branch from <tt>from</tt> on without
+     * lexing them, up to the #elif, #else or #endif that ends the branch,
+     * where the scanner goes on.
+     */
+    private void skip(Frame f, int from) {
+        char[] s = f.source;
+        int end = f.end;
+        int nesting = 0;
+        int i = from;
+        while (i < end) {
+            char c = s[i];
+            if (c == '\r' || c == '\n') {
+                i++;
+                continue;
+            }
+            while (i < end && isBlank(s[i]))
+                i++;
+            if (i < end && s[i] == '#') {
+                int hash = i;
+                for (i++; i < end && isBlank(s[i]); ++i)
+                    ;
+                int word = i;
+                while (i < end && s[i] >= 'a' && s[i] <= 'z')
+                    i++;
+                if (is(s, word, i, "if") || is(s, word, i, "ifdef") || is(s, word, i, "ifndef")) {
+                    nesting++;
+                } else if (is(s, word, i, "endif")) {
+                    if (nesting-- == 0) {
+                        f.scanner.restart(hash, end);
+                        return;
+                    }
+                } else if (nesting == 0 && (is(s, word, i, "else") || is(s, word, i, "elif"))) {
+                    f.scanner.restart(hash, end);
+                    return;
+                }
+            }
+            i = lineEnd(s, i, end);
+        }
+        f.scanner.restart(end, end);
+    }
+
+    private static boolean is(char[] s, int from, int to, String word) {
+        if (to - from != word.length())
+            return false;
+        for (int i = 0; i < word.length(); ++i) {
+            if (s[from + i] != word.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    private void define(Frame f, MySymbol hash, List<MySymbol> line) {
+        Name name = macroName(f, hash, line, "define");
+        int n = line.size();
+        int i = 2;
+        Name[] params = null;
+        boolean variadic = false;
+        // a parameter list opens right after the name
+        if (i < n && line.get(i).sym == LPAREN && line.get(i).left == line.get(1).right) {
+            List<Name> names = new ArrayList<Name>();
+            i++;
+            if (i < n && line.get(i).sym == RPAREN) {
+                i++;
+            } else {
+                while (true) {
+                    MySymbol param = i < n ? line.get(i++) : null;
+                    if (param != null && param.sym == ELLIPSIS) {
+                        variadic = true;
+                        names.add(vaArgs);
+                    } else if (param != null && param.sym == ID) {
+                        names.add((Name) param.value);
+                    } else {
+                        fatal(f.lines, hash.left, "Bad parameter list in definition of " + name.text);
+                    }
+                    MySymbol next = i < n ? line.get(i++) : null;
+                    if (next != null && next.sym == RPAREN)
+                        break;
+                    if (next == null || next.sym != COMMA || variadic)
+                        fatal(f.lines, hash.left, "Bad parameter list in definition of " + name.text);
+                }
+            }
+            params = names.toArray(new Name[names.size()]);
+        }
+        MySymbol[] body = line.subList(i, n).toArray(new MySymbol[n - i]);
+        macros.put(name, new Macro(params, variadic, body));
+    }
+
+    private void include(Frame f, MySymbol hash, List<MySymbol> line, int end) throws IOException {
+        List<MySymbol> operand = line.subList(1, line.size());
+        if (!operand.isEmpty() && operand.get(0).sym != STRINGLITERAL && operand.get(0).sym != LESS)
+            operand = expand(operand);
+
+        String target = null;
+        boolean quoted = false;
+        int n = operand.size();
+        if (n == 1 && operand.get(0).sym == STRINGLITERAL) {
+            target = (String) operand.get(0).value;
+            quoted = true;
+        } else if (n > 2 && operand.get(0).sym == LESS && operand.get(n - 1).sym == GREATER) {
+            StringBuilder text = new StringBuilder();
+            for (int i = 1; i < n - 1; ++i)
+                text.append(operand.get(i).getText());
+            target = text.toString();
+        }
+        if (target == null || target.isEmpty())
+            fatal(f.lines, hash.left, "#include expects \"FILENAME\" or <FILENAME>");
+
+        String path = resolve(f, target, quoted);
+        if (path == null)
+            fatal(f.lines, hash.left, "Include file " + target + " not found");
+        if (once.contains(path))
+            return;
+        Name guard = guards.get(path);
+        if (guard != null && macros.containsKey(guard))
+            return;
+        if (depth + 1 == MAX_DEPTH)
+            fatal(f.lines, hash.left, "#include nested more than " + MAX_DEPTH + " deep");
+
+        Source source = null;
+        try {
+            source = load(path);
+        } catch (NoSuchFileException e) {
+            // gone since its path was looked up
+            fatal(f.lines, hash.left, "Include file " + target + " not found");
+        }
+        // the cache is shared by preprocessors that may intern into other tables
+        guard = source.guard == null ? null : names.intern(source.guard.text);
+        if (guard != null) {
+            guards.put(path, guard);
+            if (macros.containsKey(guard))
+                return;
+        }
+        enter(f, path, source, hash.left, end);
+    }
+
+    /** Returns the path of an include, null if there is none. */
+    private String resolve(Frame f, String target, boolean quoted) {
+        String dir = quoted ? new File(f.path).getParent() : null;
+        String key = quoted ? dir + '\0' + target : '<' + target;
+        String path = resolved.get(key);
+        if (path == null && !resolved.containsKey(key)) {
+            path = find(dir, target, quoted);
+            resolved.put(key, path);
+        }
+        return path;
+    }
+
+    private String find(String dir, String target, boolean quoted) {
+        File file = new File(target);
+        if (file.isAbsolute())
+            return file.isFile() ? file.getPath() : null;
+        if (quoted) {
+            file = new File(dir, target);
+            if (file.isFile())
+                return file.toPath().normalize().toString();
+        }
+        for (String includeDir : includeDirs) {
+            file = new File(includeDir, target);
+            if (file.isFile())
+                return file.toPath().normalize().toString();
+        }
+        return null;
+    }
+
+    private void enter(Frame parent, String path, Source source, int left, int right) {
+        Frame f = frames[depth + 1];
+        if (f == null) {
+            f = frames[depth + 1] = new Frame();
+            f.scanner = new Scanner(source.text, 0, source.text.length);
+            f.scanner.setNameTable(names);
+            f.scanner.setCharRuns(CharRuns.get());
+        } else {
+            f.scanner.reset(source.text, 0, source.text.length);
+        }
+        f.scanner.setLineIndex(source.lines);
+        f.path = path;
+        f.source = source.text;
+        f.lines = source.lines;
+        f.end = source.text.length;
+        f.cached = source;
+        f.conditionals = conditionals;
+        f.left = depth == 0 ? left : parent.left;
+        f.right = depth == 0 ? right : parent.right;
+        f.guardState = GUARD_NONE;
+        f.guard = null;
+        frame = f;
+        depth++;
+    }
+
+    /** Goes back to the file that included <tt>f</tt>, which has been read. */
+    private void leave(Frame f) {
+        if (f.guardState == GUARD_CLOSED) {
+            f.cached.guard = f.guard;
+            guards.put(f.path, f.guard);
+        }
+        f.cached = null;
+        frame = frames[--depth];
+    }
+
+    /**
+     * Replaces the use of <tt>macro</tt> named by <tt>name</tt> by its
+     * expansion, to be read next. Returns false when a function-like macro
+     * is not followed by arguments, which leaves the name as it is.
+     */
+    private boolean expand(Macro macro, MySymbol name) throws IOException {
+        List<List<MySymbol>> args = null;
+        int right = name.right;
+        if (macro.params != null) {
+            MySymbol open = read();
+            if (open.sym != LPAREN) {
+                pending.addFirst(open);
+                return false;
+            }
+            List<MySymbol> call = new ArrayList<MySymbol>();
+            call.add(open);
+            for (int level = 1; level > 0; ) {
+                MySymbol token = read();
+                call.add(token);
+                if (token.sym == LPAREN) {
+                    level++;
+                } else if (token.sym == RPAREN) {
+                    level--;
+                } else if (token.sym == EOF) {
+                    Errors.fatal(name.getLineIndex(), name.left, "Unterminated call of macro " + name.getText());
+                    break;
+                }
+            }
+            args = new ArrayList<List<MySymbol>>();
+            try {
+                if (call.get(call.size() - 1).sym == EOF)
+                    throw FAILURE;
+                arguments(macro, name, call, 1, args);
+            } catch (Failure e) {
+                // the call is read again as it is, the name left unexpanded
+                for (int i = call.size() - 1; i >= 0; --i)
+                    pending.addFirst(call.get(i));
+                return false;
+            }
+            right = end(name, call.get(call.size() - 1));
+        }
+
+        List<MySymbol> body = substitute(macro, name, right, args);
+        macro.active = true;
+        List<MySymbol> tokens = expand(body);
+        macro.active = false;
+        for (int i = tokens.size() - 1; i >= 0; --i)
+            pending.addFirst(tokens.get(i));
+        return true;
+    }
+
+    /** Expands the macros used in <tt>tokens</tt>. */
+    private List<MySymbol> expand(List<MySymbol> tokens) {
+        List<MySymbol> out = new ArrayList<MySymbol>(tokens.size());
+        for (int i = 0, n = tokens.size(); i < n; ++i) {
+            MySymbol token = tokens.get(i);
+            Macro macro = token.sym == ID && !isPainted(token) ? macros.get(token.value) : null;
+            if (macro == null) {
+                out.add(token);
+                continue;
+            }
+            if (macro.active) {
+                out.add(new Expanded(token, token.getLineIndex(), token.left, token.right, true));
+                continue;
+            }
+
+            List<List<MySymbol>> args = null;
+            int right = token.right;
+            if (macro.params != null) {
+                if (i + 1 == n || tokens.get(i + 1).sym != LPAREN) {
+                    out.add(token);
+                    continue;
+                }
+                args = new ArrayList<List<MySymbol>>();
+                int next;
+                try {
+                    next = arguments(macro, token, tokens, i + 2, args);
+                } catch (Failure e) {
+                    next = -1;
+                }
+                if (next < 0) {
+                    out.add(token);
+                    continue;
+                }
+                right = end(token, tokens.get(next - 1));
+                i = next - 1;
+            }
+            List<MySymbol> body = substitute(macro, token, right, args);
+            macro.active = true;
+            out.addAll(expand(body));
+            macro.active = false;
+        }
+        return out;
+    }
+
+    /** Returns where the use of a macro from <tt>name</tt> to <tt>close</tt> ends. */
+    private static int end(MySymbol name, MySymbol close) {
+        return close.getLineIndex() == name.getLineIndex() && close.right > name.right ? close.right : name.right;
+    }
+
+    /**
+     * Splits the arguments that start at <tt>from</tt> in <tt>tokens</tt>,
+     * after the opening parenthesis, into <tt>args</tt>. Returns the index
+     * after the closing parenthesis, -1 if there is none.
+     */
+    private int arguments(Macro macro, MySymbol name, List<MySymbol> tokens, int from, List<List<MySymbol>> args) {
+        int expected = macro.params.length;
+        int level = 0;
+        int start = from;
+        int i = from;
+        for (int n = tokens.size(); ; ++i) {
+            if (i == n)
+                return -1;
+            int kind = tokens.get(i).sym;
+            if (kind == LPAREN) {
+                level++;
+            } else if (kind == RPAREN && level-- == 0) {
+                break;
+            } else if (kind == COMMA && level == 0 && !(macro.variadic && args.size() == expected - 1)) {
+                args.add(tokens.subList(start, i));
+                start = i + 1;
+            }
+        }
+        args.add(tokens.subList(start, i));
+
+        if (expected == 0 && args.size() == 1 && args.get(0).isEmpty())
+            args.clear();
+        if (macro.variadic && args.size() == expected - 1)
+            args.add(Collections.<MySymbol>emptyList());
+        if (args.size() != expected)
+            fatal(name.getLineIndex(), name.left, "Macro " + name.getText() + " takes " + expected
+                    + " arguments, " + args.size() + " given");
+        return i + 1;
+    }
+
+    /**
+     * Returns the body of <tt>macro</tt> with its parameters replaced by the
+     * expanded arguments, placed on the use from <tt>name</tt> to <tt>right</tt>.
+     */
+    private List<MySymbol> substitute(Macro macro, MySymbol name, int right, List<List<MySymbol>> args) {
+        LineIndex lines = name.getLineIndex();
+        int left = name.left;
+        List<List<MySymbol>> expanded = null;
+        if (args != null) {
+            expanded = new ArrayList<List<MySymbol>>(args.size());
+            for (List<MySymbol> arg : args)
+                expanded.add(expand(arg));
+        }
+
+        List<MySymbol> out = new ArrayList<MySymbol>(macro.body.length);
+        for (int i = 0; i < macro.body.length; ++i) {
+            int param = macro.uses[i];
+            if (param < 0) {
+                out.add(new Expanded(macro.body[i], lines, left, right, false));
+                continue;
+            }
+            for (MySymbol token : expanded.get(param))
+                out.add(new Expanded(token, lines, left, right, isPainted(token)));
+        }
+        return out;
+    }
+
+    /* #if expressions, evaluated over the kinds and values of their tokens */
+
+    private int[] kinds = new int[16];
+    private long[] values = new long[16];
+    private int count;
+    private int next;
+    /** how many enclosing operators have their operand ignored, where division by zero is allowed */
+    private int unevaluated;
+    private LineIndex exprLines;
+    private int exprOffset;
+
+    /** Returns the value of the #if or #elif expression on <tt>line</tt>, 0 if it is in error. */
+    private long evaluate(Frame f, MySymbol hash, List<MySymbol> line) {
+        try {
+            return expression(f, hash, line);
+        } catch (Failure e) {
+            return 0;
+        }
+    }
+
+    private long expression(Frame f, MySymbol hash, List<MySymbol> line) {
+        exprLines = f.lines;
+        exprOffset = hash.left;
+
+        // "defined X" and "defined(X)" are decided before macros are expanded
+        List<MySymbol> tokens = new ArrayList<MySymbol>(line.size());
+        for (int i = 1, n = line.size(); i < n; ++i) {
+            MySymbol token = line.get(i);
+            if (token.sym != ID || !((Name) token.value).text.equals("defined")) {
+                tokens.add(token);
+                continue;
+            }
+            boolean paren = i + 1 < n && line.get(i + 1).sym == LPAREN;
+            int j = paren ? i + 2 : i + 1;
+            if (j >= n || line.get(j).sym != ID || paren && (j + 1 >= n || line.get(j + 1).sym != RPAREN))
+                fatal(f.lines, token.left, "Operator \"defined\" requires an identifier");
+            boolean defined = macros.containsKey(line.get(j).value);
+            tokens.add(new MySymbol(INTLITERAL, f.lines, token.left, token.right, defined ? ONE : ZERO));
+            i = paren ? j + 1 : j;
+        }
+        tokens = expand(tokens);
+
+        count = 0;
+        boolean operand = false;
+        for (MySymbol token : tokens) {
+            switch (token.sym) {
+            case INTLITERAL:
+                // the scanner reads "1-1" as two literals, the second one signed
+                if (operand)
+                    add(PLUS, 0);
+                add(INTLITERAL, ((Integer) token.value).longValue());
+                operand = true;
+                break;
+            case CHARLITERAL:
+                add(INTLITERAL, ((Character) token.value).charValue());
+                operand = true;
+                break;
+            case ID:
+            case FALSE:
+                // names left after expansion are 0
+                add(INTLITERAL, 0);
+                operand = true;
+                break;
+            case TRUE:
+                add(INTLITERAL, 1);
+                operand = true;
+                break;
+            default:
+                add(token.sym, 0);
+                operand = token.sym == RPAREN;
+            }
+        }
+        if (count == 0)
+            fatal(exprLines, exprOffset, "#if with no expression");
+
+        next = 0;
+        unevaluated = 0;
+        long value = conditional();
+        if (next < count)
+            fatal(exprLines, exprOffset, "Missing binary operator before " + MySymbol.tokenName(kinds[next]) + " in #if");
+        return value;
+    }
+
+    private void add(int kind, long value) {
+        if (count == kinds.length) {
+            kinds = java.util.Arrays.copyOf(kinds, 2 * count);
+            values = java.util.Arrays.copyOf(values, 2 * count);
+        }
+        kinds[count] = kind;
+        values[count++] = value;
+    }
+
+    private int peek() {
+        return next < count ? kinds[next] : EOF;
+    }
+
+    private void expect(int kind, String what) {
+        if (peek() != kind)
+            fatal(exprLines, exprOffset, "Expected " + what + " in #if");
+        next++;
+    }
+
+    private long conditional() {
+        long condition = binary(1);
+        if (peek() != QUESTIONMAR)
+            return condition;
+        next++;
+        if (condition == 0)
+            unevaluated++;
+        long then = conditional();
+        if (condition == 0)
+            unevaluated--;
+        // the scanner reads ':' as SEMICOLON
+        expect(SEMICOLON, "':'");
+        if (condition != 0)
+            unevaluated++;
+        long otherwise = conditional();
+        if (condition != 0)
+            unevaluated--;
+        return condition != 0 ? then : otherwise;
+    }
+
+    private static int precedence(int kind) {
+        switch (kind) {
+        case OR_OP:
+            return 1;
+        case AND_OP:
+            return 2;
+        case VERTICALBAR:
+            return 3;
+        case CARET:
+            return 4;
+        case AMPERSAND:
+            return 5;
+        case EQUALS:
+        case NE_OP:
+            return 6;
+        case LESS:
+        case GREATER:
+        case LE_OP:
+        case GE_OP:
+            return 7;
+        case LEFT_OP:
+        case RIGHT_OP:
+            return 8;
+        case PLUS:
+        case MINUS:
+            return 9;
+        case TIMES:
+        case DIVIDE:
+        case PERCENT:
+            return 10;
+        default:
+            return -1;
+        }
+    }
+
+    private long binary(int min) {
+        long left = unary();
+        for (int op = peek(), p; (p = precedence(op)) >= min; op = peek()) {
+            next++;
+            boolean ignored = op == AND_OP && left == 0 || op == OR_OP && left != 0;
+            if (ignored)
+                unevaluated++;
+            long right = binary(p + 1);
+            if (ignored)
+                unevaluated--;
+            left = apply(op, left, right);
+        }
+        return left;
+    }
+
+    private long apply(int op, long left, long right) {
+        switch (op) {
+        case OR_OP:
+            return left != 0 || right != 0 ? 1 : 0;
+        case AND_OP:
+            return left != 0 && right != 0 ? 1 : 0;
+        case VERTICALBAR:
+            return left | right;
+        case CARET:
+            return left ^ right;
+        case AMPERSAND:
+            return left & right;
+        case EQUALS:
+            return left == right ? 1 : 0;
+        case NE_OP:
+            return left != right ? 1 : 0;
+        case LESS:
+            return left < right ? 1 : 0;
+        case GREATER:
+            return left > right ? 1 : 0;
+        case LE_OP:
+            return left <= right ? 1 : 0;
+        case GE_OP:
+            return left >= right ? 1 : 0;
+        case LEFT_OP:
+            return left << right;
+        case RIGHT_OP:
+            return left >> right;
+        case PLUS:
+            return left + right;
+        case MINUS:
+            return left - right;
+        case TIMES:
+            return left * right;
+        default:
+            if (right == 0) {
+                if (unevaluated == 0)
+                    fatal(exprLines, exprOffset, "Division by zero in #if");
+                return 0;
+            }
+            return op == DIVIDE ? left / right : left % right;
+        }
+    }
+
+    private long unary() {
+        int kind = peek();
+        next++;
+        switch (kind) {
+        case INTLITERAL:
+            return values[next - 1];
+        case MINUS:
+            return -unary();
+        case PLUS:
+            return unary();
+        case BANG:
+            return unary() == 0 ? 1 : 0;
+        case TILDE:
+            return ~unary();
+        case LPAREN:
+            long value = conditional();
+            expect(RPAREN, "')'");
+            return value;
+        case EOF:
+            fatal(exprLines, exprOffset, "Missing operand in #if");
+            return 0;
+        default:
+            fatal(exprLines, exprOffset, "Token " + MySymbol.tokenName(kind) + " is not valid in #if");
+            return 0;
+        }
+    }
+
+    /** Thrown once an error is reported, to give up the directive or expansion in error. */
+    private static final class Failure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        Failure() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final Failure FAILURE = new Failure();
+
+    private static void fatal(LineIndex lines, int offset, String message) {
+        Errors.fatal(lines, offset, message);
+        throw FAILURE;
+    }
+}
@@ -0,0 +1,82 @@
+import java_cup.runtime.Symbol;
+
+/**
+ * Tells whether an input is in the language of SimpleC.cup, and where its
+ * first error is, without building anything.
+ *
+ * It drives the tables of {@link parser} over a stack of states alone.
+ * No action runs, so no tree, list or nonterminal Symbol is made, and the
+ * lexer is told to recognize only: it interns no name and decodes no
+ * literal value. What is left is the lexer's matching and its Symbols. It stops at the first error, lexical or
+ * syntax, where the parser would recover and go on, and reports it as
+ * the parser does. An input passes exactly when the parser parses it
+ * without errors.
+ *
+ * A Recognizer keeps its stack from one input to the next; one per
+ * thread.
+ */
+final class Recognizer {
+    /** CUP numbers its start state and the production that accepts 0 */
+    private static final int START_STATE = 0;
+    private static final int START_PRODUCTION = 0;
+
+    /** unpacked whatever -Dparser.tables says; the packed lookups are for comparing */
+    private static final ParseTables tables = ParseTables.unpack(parser._action_table, parser._reduce_table);
+    private static final short[][] productions = parser._production_table;
+
+    private int[] states = new int[64];
+
+    /**
+     * Returns the first error of the input <tt>lexer</tt> reads, null if
+     * there is none. Warnings are not reported.
+     */
+    Diagnostics.Message check(Lexer lexer) throws Exception {
+        // the first error stops the lexer or the loop with LimitExceeded
+        Diagnostics diagnostics = new Diagnostics(1, null);
+        Diagnostics previous = Diagnostics.install(diagnostics);
+        lexer.setRecognizeOnly(true);
+        try {
+            recognize(lexer);
+        } catch (Diagnostics.LimitExceeded e) {
+            // the error is in diagnostics
+        } finally {
+            Diagnostics.install(previous);
+        }
+        for (Diagnostics.Message message : diagnostics.getMessages()) {
+            if (message.error)
+                return message;
+        }
+        return null;
+    }
+
+    private void recognize(Lexer lexer) throws Exception {
+        int top = 0;
+        states[0] = START_STATE;
+        Symbol token = lexer.next_token();
+        for (;;) {
+            int act = tables.action(states[top], token.sym);
+            if (act > 0) {
+                top = push(top, act - 1);
+                // the EOF is shifted too; the lexers keep returning it
+                token = lexer.next_token();
+            } else if (act < 0) {
+                int production = -act - 1;
+                if (production == START_PRODUCTION)
+                    return;
+                top -= productions[production][1];
+                top = push(top, tables.reduce(states[top], productions[production][0]));
+            } else {
+                parser.reportSyntaxError(token, lexer);
+                return;
+            }
+        }
+    }
+
+    /** Pushes <tt>state</tt> above <tt>top</tt> and returns the new top. */
+    private int push(int top, int state) {
+        if (++top == states.length)
+            states = java.util.Arrays.copyOf(states, 2 * top);
+        states[top] = state;
+        return top;
+    }
+}
@@ -0,0 +1,93 @@
+import java.util.Arrays;
+import java_cup.runtime.Symbol;
+
+/**
+ * The symbols of a whole input, read from a lexer ahead of the parse,
+ * with the errors and warnings the lexer reported on the way held back.
+ *
+ * Handed to a parser as its scanner, it gives the symbols back and reports
+ * each message when the symbol read after it is asked for, so the parser
+ * meets them as it would reading from the lexer. Unlike a TokenBuffer,
+ * every symbol keeps the file and text it came from, which the tokens of
+ * an #include lose, so an error is reported as the lexer would have it.
+ */
+final class RecordedTokens implements java_cup.runtime.Scanner, TokenSlices {
+    private Symbol[] symbols = new Symbol[1024];
+    private int count;
+
+    /** the lexer's messages, and for each the number of symbols read before it */
+    private final Diagnostics lexed;
+    private int[] readBefore = new int[16];
+
+    private int next;
+    private int replayed;
+
+    /**
+     * Reads the symbols of <tt>lexer</tt> up to and including EOF, keeping
+     * the messages it reports in <tt>lexed</tt>, which has no limit.
+     */
+    RecordedTokens(Lexer lexer, Diagnostics lexed) throws Exception {
+        this.lexed = lexed;
+        Diagnostics previous = Diagnostics.install(lexed);
+        try {
+            Symbol symbol;
+            do {
+                symbol = lexer.next_token();
+                for (int i = replayed; i < lexed.getMessages().size(); ++i) {
+                    if (i == readBefore.length)
+                        readBefore = Arrays.copyOf(readBefore, i * 2);
+                    readBefore[i] = count;
+                }
+                replayed = lexed.getMessages().size();
+                if (count == symbols.length)
+                    symbols = Arrays.copyOf(symbols, count * 2);
+                symbols[count++] = symbol;
+            } while (symbol.sym != sym.EOF);
+        } finally {
+            Diagnostics.install(previous);
+        }
+        replayed = 0;
+    }
+
+    /** Returns the number of symbols, EOF included. */
+    public int size() {
+        return count;
+    }
+
+    /** Returns the kind of symbol <tt>i</tt>. */
+    public int getKind(int i) {
+        return symbols[i].sym;
+    }
+
+    /**
+     * Hands out the next symbol, after reporting the messages the lexer
+     * gave before it. After EOF the stream keeps returning it.
+     */
+    public Symbol next_token() {
+        int i = next < count - 1 ? next++ : count - 1;
+        int to = replayed;
+        while (to < lexed.getMessages().size() && readBefore[to] <= i)
+            to++;
+        lexed.replay(replayed, to);
+        replayed = to;
+        return symbols[i];
+    }
+
+    /**
+     * Returns a stream of copies of symbols <tt>from</tt> to <tt>to</tt> - 1
+     * and then of EOF, so that a slice parses on its own, on any thread.
+     * The lexer's messages are not reported. The symbols themselves are
+     * left to a parse of the whole, for lr_parser takes a symbol another
+     * parse has shifted for a scanner's mistake.
+     */
+    public java_cup.runtime.Scanner slice(final int from, final int to) {
+        return new java_cup.runtime.Scanner() {
+            private int next = from;
+
+            public Symbol next_token() {
+                MySymbol symbol = (MySymbol) symbols[next < to ? next++ : count - 1];
+                return new MySymbol(symbol.sym, symbol.getLineIndex(), symbol.left, symbol.right, symbol.value);
+            }
+        };
+    }
+}
@@ -0,0 +1,48 @@
+import java_cup.runtime.Symbol;
+import java_cup.runtime.SymbolFactory;
+
+/**
+ * A SymbolFactory that returns the same Symbol from every call, set as
+ * DefaultSymbolFactory would set a new one.
+ *
+ * The generated actions wrap every nonterminal they reduce to in a Symbol
+ * from the parser's factory, which the parser pushes and drops. A
+ * ParseStack copies what is pushed, so parser.parse() lets its actions
+ * use this factory, and a reduction allocates nothing but the nodes of
+ * the tree. A caller must be done with one Symbol before asking for the
+ * next.
+ */
+final class RecyclingSymbolFactory implements SymbolFactory {
+    private final Symbol symbol = new Symbol(0);
+
+    public Symbol newSymbol(String name, int id, Symbol left, Symbol right, Object value) {
+        return set(id, left.left, right.right, value);
+    }
+
+    public Symbol newSymbol(String name, int id, Symbol left, Symbol right) {
+        return set(id, left.left, right.right, null);
+    }
+
+    public Symbol newSymbol(String name, int id, Object value) {
+        return set(id, -1, -1, value);
+    }
+
+    public Symbol newSymbol(String name, int id) {
+        return set(id, -1, -1, null);
+    }
+
+    public Symbol startSymbol(String name, int id, int state) {
+        Symbol start = set(id, 0, 0, null);
+        start.parse_state = state;
+        return start;
+    }
+
+    private Symbol set(int id, int left, int right, Object value) {
+        symbol.sym = id;
+        symbol.parse_state = -1;
+        symbol.left = left;
+        symbol.right = right;
+        symbol.value = value;
+        return symbol;
+    }
+}
@@ -1,4 +1,4 @@
-/* The following code was generated by JFlex 1.4.3 on 12/26/17, 10:58 PM */
+/* The following code was generated by JFlex 1.4.3 on 10/18/26, 8:38 AM */
 
 import java.io.*;
 import java_cup.runtime.*;
@@ -7,10 +7,10 @@ import java_cup.runtime.*;
 /**
  * This class is a scanner generated by 
  * <a href="http://www.jflex.de/">JFlex</a> 1.4.3
- * on 12/26/17, 10:58 PM from the specification file
+ * on 10/18/26, 8:38 AM from the specification file
  * <tt>SimpleC.lex</tt>
  */
-public class Scanner implements sym, java_cup.runtime.Scanner {
+public class Scanner implements sym, Lexer, java_cup.runtime.Scanner {
 
   /** This character denotes the end of file */
   public static final int YYEOF = -1;
@@ -19,7 +19,9 @@ public class Scanner implements sym, java_cup.runtime.Scanner {
   private static final int ZZ_BUFFERSIZE = 16384;
 
   /** lexical states */
+  public static final int RUNS = 2;
   public static final int YYINITIAL = 0;
+  public static final int STREAM = 4;
 
   /**
    * ZZ_LEXSTATE[l] is the state in the DFA for the lexical state l
@@ -28,56 +30,50 @@ public class Scanner implements sym, java_cup.runtime.Scanner {
    * l is of the form l = 2*k, k a non negative integer
    */
   private static final int ZZ_LEXSTATE[] = { 
-     0, 0
+     0,  0,  1,  1,  2, 2
   };
 
   /** 
    * Translates characters to character classes
    */
   private static final String ZZ_CMAP_PACKED = 
-    "\11\0\1\3\1\2\1\0\1\3\1\1\22\0\1\3\1\102\1\24"+
-    "\1\105\1\0\1\76\1\77\1\26\1\62\1\63\1\23\1\74\1\71"+
-    "\1\7\1\17\1\22\1\13\7\16\2\6\1\70\1\70\1\72\1\75"+
-    "\1\73\1\104\1\0\1\46\3\15\1\20\1\21\5\4\1\12\1\4"+
-    "\1\61\3\4\1\45\1\47\1\44\1\10\2\4\1\14\2\4\1\66"+
-    "\1\25\1\67\1\100\1\4\1\0\1\43\1\33\1\51\1\40\1\36"+
-    "\1\41\1\54\1\52\1\30\1\4\1\50\1\11\1\53\1\31\1\34"+
-    "\1\60\1\4\1\35\1\42\1\32\1\37\1\5\1\56\1\27\1\57"+
-    "\1\55\1\64\1\101\1\65\1\103\uff81\0";
+    "\11\0\1\4\1\2\1\0\1\4\1\1\22\0\1\4\1\50\1\24"+
+    "\1\53\1\0\1\44\1\45\1\26\1\30\1\31\1\23\1\42\1\37"+
+    "\1\7\1\17\1\22\1\13\7\16\2\6\1\36\1\36\1\40\1\43"+
+    "\1\41\1\52\1\0\4\15\1\20\1\21\5\5\1\12\10\5\1\10"+
+    "\2\5\1\14\2\5\1\34\1\25\1\35\1\46\1\5\1\0\4\15"+
+    "\1\20\1\21\5\5\1\11\10\5\1\10\1\3\1\5\1\27\2\5"+
+    "\1\32\1\47\1\33\1\51\uff81\0";
+
+  /** the tables below, as BinaryTables wrote them to Scanner.tables */
+  private static final BinaryTables ZZ_TABLES = BinaryTables.of(Scanner.class);
 
   /** 
    * Translates characters to character classes
    */
-  private static final char [] ZZ_CMAP = zzUnpackCMap(ZZ_CMAP_PACKED);
+  private static final char [] ZZ_CMAP = ZZ_TABLES.has("ZZ_CMAP", -1386049018) ? ZZ_TABLES.chars("ZZ_CMAP") : zzUnpackCMap(ZZ_CMAP_PACKED);
 
   /** 
    * Translates DFA states to action switch labels.
    */
-  private static final int [] ZZ_ACTION = zzUnpackAction();
+  private static final int [] ZZ_ACTION = ZZ_TABLES.has("ZZ_ACTION", 569379519) ? ZZ_TABLES.ints("ZZ_ACTION") : zzUnpackAction();
 
   private static final String ZZ_ACTION_PACKED_0 =
-    "\1\0\1\1\2\2\1\3\1\2\1\4\1\5\2\3"+
-    "\1\4\1\6\1\3\1\7\1\10\2\1\20\3\1\11"+
-    "\1\12\1\13\1\14\1\15\1\16\1\17\1\20\1\21"+
-    "\1\22\1\23\1\24\1\25\1\26\1\27\1\30\1\31"+
-    "\1\32\1\33\1\34\1\3\3\4\1\35\1\0\1\35"+
-    "\1\36\1\0\1\37\1\40\1\3\2\0\1\35\1\4"+
-    "\2\0\1\3\1\41\1\0\1\42\1\43\1\44\3\0"+
-    "\1\3\1\45\12\3\1\46\20\3\1\47\1\50\1\51"+
-    "\1\52\1\53\1\54\1\55\1\56\1\57\1\60\1\61"+
-    "\1\62\1\63\1\64\2\3\1\4\1\35\1\0\1\3"+
-    "\1\4\1\65\1\3\1\0\1\66\1\0\1\67\17\3"+
-    "\1\70\17\3\1\71\1\72\1\3\1\73\1\74\1\3"+
-    "\1\75\1\76\1\77\1\3\1\100\3\3\1\101\1\3"+
-    "\1\102\14\3\1\103\2\3\1\104\1\105\1\106\2\3"+
-    "\1\107\1\3\1\110\3\3\1\111\3\3\1\112\4\3"+
-    "\1\113\2\3\1\114\1\115\2\3\1\116\1\3\1\117"+
-    "\1\3\1\120\1\3\1\121\1\122\1\123\1\124\1\125"+
-    "\2\3\1\126\2\3\1\127\1\3\1\130\1\131\1\132"+
-    "\1\133";
+    "\3\0\1\1\1\2\1\3\1\4\1\5\1\6\1\4"+
+    "\1\5\1\7\1\10\1\11\2\1\1\12\1\13\1\14"+
+    "\1\15\1\16\1\17\1\20\1\21\1\22\1\23\1\24"+
+    "\1\25\1\26\1\27\1\30\1\31\1\32\1\33\1\34"+
+    "\1\35\3\3\2\36\1\10\1\4\1\10\1\37\1\40"+
+    "\3\5\1\41\1\0\1\41\1\42\1\0\1\43\1\44"+
+    "\2\0\1\41\1\5\2\0\1\45\1\0\1\46\1\47"+
+    "\1\50\3\0\1\51\1\52\1\53\1\54\1\55\1\56"+
+    "\1\57\1\60\1\61\1\62\1\63\1\64\1\65\1\66"+
+    "\1\67\1\3\1\36\1\70\1\71\1\72\1\5\1\41"+
+    "\1\0\1\5\1\73\1\0\1\74\1\0\1\75\1\76"+
+    "\1\45";
 
   private static int [] zzUnpackAction() {
-    int [] result = new int[248];
+    int [] result = new int[101];
     int offset = 0;
     offset = zzUnpackAction(ZZ_ACTION_PACKED_0, offset, result);
     return result;
@@ -99,43 +95,25 @@ public class Scanner implements sym, java_cup.runtime.Scanner {
   /** 
    * Translates a state to a row index in the transition table
    */
-  private static final int [] ZZ_ROWMAP = zzUnpackRowMap();
+  private static final int [] ZZ_ROWMAP = ZZ_TABLES.has("ZZ_ROWMAP", 1345532447) ? ZZ_TABLES.ints("ZZ_ROWMAP") : zzUnpackRowMap();
 
   private static final String ZZ_ROWMAP_PACKED_0 =
-    "\0\0\0\106\0\214\0\106\0\322\0\u0118\0\u015e\0\u01a4"+
-    "\0\u01ea\0\u0230\0\u0276\0\u02bc\0\u0302\0\u0348\0\u038e\0\u03d4"+
-    "\0\u041a\0\u0460\0\u04a6\0\u04ec\0\u0532\0\u0578\0\u05be\0\u0604"+
-    "\0\u064a\0\u0690\0\u06d6\0\u071c\0\u0762\0\u07a8\0\u07ee\0\u0834"+
-    "\0\u087a\0\106\0\106\0\106\0\106\0\106\0\106\0\106"+
-    "\0\106\0\u08c0\0\u0906\0\u094c\0\u0992\0\u09d8\0\u0a1e\0\u0a64"+
-    "\0\u0aaa\0\u0af0\0\106\0\106\0\106\0\u0b36\0\u0b7c\0\u0bc2"+
-    "\0\u0c08\0\u0c4e\0\u0c94\0\106\0\106\0\u0cda\0\106\0\106"+
-    "\0\u0d20\0\u03d4\0\u041a\0\u0d66\0\u0dac\0\u0df2\0\u0e38\0\u0e7e"+
-    "\0\u0ec4\0\u0f0a\0\106\0\106\0\106\0\u0f50\0\u0f96\0\u0fdc"+
-    "\0\u1022\0\322\0\u1068\0\u10ae\0\u10f4\0\u113a\0\u1180\0\u11c6"+
-    "\0\u120c\0\u1252\0\u1298\0\u12de\0\u1324\0\u136a\0\u13b0\0\u13f6"+
-    "\0\u143c\0\u1482\0\u14c8\0\u150e\0\u1554\0\u159a\0\u15e0\0\u1626"+
-    "\0\u166c\0\u16b2\0\u16f8\0\u173e\0\u1784\0\u17ca\0\106\0\u1810"+
-    "\0\106\0\106\0\106\0\106\0\106\0\106\0\106\0\106"+
-    "\0\106\0\106\0\106\0\u1856\0\u189c\0\106\0\u18e2\0\u1928"+
-    "\0\u196e\0\u19b4\0\106\0\u19fa\0\u1a40\0\106\0\u1a86\0\322"+
-    "\0\u1acc\0\u1b12\0\u1b58\0\u1b9e\0\u1be4\0\u1c2a\0\u1c70\0\u1cb6"+
-    "\0\u1cfc\0\u1d42\0\u1d88\0\u1dce\0\u1e14\0\u1e5a\0\u1ea0\0\322"+
-    "\0\u1ee6\0\u1f2c\0\u1f72\0\u1fb8\0\u1ffe\0\u2044\0\u208a\0\u20d0"+
-    "\0\u2116\0\u215c\0\u21a2\0\u21e8\0\u222e\0\u2274\0\u22ba\0\106"+
-    "\0\106\0\u2300\0\322\0\322\0\u2346\0\106\0\322\0\322"+
-    "\0\u238c\0\322\0\u23d2\0\u2418\0\u245e\0\322\0\u24a4\0\322"+
-    "\0\u24ea\0\u2530\0\u2576\0\u25bc\0\u2602\0\u2648\0\u268e\0\u26d4"+
-    "\0\u271a\0\u2760\0\u27a6\0\u27ec\0\322\0\u2832\0\u2878\0\322"+
-    "\0\322\0\322\0\u28be\0\u2904\0\322\0\u294a\0\322\0\u2990"+
-    "\0\u29d6\0\u2a1c\0\322\0\u2a62\0\u2aa8\0\u2aee\0\322\0\u2b34"+
-    "\0\u2b7a\0\u2bc0\0\u2c06\0\322\0\u2c4c\0\u2c92\0\322\0\322"+
-    "\0\u2cd8\0\u2d1e\0\322\0\u2d64\0\322\0\u2daa\0\322\0\u2df0"+
-    "\0\322\0\322\0\322\0\322\0\322\0\u2e36\0\u2e7c\0\322"+
-    "\0\u2ec2\0\u2f08\0\322\0\u2f4e\0\322\0\322\0\322\0\322";
+    "\0\0\0\54\0\130\0\204\0\260\0\334\0\334\0\u0108"+
+    "\0\u0134\0\u0160\0\u018c\0\u01b8\0\u01e4\0\u0210\0\u023c\0\u0268"+
+    "\0\204\0\204\0\204\0\204\0\204\0\204\0\204\0\204"+
+    "\0\u0294\0\u02c0\0\u02ec\0\u0318\0\u0344\0\u0370\0\u039c\0\u03c8"+
+    "\0\u03f4\0\204\0\204\0\204\0\u0420\0\u044c\0\u0478\0\u0478"+
+    "\0\u04a4\0\u04d0\0\u04fc\0\u0528\0\204\0\204\0\u0554\0\u0580"+
+    "\0\u05ac\0\u05d8\0\u0604\0\204\0\204\0\u0630\0\204\0\204"+
+    "\0\u023c\0\u0268\0\u065c\0\u0688\0\u06b4\0\u06e0\0\u070c\0\u0738"+
+    "\0\204\0\204\0\204\0\u0764\0\u0790\0\u07bc\0\u07e8\0\204"+
+    "\0\u0814\0\204\0\204\0\204\0\204\0\204\0\204\0\204"+
+    "\0\204\0\204\0\204\0\204\0\204\0\204\0\204\0\204"+
+    "\0\204\0\204\0\204\0\u0840\0\u086c\0\u0898\0\204\0\u08c4"+
+    "\0\204\0\u08f0\0\204\0\204\0\204";
 
   private static int [] zzUnpackRowMap() {
-    int [] result = new int[248];
+    int [] result = new int[101];
     int offset = 0;
     offset = zzUnpackRowMap(ZZ_ROWMAP_PACKED_0, offset, result);
     return result;
@@ -155,225 +133,66 @@ public class Scanner implements sym, java_cup.runtime.Scanner {
   /** 
    * The transition table of the DFA
    */
-  private static final int [] ZZ_TRANS = zzUnpackTrans();
+  private static final int [] ZZ_TRANS = ZZ_TABLES.has("ZZ_TRANS", 1194717244) ? ZZ_TABLES.ints("ZZ_TRANS") : zzUnpackTrans();
 
   private static final String ZZ_TRANS_PACKED_0 =
-    "\1\2\1\3\2\4\1\5\1\6\1\7\1\10\1\5"+
-    "\1\11\1\12\1\13\2\5\1\7\1\14\1\5\1\15"+
-    "\1\16\1\17\1\20\1\2\1\21\1\5\1\22\1\23"+
-    "\1\24\1\25\1\5\1\26\1\27\1\30\1\31\1\32"+
-    "\1\33\1\34\1\35\4\5\1\36\2\5\1\37\1\5"+
-    "\1\40\2\5\1\41\1\42\1\43\1\44\1\45\1\46"+
-    "\1\47\1\50\1\51\1\52\1\53\1\54\1\55\1\56"+
-    "\1\57\1\60\1\61\1\62\1\63\1\64\1\65\110\0"+
-    "\1\4\107\0\3\5\1\0\7\5\1\0\2\5\5\0"+
-    "\33\5\30\0\3\5\1\0\7\5\1\0\2\5\5\0"+
-    "\5\5\1\66\25\5\32\0\1\7\1\0\1\67\1\70"+
-    "\1\71\1\7\2\0\1\7\1\72\1\73\1\74\14\0"+
-    "\1\73\1\67\1\0\1\74\52\0\1\7\1\75\3\0"+
-    "\1\13\2\0\1\7\1\76\53\0\1\77\1\0\1\100"+
-    "\14\0\3\5\1\0\7\5\1\0\2\5\5\0\5\5"+
-    "\1\101\25\5\30\0\3\5\1\0\7\5\1\0\2\5"+
-    "\2\0\1\102\1\0\1\103\33\5\32\0\1\104\1\0"+
-    "\1\67\1\70\1\71\1\105\1\106\1\0\1\105\1\72"+
-    "\1\73\1\74\5\0\1\106\6\0\1\73\1\67\1\0"+
-    "\1\74\52\0\1\72\4\0\1\72\2\0\1\72\1\107"+
-    "\72\0\3\5\1\0\7\5\1\0\2\5\5\0\17\5"+
-    "\1\110\13\5\46\0\1\111\1\112\51\0\1\113\105\0"+
-    "\1\114\10\0\24\102\1\115\1\116\60\102\1\117\2\0"+
-    "\22\117\1\120\1\0\57\117\4\0\3\5\1\0\7\5"+
-    "\1\0\2\5\5\0\2\5\1\121\7\5\1\122\20\5"+
-    "\30\0\3\5\1\0\7\5\1\0\2\5\5\0\10\5"+
-    "\1\123\22\5\30\0\3\5\1\0\7\5\1\0\2\5"+
-    "\5\0\6\5\1\124\21\5\1\125\2\5\30\0\3\5"+
-    "\1\0\7\5\1\0\2\5\5\0\5\5\1\126\1\127"+
-    "\24\5\30\0\3\5\1\0\7\5\1\0\2\5\5\0"+
-    "\7\5\1\130\23\5\30\0\3\5\1\0\1\5\1\131"+
-    "\5\5\1\0\2\5\5\0\1\132\1\5\1\133\30\5"+
-    "\30\0\3\5\1\0\7\5\1\0\2\5\5\0\2\5"+
-    "\1\134\30\5\30\0\3\5\1\0\7\5\1\0\2\5"+
-    "\5\0\5\5\1\135\1\5\1\136\23\5\30\0\3\5"+
-    "\1\0\1\5\1\137\5\5\1\0\2\5\5\0\5\5"+
-    "\1\140\6\5\1\141\16\5\30\0\3\5\1\0\7\5"+
-    "\1\0\2\5\5\0\1\5\1\142\1\5\1\143\17\5"+
-    "\1\144\3\5\1\145\3\5\30\0\3\5\1\0\7\5"+
-    "\1\0\2\5\5\0\10\5\1\146\22\5\30\0\3\5"+
-    "\1\0\7\5\1\0\2\5\5\0\16\5\1\147\14\5"+
-    "\30\0\3\5\1\0\7\5\1\0\2\5\5\0\5\5"+
-    "\1\150\6\5\1\151\6\5\1\152\7\5\30\0\3\5"+
-    "\1\0\7\5\1\0\2\5\5\0\5\5\1\153\25\5"+
-    "\30\0\3\5\1\0\7\5\1\0\2\5\5\0\23\5"+
-    "\1\154\7\5\30\0\3\5\1\0\1\155\6\5\1\0"+
-    "\2\5\5\0\33\5\116\0\1\156\2\0\1\157\103\0"+
-    "\1\160\1\0\1\161\16\0\1\7\4\0\1\13\2\0"+
-    "\1\7\1\76\54\0\1\162\1\163\105\0\1\164\105\0"+
-    "\1\165\105\0\1\166\1\0\1\167\103\0\1\170\105\0"+
-    "\1\171\3\0\1\172\101\0\1\173\14\0\3\5\1\0"+
-    "\1\5\1\174\5\5\1\0\2\5\5\0\1\5\1\175"+
-    "\31\5\35\0\1\70\1\71\104\0\1\176\106\0\1\176"+
-    "\101\0\1\72\2\0\2\74\1\72\2\0\1\72\1\0"+
-    "\1\73\1\74\14\0\1\73\2\0\1\74\52\0\1\177"+
-    "\1\200\3\0\1\177\2\0\1\177\55\0\1\200\17\0"+
-    "\1\72\4\0\1\72\2\0\1\72\73\0\3\5\1\0"+
-    "\7\5\1\0\2\5\5\0\2\5\1\201\30\5\32\0"+
-    "\1\104\2\0\2\74\1\104\2\0\1\104\1\72\1\73"+
-    "\1\74\14\0\1\73\2\0\1\74\52\0\1\104\1\0"+
-    "\1\67\1\70\1\71\1\105\2\0\1\105\1\72\1\73"+
-    "\1\74\14\0\1\73\1\67\1\0\1\74\52\0\1\202"+
-    "\4\0\1\202\1\0\2\202\1\0\2\202\11\0\1\202"+
-    "\2\0\1\202\1\0\2\202\1\0\1\202\2\0\1\202"+
-    "\2\0\1\202\53\0\1\203\72\0\3\5\1\0\2\5"+
-    "\1\204\4\5\1\0\2\5\5\0\33\5\24\0\1\111"+
-    "\2\0\103\111\23\112\1\205\62\112\2\102\1\0\103\102"+
-    "\1\117\2\0\22\117\1\120\1\206\60\117\2\0\24\117"+
-    "\1\207\56\117\4\0\3\5\1\0\7\5\1\0\2\5"+
-    "\5\0\3\5\1\210\27\5\30\0\3\5\1\0\1\5"+
-    "\1\211\5\5\1\0\2\5\5\0\33\5\30\0\3\5"+
-    "\1\0\7\5\1\0\2\5\5\0\10\5\1\212\22\5"+
-    "\30\0\3\5\1\0\7\5\1\0\2\5\5\0\31\5"+
-    "\1\213\1\5\30\0\3\5\1\0\7\5\1\0\2\5"+
-    "\5\0\5\5\1\214\25\5\30\0\3\5\1\0\7\5"+
-    "\1\0\2\5\5\0\7\5\1\215\23\5\30\0\3\5"+
-    "\1\0\7\5\1\0\2\5\5\0\3\5\1\216\21\5"+
-    "\1\217\5\5\30\0\3\5\1\0\7\5\1\0\2\5"+
-    "\5\0\13\5\1\220\17\5\30\0\3\5\1\0\7\5"+
-    "\1\0\2\5\5\0\3\5\1\221\27\5\30\0\3\5"+
-    "\1\0\7\5\1\0\2\5\5\0\10\5\1\222\22\5"+
-    "\30\0\3\5\1\0\7\5\1\0\2\5\5\0\1\5"+
-    "\1\223\11\5\1\224\17\5\30\0\3\5\1\0\7\5"+
-    "\1\0\2\5\5\0\10\5\1\225\22\5\30\0\3\5"+
-    "\1\0\7\5\1\0\2\5\5\0\12\5\1\226\20\5"+
-    "\30\0\3\5\1\0\7\5\1\0\2\5\5\0\5\5"+
-    "\1\227\25\5\30\0\3\5\1\0\7\5\1\0\2\5"+
-    "\5\0\6\5\1\230\24\5\30\0\3\5\1\0\1\5"+
-    "\1\231\5\5\1\0\2\5\5\0\33\5\30\0\3\5"+
-    "\1\0\7\5\1\0\2\5\5\0\25\5\1\232\1\233"+
-    "\4\5\30\0\3\5\1\0\7\5\1\0\2\5\5\0"+
-    "\6\5\1\234\5\5\1\235\16\5\30\0\3\5\1\0"+
-    "\7\5\1\0\2\5\5\0\5\5\1\236\25\5\30\0"+
-    "\3\5\1\0\7\5\1\0\2\5\5\0\1\5\1\237"+
-    "\31\5\30\0\3\5\1\0\7\5\1\0\2\5\5\0"+
-    "\3\5\1\240\27\5\30\0\3\5\1\0\1\241\6\5"+
-    "\1\0\2\5\5\0\33\5\30\0\3\5\1\0\7\5"+
-    "\1\0\2\5\5\0\2\5\1\242\30\5\30\0\3\5"+
-    "\1\0\7\5\1\0\2\5\5\0\13\5\1\243\17\5"+
-    "\30\0\3\5\1\0\7\5\1\0\2\5\5\0\14\5"+
-    "\1\244\16\5\30\0\3\5\1\0\7\5\1\0\2\5"+
-    "\5\0\3\5\1\245\27\5\30\0\3\5\1\0\7\5"+
-    "\1\0\2\5\5\0\1\5\1\246\31\5\30\0\3\5"+
-    "\1\0\2\5\1\247\4\5\1\0\2\5\5\0\33\5"+
-    "\121\0\1\250\105\0\1\251\14\0\3\5\1\0\7\5"+
-    "\1\0\2\5\5\0\14\5\1\252\16\5\30\0\3\5"+
-    "\1\0\7\5\1\0\2\5\5\0\11\5\1\253\21\5"+
-    "\32\0\1\177\2\0\2\74\1\177\2\0\1\177\2\0"+
-    "\1\74\17\0\1\74\52\0\1\177\4\0\1\177\2\0"+
-    "\1\177\73\0\3\5\1\0\7\5\1\0\2\5\5\0"+
-    "\25\5\1\254\5\5\32\0\1\202\1\0\1\67\1\70"+
-    "\1\71\1\202\1\0\2\202\1\0\2\202\11\0\1\202"+
-    "\2\0\1\202\1\67\2\202\1\0\1\202\2\0\1\202"+
-    "\2\0\1\202\40\0\3\5\1\0\7\5\1\0\2\5"+
-    "\5\0\20\5\1\255\12\5\24\0\22\112\1\256\1\205"+
-    "\62\112\6\0\1\117\4\0\1\117\1\0\2\117\1\0"+
-    "\2\117\11\0\1\117\2\0\1\117\1\0\2\117\1\0"+
-    "\1\117\2\0\1\117\2\0\1\117\40\0\3\5\1\0"+
-    "\1\5\1\257\5\5\1\0\2\5\5\0\33\5\30\0"+
-    "\3\5\1\0\7\5\1\0\2\5\5\0\7\5\1\260"+
-    "\23\5\30\0\3\5\1\0\7\5\1\0\2\5\5\0"+
-    "\7\5\1\261\23\5\30\0\3\5\1\0\1\5\1\262"+
-    "\5\5\1\0\2\5\5\0\33\5\30\0\3\5\1\0"+
-    "\7\5\1\0\2\5\5\0\14\5\1\263\16\5\30\0"+
-    "\3\5\1\0\7\5\1\0\2\5\5\0\10\5\1\264"+
-    "\22\5\30\0\3\5\1\0\7\5\1\0\2\5\5\0"+
-    "\1\5\1\265\31\5\30\0\3\5\1\0\7\5\1\0"+
-    "\2\5\5\0\7\5\1\266\23\5\30\0\3\5\1\0"+
-    "\7\5\1\0\2\5\5\0\7\5\1\267\23\5\30\0"+
-    "\3\5\1\0\7\5\1\0\2\5\5\0\24\5\1\270"+
-    "\6\5\30\0\3\5\1\0\7\5\1\0\2\5\5\0"+
-    "\5\5\1\271\25\5\30\0\3\5\1\0\7\5\1\0"+
-    "\2\5\5\0\1\5\1\272\31\5\30\0\3\5\1\0"+
-    "\7\5\1\0\2\5\5\0\4\5\1\273\26\5\30\0"+
-    "\3\5\1\0\7\5\1\0\2\5\5\0\14\5\1\274"+
-    "\16\5\30\0\3\5\1\0\7\5\1\0\2\5\5\0"+
-    "\14\5\1\275\16\5\30\0\3\5\1\0\7\5\1\0"+
-    "\2\5\5\0\13\5\1\276\17\5\30\0\3\5\1\0"+
-    "\7\5\1\0\2\5\5\0\2\5\1\277\30\5\30\0"+
-    "\3\5\1\0\7\5\1\0\2\5\5\0\7\5\1\300"+
-    "\23\5\30\0\3\5\1\0\7\5\1\0\2\5\5\0"+
-    "\10\5\1\301\22\5\30\0\3\5\1\0\7\5\1\0"+
-    "\2\5\5\0\3\5\1\302\27\5\30\0\3\5\1\0"+
-    "\7\5\1\0\2\5\5\0\6\5\1\303\24\5\30\0"+
-    "\3\5\1\0\7\5\1\0\2\5\5\0\3\5\1\304"+
-    "\27\5\30\0\3\5\1\0\7\5\1\0\2\5\5\0"+
-    "\5\5\1\305\25\5\30\0\3\5\1\0\7\5\1\0"+
-    "\1\260\1\5\5\0\33\5\30\0\3\5\1\0\7\5"+
-    "\1\0\2\5\5\0\3\5\1\306\7\5\1\307\17\5"+
-    "\30\0\3\5\1\0\7\5\1\0\2\5\5\0\7\5"+
-    "\1\310\23\5\30\0\3\5\1\0\7\5\1\0\2\5"+
-    "\5\0\6\5\1\311\24\5\30\0\3\5\1\0\7\5"+
-    "\1\0\2\5\5\0\5\5\1\312\25\5\30\0\3\5"+
-    "\1\0\1\5\1\313\5\5\1\0\2\5\5\0\33\5"+
-    "\30\0\3\5\1\0\2\5\1\257\4\5\1\0\2\5"+
-    "\5\0\33\5\30\0\3\5\1\0\7\5\1\0\2\5"+
-    "\5\0\3\5\1\314\27\5\30\0\3\5\1\0\7\5"+
-    "\1\0\1\315\1\5\5\0\33\5\30\0\3\5\1\0"+
-    "\7\5\1\0\2\5\5\0\11\5\1\316\21\5\30\0"+
-    "\3\5\1\0\7\5\1\0\2\5\5\0\21\5\1\317"+
-    "\11\5\30\0\3\5\1\0\7\5\1\0\2\5\5\0"+
-    "\6\5\1\320\24\5\30\0\3\5\1\0\7\5\1\0"+
-    "\2\5\5\0\13\5\1\321\17\5\30\0\3\5\1\0"+
-    "\7\5\1\0\2\5\5\0\6\5\1\322\24\5\30\0"+
-    "\3\5\1\0\7\5\1\0\2\5\5\0\2\5\1\323"+
-    "\30\5\30\0\3\5\1\0\7\5\1\0\2\5\5\0"+
-    "\25\5\1\324\5\5\30\0\3\5\1\0\1\5\1\325"+
-    "\5\5\1\0\2\5\5\0\33\5\30\0\3\5\1\0"+
-    "\7\5\1\0\2\5\5\0\10\5\1\326\22\5\30\0"+
-    "\3\5\1\0\7\5\1\0\2\5\5\0\3\5\1\327"+
-    "\27\5\30\0\3\5\1\0\7\5\1\0\2\5\5\0"+
-    "\7\5\1\315\23\5\30\0\3\5\1\0\7\5\1\0"+
-    "\2\5\5\0\7\5\1\330\23\5\30\0\3\5\1\0"+
-    "\7\5\1\0\2\5\5\0\5\5\1\331\25\5\30\0"+
-    "\3\5\1\0\7\5\1\0\2\5\5\0\22\5\1\332"+
-    "\10\5\30\0\3\5\1\0\7\5\1\0\2\5\5\0"+
-    "\1\5\1\333\31\5\30\0\3\5\1\0\7\5\1\0"+
-    "\2\5\5\0\3\5\1\334\27\5\30\0\3\5\1\0"+
-    "\7\5\1\0\2\5\5\0\22\5\1\335\10\5\30\0"+
-    "\3\5\1\0\7\5\1\0\2\5\5\0\1\5\1\336"+
-    "\31\5\30\0\3\5\1\0\7\5\1\0\2\5\5\0"+
-    "\3\5\1\337\27\5\30\0\3\5\1\0\7\5\1\0"+
-    "\2\5\5\0\7\5\1\340\23\5\30\0\3\5\1\0"+
-    "\7\5\1\0\2\5\5\0\1\5\1\341\31\5\30\0"+
-    "\3\5\1\0\7\5\1\0\2\5\5\0\7\5\1\342"+
-    "\23\5\30\0\3\5\1\0\7\5\1\0\2\5\5\0"+
-    "\2\5\1\343\30\5\30\0\3\5\1\0\7\5\1\0"+
-    "\2\5\5\0\3\5\1\344\27\5\30\0\3\5\1\0"+
-    "\7\5\1\0\2\5\5\0\2\5\1\345\30\5\30\0"+
-    "\3\5\1\0\7\5\1\0\2\5\5\0\2\5\1\346"+
-    "\30\5\30\0\3\5\1\0\7\5\1\0\2\5\5\0"+
-    "\7\5\1\347\23\5\30\0\3\5\1\0\1\5\1\350"+
-    "\5\5\1\0\2\5\5\0\33\5\30\0\3\5\1\0"+
-    "\7\5\1\0\2\5\5\0\11\5\1\351\21\5\30\0"+
-    "\3\5\1\0\7\5\1\0\2\5\5\0\12\5\1\352"+
-    "\20\5\30\0\3\5\1\0\7\5\1\0\2\5\5\0"+
-    "\3\5\1\353\27\5\30\0\3\5\1\0\7\5\1\0"+
-    "\2\5\5\0\22\5\1\354\10\5\30\0\3\5\1\0"+
-    "\7\5\1\0\2\5\5\0\23\5\1\355\7\5\30\0"+
-    "\3\5\1\0\7\5\1\0\2\5\5\0\2\5\1\356"+
-    "\30\5\30\0\3\5\1\0\1\5\1\357\5\5\1\0"+
-    "\2\5\5\0\33\5\30\0\3\5\1\0\7\5\1\0"+
-    "\2\5\5\0\12\5\1\360\20\5\30\0\3\5\1\0"+
-    "\7\5\1\0\2\5\5\0\7\5\1\361\23\5\30\0"+
-    "\3\5\1\0\7\5\1\0\2\5\5\0\7\5\1\362"+
-    "\23\5\30\0\3\5\1\0\7\5\1\0\2\5\5\0"+
-    "\3\5\1\363\27\5\30\0\3\5\1\0\7\5\1\0"+
-    "\2\5\5\0\10\5\1\364\22\5\30\0\3\5\1\0"+
-    "\7\5\1\0\2\5\5\0\7\5\1\365\23\5\30\0"+
-    "\3\5\1\0\7\5\1\0\2\5\5\0\6\5\1\366"+
-    "\24\5\30\0\3\5\1\0\7\5\1\0\2\5\5\0"+
-    "\11\5\1\367\21\5\30\0\3\5\1\0\7\5\1\0"+
-    "\2\5\5\0\7\5\1\370\23\5\24\0";
+    "\1\4\2\5\1\6\1\5\1\7\1\10\1\11\2\7"+
+    "\1\12\1\13\2\7\1\10\1\14\2\7\1\15\1\16"+
+    "\1\17\1\4\1\20\1\7\1\21\1\22\1\23\1\24"+
+    "\1\25\1\26\1\27\1\30\1\31\1\32\1\33\1\34"+
+    "\1\35\1\36\1\37\1\40\1\41\1\42\1\43\1\44"+
+    "\1\4\1\45\1\46\1\47\1\46\1\50\1\10\1\11"+
+    "\2\50\1\51\1\13\2\50\1\10\1\14\2\50\1\52"+
+    "\1\16\1\17\1\4\1\20\1\50\1\21\1\22\1\23"+
+    "\1\24\1\25\1\26\1\27\1\30\1\31\1\32\1\33"+
+    "\1\34\1\35\1\36\1\37\1\40\1\41\1\42\1\43"+
+    "\1\44\1\4\2\5\1\6\1\5\1\7\1\10\1\11"+
+    "\2\7\1\53\1\13\2\7\1\10\1\14\2\7\1\54"+
+    "\1\16\1\55\1\4\1\56\1\7\1\21\1\22\1\23"+
+    "\1\24\1\25\1\26\1\27\1\30\1\31\1\32\1\33"+
+    "\1\34\1\35\1\36\1\37\1\40\1\41\1\42\1\43"+
+    "\1\44\55\0\2\5\1\0\1\5\52\0\1\7\1\0"+
+    "\2\7\1\0\7\7\1\0\2\7\5\0\1\7\32\0"+
+    "\1\10\1\0\1\57\1\60\1\61\1\10\2\0\1\10"+
+    "\1\62\1\63\1\64\40\0\1\10\1\65\3\0\1\13"+
+    "\2\0\1\10\1\66\21\0\1\67\1\0\1\70\13\0"+
+    "\1\7\1\0\2\7\1\0\7\7\1\0\2\7\2\0"+
+    "\1\71\1\0\1\72\1\7\32\0\1\73\1\0\1\57"+
+    "\1\60\1\61\1\74\1\75\1\0\1\74\1\62\1\63"+
+    "\1\64\5\0\1\75\32\0\1\62\4\0\1\62\2\0"+
+    "\1\62\1\76\56\0\1\77\1\100\17\0\1\101\53\0"+
+    "\1\102\10\0\24\71\1\103\1\104\26\71\1\105\2\0"+
+    "\22\105\1\106\1\0\25\105\40\0\1\107\2\0\1\110"+
+    "\51\0\1\111\1\0\1\112\16\0\1\10\4\0\1\13"+
+    "\2\0\1\10\1\66\22\0\1\113\1\114\53\0\1\115"+
+    "\53\0\1\116\53\0\1\117\1\0\1\120\51\0\1\121"+
+    "\53\0\1\122\3\0\1\123\47\0\1\124\11\0\1\125"+
+    "\1\126\1\0\1\125\50\0\2\125\1\0\1\125\52\0"+
+    "\1\127\1\0\2\127\1\0\7\127\1\0\2\127\5\0"+
+    "\1\127\27\0\1\127\1\0\2\127\1\0\7\127\1\0"+
+    "\2\127\2\0\1\71\1\0\1\72\1\127\46\0\1\77"+
+    "\1\130\17\0\1\101\13\0\1\7\1\0\2\7\1\0"+
+    "\7\7\1\0\2\7\2\0\1\55\1\0\1\56\1\7"+
+    "\46\0\1\131\1\132\17\0\1\101\21\0\1\60\1\61"+
+    "\52\0\1\133\54\0\1\133\47\0\1\62\2\0\2\64"+
+    "\1\62\2\0\1\62\1\0\1\63\1\64\40\0\1\134"+
+    "\1\135\3\0\1\134\2\0\1\134\23\0\1\135\17\0"+
+    "\1\62\4\0\1\62\2\0\1\62\43\0\1\73\2\0"+
+    "\2\64\1\73\2\0\1\73\1\62\1\63\1\64\40\0"+
+    "\1\73\1\0\1\57\1\60\1\61\1\74\2\0\1\74"+
+    "\1\62\1\63\1\64\40\0\1\136\4\0\1\136\1\0"+
+    "\2\136\1\0\2\136\51\0\1\137\34\0\1\77\2\0"+
+    "\51\77\23\100\1\140\30\100\2\71\1\0\51\71\1\105"+
+    "\2\0\22\105\1\106\1\141\26\105\2\0\24\105\1\142"+
+    "\24\105\43\0\1\143\53\0\1\144\16\0\1\134\2\0"+
+    "\2\64\1\134\2\0\1\134\2\0\1\64\40\0\1\134"+
+    "\4\0\1\134\2\0\1\134\43\0\1\136\1\0\1\57"+
+    "\1\60\1\61\1\136\1\0\2\136\1\0\2\136\32\0"+
+    "\22\100\1\145\1\140\30\100\6\0\1\105\4\0\1\105"+
+    "\1\0\2\105\1\0\2\105\32\0";
 
   private static int [] zzUnpackTrans() {
-    int [] result = new int[12180];
+    int [] result = new int[2332];
     int offset = 0;
     offset = zzUnpackTrans(ZZ_TRANS_PACKED_0, offset, result);
     return result;
@@ -408,17 +227,16 @@ public class Scanner implements sym, java_cup.runtime.Scanner {
   /**
    * ZZ_ATTRIBUTE[aState] contains the attributes of state <code>aState</code>
    */
-  private static final int [] ZZ_ATTRIBUTE = zzUnpackAttribute();
+  private static final int [] ZZ_ATTRIBUTE = ZZ_TABLES.has("ZZ_ATTRIBUTE", -1859952438) ? ZZ_TABLES.ints("ZZ_ATTRIBUTE") : zzUnpackAttribute();
 
   private static final String ZZ_ATTRIBUTE_PACKED_0 =
-    "\1\0\1\11\1\1\1\11\35\1\10\11\11\1\3\11"+
-    "\5\1\1\0\2\11\1\0\2\11\1\1\2\0\2\1"+
-    "\2\0\2\1\1\0\3\11\3\0\36\1\1\11\1\1"+
-    "\13\11\2\1\1\11\1\1\1\0\2\1\1\11\1\1"+
-    "\1\0\1\11\1\0\40\1\2\11\4\1\1\11\112\1";
+    "\3\0\1\11\14\1\10\11\11\1\3\11\10\1\2\11"+
+    "\4\1\1\0\2\11\1\0\2\11\2\0\2\1\2\0"+
+    "\1\1\1\0\3\11\3\0\1\1\1\11\1\1\22\11"+
+    "\1\1\1\0\1\1\1\11\1\0\1\11\1\0\3\11";
 
   private static int [] zzUnpackAttribute() {
-    int [] result = new int[248];
+    int [] result = new int[101];
     int offset = 0;
     offset = zzUnpackAttribute(ZZ_ATTRIBUTE_PACKED_0, offset, result);
     return result;
@@ -488,18 +306,479 @@ public class Scanner implements sym, java_cup.runtime.Scanner {
   /* user code: */
   StringBuffer string = new StringBuffer();
 
+  /** the whole input when the scanner owns it, null when reading a Reader */
+  private char[] zzSource;
+
+  /** where identifier names are interned */
+  private NameTable names = NameTable.global;
+
+  /** comments seen so far, created with the first one */
+  private Trivia trivia;
+
+  /** Returns the comments seen so far. */
+  public Trivia getTrivia() {
+      if (trivia == null)
+          trivia = new Trivia(zzSource);
+      return trivia;
+  }
+
+  /** Makes the scanner record comments in <tt>trivia</tt>, which covers its input. */
+  void setTrivia(Trivia trivia) {
+      this.trivia = trivia;
+  }
+
+  /**
+   * line starts of the input; built from zzSource on demand, or fed by
+   * track() as a Reader is scanned
+   */
+  private LineIndex lines;
+
+  /** Returns the index that maps offsets of this input to lines. */
+  public LineIndex getLineIndex() {
+      if (lines == null)
+          lines = new LineIndex();
+      return lines;
+  }
+
+  /** Makes the scanner report lines from <tt>lines</tt>, which covers its input. */
+  void setLineIndex(LineIndex lines) {
+      this.lines = lines;
+  }
+
+  /** Records the line ends in the matched text when there is no source to scan later. */
+  private void track() {
+      if (zzSource == null)
+          getLineIndex().scan(zzBuffer, zzStartRead, yylength(), yychar);
+  }
+
+  /** skips runs in state RUNS */
+  private CharRuns runs;
+
+  /**
+   * Makes the scanner skip blanks, identifier characters and comment
+   * bodies with <tt>runs</tt> instead of the DFA, or stop doing so when
+   * null. The tokens are the same either way. Only a scanner over a
+   * char[] source can skip; others keep matching runs in the DFA.
+   */
+  public void setCharRuns(CharRuns runs) {
+      if (zzSource == null)
+          return;
+      this.runs = runs;
+      yybegin(runs == null ? YYINITIAL : RUNS);
+  }
+
+  /**
+   * the most chars of one comment or literal a scanner reading a Reader
+   * keeps in its buffer, 0 for no limit
+   */
+  private int tokenLimit;
+
+  /**
+   * Bounds the memory a scanner reading a Reader spends on one comment or
+   * string or char literal to about <tt>limit</tt> chars, 0 for no bound.
+   *
+   * Comments and literals are then scanned by hand, refilling the buffer as
+   * they go. Up to the limit the tokens are the same as without one.
+   * Longer comments are skipped and longer literals are summarised: the
+   * text before the limit is decoded into the value, with a warning, and
+   * the rest is dropped once seen. What the DFA would lex again is gone
+   * then: a longer comment that does not end is reported and skipped to
+   * the end of input, and a longer literal that does not end is reported
+   * and skipped, as one ILLEGAL token, to where it stopped being one: the
+   * end of input, an escaped line end or, for a char literal, a line end.
+   */
+  public void setTokenLimit(int limit) {
+      if (zzSource != null)
+          return;
+      tokenLimit = limit;
+      yybegin(limit > 0 ? STREAM : YYINITIAL);
+  }
+
+  /**
+   * Reads more input for a comment or literal scanned by hand up to
+   * zzMarkedPos, first dropping what was scanned when <tt>drop</tt> is
+   * set. Returns false at the end of the input. Positions in the buffer
+   * move: the scan goes on from zzMarkedPos.
+   */
+  private boolean more(boolean drop) throws IOException {
+      if (drop) {
+          int n = zzMarkedPos - zzStartRead;
+          getLineIndex().scan(zzBuffer, zzStartRead, n, yychar);
+          // the next token starts from yychar + yylength(), as always
+          yychar += n;
+          zzStartRead = zzMarkedPos;
+      }
+      // as the DFA does: all that is buffered was seen, so a full buffer grows
+      zzCurrentPos = zzEndRead;
+      return !zzRefill();
+  }
+
+  /** Has the comment or literal being scanned by hand outgrown the limit? */
+  private boolean oversized() {
+      return zzMarkedPos - zzStartRead > tokenLimit;
+  }
+
+  /**
+   * Skips the block comment whose "/*" was just matched. Returns DIVIDE
+   * when it does not end, like {CommentBlock} failing, or null.
+   */
+  private Symbol streamComment() throws IOException {
+      int start = yychar;
+      int i = zzMarkedPos;
+      while (true) {
+          for (int end = zzEndRead; i + 1 < end; ++i) {
+              if (zzBuffer[i] == '*' && zzBuffer[i + 1] == '/') {
+                  zzMarkedPos = i + 2;
+                  track();
+                  getTrivia().add(start, yychar - start + yylength());
+                  return null;
+              }
+          }
+          zzMarkedPos = i;
+          boolean more = more(oversized());
+          i = zzMarkedPos;
+          if (!more)
+              break;
+      }
+
+      zzMarkedPos = zzEndRead;
+      if (yychar == start) {
+          yypushback(yylength() - 1);
+          return symbol(DIVIDE);
+      }
+      track();
+      Errors.warn(getLineIndex(), start, "Unterminated comment skipped");
+      getTrivia().add(start, yychar - start + yylength());
+      return null;
+  }
+
+  /** Skips the line comment whose "//" was just matched. */
+  private void streamLineComment() throws IOException {
+      int start = yychar;
+      int i = zzMarkedPos;
+      while (true) {
+          int end = zzEndRead;
+          while (i < end && zzBuffer[i] != '\r' && zzBuffer[i] != '\n')
+              i++;
+          zzMarkedPos = i;
+          if (i < end)
+              break;
+          boolean more = more(oversized());
+          i = zzMarkedPos;
+          if (!more)
+              break;
+      }
+      track();
+      getTrivia().add(start, yychar - start + yylength());
+  }
+
+  /**
+   * Scans the {StringLiteral} or {CharLiteral} whose opening quote was just
+   * matched, as the DFA would.
+   */
+  private Symbol streamLiteral(int kind) throws IOException {
+      boolean string = kind == STRINGLITERAL;
+      char quote = string ? '"' : '\'';
+      int start = yychar;
+      int quoteOffset = zzBuffer[zzStartRead] == 'L' ? start + 1 : start;
+      Object summary = null;
+      boolean empty = true;
+      int i = zzMarkedPos;
+      scan:
+      while (true) {
+          int end = zzEndRead;
+          // stop before an escape the buffer cuts, to read it whole
+          while (i < end) {
+              char c = zzBuffer[i];
+              if (c == quote) {
+                  if (empty && !string)
+                      break scan;
+                  zzMarkedPos = i + 1;
+                  track();
+                  if (summary == null)
+                      return symbol(kind, string ? stringLiteral() : charLiteral());
+                  Errors.warn(getLineIndex(), start, (string ? "String literal" : "Character constant")
+                          + " longer than " + tokenLimit + " characters truncated");
+                  return symbol(kind, start, yychar - start + yylength(), summary);
+              }
+              if (c == '\\') {
+                  if (i + 2 > end || (!string && i + 3 > end && zzBuffer[i + 1] == 'x'))
+                      break;
+                  char escaped = zzBuffer[i + 1];
+                  if (escaped == '\n' || !string && (escaped == '\r'
+                          || escaped == 'x' && Character.digit(zzBuffer[i + 2], 16) < 0))
+                      break scan;
+                  i += 2;
+              } else if (!string && (c == '\r' || c == '\n')) {
+                  break scan;
+              } else {
+                  i++;
+              }
+              empty = false;
+          }
+
+          zzMarkedPos = i;
+          if (summary == null && oversized())
+              summary = string ? literals.stringPrefix(zzBuffer, zzStartRead, i)
+                      : literals.charPrefix(zzBuffer, zzStartRead, i, getLineIndex(), start);
+          boolean more = more(summary != null);
+          i = zzMarkedPos;
+          if (!more)
+              break;
+      }
+
+      // the text of a longer literal was dropped as it was read, and the
+      // tokens the DFA would find after the quote with it: like a comment,
+      // the literal is reported and skipped to where it stopped
+      if (summary != null) {
+          track();
+          Errors.fatal(getLineIndex(), quoteOffset, "Unterminated " + (string ? "string literal" : "character constant")
+                  + " longer than " + tokenLimit + " characters skipped");
+          return symbol(ILLEGAL, start, yychar - start + yylength(), null);
+      }
+      // no literal: "L" is an identifier and the quote an illegal character
+      if (yychar == start && quoteOffset > start) {
+          zzMarkedPos = zzStartRead + 1;
+          return identifier();
+      }
+      // the quote is an illegal character, the text after it is lexed again
+      Errors.fatal(getLineIndex(), quoteOffset, "Illegal character \"" + quote + "\"");
+      if (yychar == start)
+          zzMarkedPos = zzStartRead + quoteOffset - start + 1;
+      return symbol(ILLEGAL, quoteOffset, 1, null);
+  }
+
+  /** Returns the keyword or ID symbol for the matched identifier. */
+  private Symbol identifier() {
+      int keyword = Keywords.lookup(zzBuffer, zzStartRead, yylength());
+      if (keyword >= 0)
+          return symbol(keyword);
+      if (recognizeOnly)
+          return symbol(ID, null);
+      return symbol(ID, names.intern(zzBuffer, zzStartRead, yylength()));
+  }
+
+  /** are names left uninterned and literals other than strings undecoded? */
+  private boolean recognizeOnly;
+
+  public void setRecognizeOnly(boolean recognizeOnly) {
+      this.recognizeOnly = recognizeOnly;
+  }
+
+  /** Makes the scanner intern identifiers into <tt>names</tt>. */
+  public void setNameTable(NameTable names) {
+      this.names = names;
+  }
+
+  /** the buffer tokenize() is filling, null while returning symbols */
+  private TokenBuffer zzTokens;
+
+  /** what symbol() returns after appending to zzTokens */
+  private static final Symbol BUFFERED = new Symbol(-1);
+
   private Symbol symbol(int type) {
-       return new MySymbol(type, yyline+1, yycolumn+1, yytext());
+       if (zzTokens != null) {
+         zzTokens.add(type, yychar, yylength(), null);
+         return BUFFERED;
+       }
+       return new MySymbol(type, getLineIndex(), zzSource, yychar, yychar+yylength());
     }
 
   private Symbol symbol(int type, Object value) {
-    return new MySymbol(type, yyline+1, yycolumn+1, value);
+    return symbol(type, yychar, yylength(), value);
+  }
+
+  private Symbol symbol(int type, int start, int length, Object value) {
+    if (zzTokens != null) {
+      zzTokens.add(type, start, length, value);
+      return BUFFERED;
+    }
+    return new MySymbol(type, getLineIndex(), start, start+length, value);
+  }
+
+  /**
+   * Scans the rest of the input into <tt>tokens</tt>, EOF token included,
+   * without creating a symbol per token.
+   */
+  public TokenBuffer tokenize(TokenBuffer tokens) throws IOException {
+      tokens.setSource(zzSource);
+      tokens.setLineIndex(getLineIndex());
+      zzTokens = tokens;
+      try {
+          while (next_token() == BUFFERED && tokens.getKind(tokens.size() - 1) != EOF)
+              ;
+      } finally {
+          zzTokens = null;
+      }
+      return tokens;
+  }
+
+  /**
+   * Appends the next token to <tt>tokens</tt>. Returns false once the
+   * token appended is EOF.
+   */
+  public boolean tokenizeNext(TokenBuffer tokens) throws IOException {
+      zzTokens = tokens;
+      try {
+          next_token();
+      } finally {
+          zzTokens = null;
+      }
+      return tokens.getKind(tokens.size() - 1) != EOF;
   }
 
   public String getTokName(int token) {
       return getTokenName(token);
   }
 
+  /**
+   * Creates a scanner over the whole content of a file.
+   *
+   * The file is read and decoded in one shot into a buffer of the exact
+   * size, so the scanner never refills or compacts its buffer while lexing,
+   * and skips runs with the best CharRuns available.
+   */
+  public static Scanner fromFile(String fileName) throws IOException {
+      char[] source = readFile(fileName);
+      Scanner scanner = new Scanner(source, 0, source.length);
+      scanner.setCharRuns(CharRuns.get());
+      return scanner;
+  }
+
+  /**
+   * Creates a scanner over <tt>length</tt> characters of <tt>source</tt>
+   * starting at <tt>offset</tt>. The array is used as the scanner buffer
+   * directly and must not be modified while the scanner is in use.
+   */
+  public Scanner(char[] source, int offset, int length) {
+      this((Reader) null);
+      setSource(source, offset, length);
+  }
+
+  private void setSource(char[] source, int offset, int length) {
+      zzBuffer = zzSource = source;
+      zzStartRead = zzCurrentPos = zzMarkedPos = yychar = offset;
+      zzEndRead = offset + length;
+      zzAtEOF = true;
+      lines = new LineIndex(source, offset, length);
+  }
+
+  /**
+   * Makes the scanner go on from <tt>offset</tt> of its char[] source and
+   * stop at <tt>end</tt>, as if the text in between were all of its input.
+   * The Preprocessor lexes a directive line this way, then jumps past it.
+   */
+  void restart(int offset, int end) {
+      zzStartRead = zzCurrentPos = zzMarkedPos = yychar = offset;
+      zzEndRead = end;
+      zzAtEOF = true;
+      zzEOFDone = false;
+  }
+
+  /** the buffer for Reader input, kept while the scanner lexes a char[] */
+  private char[] readerBuffer;
+
+  /**
+   * Makes the scanner lex <tt>length</tt> characters of <tt>source</tt>
+   * from <tt>offset</tt>, as a new Scanner(source, offset, length) would.
+   * The name table and CharRuns are kept, and so is the buffer for Reader
+   * input.
+   */
+  public void reset(char[] source, int offset, int length) {
+      if (zzSource == null)
+          readerBuffer = zzBuffer;
+      yyreset(null);
+      setSource(source, offset, length);
+      trivia = null;
+      if (runs != null)
+          yybegin(RUNS);
+  }
+
+  /**
+   * Makes the scanner read <tt>reader</tt> from the start, as a new
+   * Scanner(reader) would, but without allocating: the buffer, grown or
+   * not, is reused. The name table and token limit are kept.
+   */
+  public void reset(Reader reader) {
+      if (zzSource != null) {
+          zzBuffer = readerBuffer != null ? readerBuffer : new char[ZZ_BUFFERSIZE];
+          readerBuffer = null;
+          zzSource = null;
+      }
+      yyreset(reader);
+      lines = null;
+      trivia = null;
+      if (tokenLimit > 0)
+          yybegin(STREAM);
+  }
+
+  /* Literal values are decoded straight from zzBuffer, without yytext(). */
+
+  private final Literals literals = new Literals();
+
+  private Integer intLiteral() {
+      if (recognizeOnly)
+          return null;
+      return literals.intLiteral(zzBuffer, zzStartRead, zzMarkedPos, getLineIndex(), yychar);
+  }
+
+  private Double realLiteral() {
+      if (recognizeOnly)
+          return null;
+      return literals.realLiteral(zzBuffer, zzStartRead, zzMarkedPos, getLineIndex(), yychar);
+  }
+
+  private Character charLiteral() {
+      if (recognizeOnly)
+          return null;
+      return literals.charLiteral(zzBuffer, zzStartRead, zzMarkedPos, getLineIndex(), yychar);
+  }
+
+  private String stringLiteral() {
+      return literals.stringLiteral(zzBuffer, zzStartRead, zzMarkedPos);
+  }
+
+  /**
+   * Reads a whole file with a single sized read and decodes it with the
+   * platform charset (the one FileReader uses).
+   */
+  static char[] readFile(String fileName) throws IOException {
+      byte[] bytes = readBytes(fileName);
+      return decode(bytes, bytes.length);
+  }
+
+  /** Reads a whole file into an array of its exact size. */
+  static byte[] readBytes(String fileName) throws IOException {
+      java.nio.channels.FileChannel channel =
+          java.nio.channels.FileChannel.open(java.nio.file.Paths.get(fileName));
+      try {
+          long size = channel.size();
+          if (size > Integer.MAX_VALUE)
+              throw new IOException("File " + fileName + " is too large");
+
+          java.nio.ByteBuffer bytes = java.nio.ByteBuffer.allocate((int) size);
+          while (bytes.hasRemaining() && channel.read(bytes) >= 0)
+              ;
+          bytes.flip();
+          if (bytes.limit() == bytes.capacity())
+              return bytes.array();
+          return java.util.Arrays.copyOf(bytes.array(), bytes.limit());
+      } finally {
+          channel.close();
+      }
+  }
+
+  /**
+   * Decodes <tt>length</tt> bytes. Going through String lets the JDK use its
+   * intrinsic ASCII/Latin-1 paths for both the decode and the widening copy.
+   */
+  static char[] decode(byte[] bytes, int length) {
+      String text = new String(bytes, 0, length, java.nio.charset.Charset.defaultCharset());
+      char[] chars = new char[text.length()];
+      text.getChars(0, chars.length, chars, 0);
+      return chars;
+  }
+
 
   /**
    * Creates a new scanner
@@ -531,7 +810,7 @@ public class Scanner implements sym, java_cup.runtime.Scanner {
     char [] map = new char[0x10000];
     int i = 0;  /* index in packed string  */
     int j = 0;  /* index in unpacked array */
-    while (i < 172) {
+    while (i < 130) {
       int  count = packed.charAt(i++);
       char value = packed.charAt(i++);
       do map[j++] = value; while (--count > 0);
@@ -758,57 +1037,8 @@ public class Scanner implements sym, java_cup.runtime.Scanner {
     while (true) {
       zzMarkedPosL = zzMarkedPos;
 
-      boolean zzR = false;
-      for (zzCurrentPosL = zzStartRead; zzCurrentPosL < zzMarkedPosL;
-                                                             zzCurrentPosL++) {
-        switch (zzBufferL[zzCurrentPosL]) {
-        case '\u000B':
-        case '\u000C':
-        case '\u0085':
-        case '\u2028':
-        case '\u2029':
-          yyline++;
-          yycolumn = 0;
-          zzR = false;
-          break;
-        case '\r':
-          yyline++;
-          yycolumn = 0;
-          zzR = true;
-          break;
-        case '\n':
-          if (zzR)
-            zzR = false;
-          else {
-            yyline++;
-            yycolumn = 0;
-          }
-          break;
-        default:
-          zzR = false;
-          yycolumn++;
-        }
-      }
+      yychar+= zzMarkedPosL-zzStartRead;
 
-      if (zzR) {
-        // peek one character ahead if it is \n (if we have counted one line too much)
-        boolean zzPeek;
-        if (zzMarkedPosL < zzEndReadL)
-          zzPeek = zzBufferL[zzMarkedPosL] == '\n';
-        else if (zzAtEOF)
-          zzPeek = false;
-        else {
-          boolean eof = zzRefill();
-          zzEndReadL = zzEndRead;
-          zzMarkedPosL = zzMarkedPos;
-          zzBufferL = zzBuffer;
-          if (eof) 
-            zzPeek = false;
-          else 
-            zzPeek = zzBufferL[zzMarkedPosL] == '\n';
-        }
-        if (zzPeek) yyline--;
-      }
       zzAction = -1;
 
       zzCurrentPosL = zzCurrentPos = zzStartRead = zzMarkedPosL;
@@ -861,371 +1091,270 @@ public class Scanner implements sym, java_cup.runtime.Scanner {
       zzMarkedPos = zzMarkedPosL;
 
       switch (zzAction < 0 ? zzAction : ZZ_ACTION[zzAction]) {
-        case 23: 
-          { return symbol(CARET);
-          }
-        case 92: break;
-        case 73: 
-          { return symbol(UNION);
-          }
-        case 93: break;
-        case 81: 
-          { return symbol(SIGNED);
+        case 3: 
+          { /* ignore */
           }
-        case 94: break;
-        case 40: 
-          { return symbol(LE_OP);
+        case 63: break;
+        case 6: 
+          { return symbol(MINUS);
           }
-        case 95: break;
-        case 24: 
-          { return symbol(VERTICALBAR);
+        case 64: break;
+        case 31: 
+          { return streamLiteral(STRINGLITERAL);
           }
-        case 96: break;
-        case 91: 
-          { return symbol(CONTINUE);
+        case 65: break;
+        case 22: 
+          { return symbol(PERCENT);
           }
-        case 97: break;
+        case 66: break;
         case 1: 
-          { Errors.fatal(yyline+1, yycolumn+1, "Illegal character \"" + yytext()+ "\"");
-       System.exit(-1);
-          }
-        case 98: break;
-        case 84: 
-          { return symbol(STATIC);
-          }
-        case 99: break;
-        case 38: 
-          { return symbol(DO);
+          { track();
+                                 Errors.fatal(getLineIndex(), yychar, "Illegal character \"" + yytext()+ "\"");
+                                 return symbol(ILLEGAL);
           }
-        case 100: break;
-        case 41: 
-          { return symbol(RIGHT_OP);
-          }
-        case 101: break;
-        case 88: 
-          { return symbol(VOLATILE);
-          }
-        case 102: break;
-        case 54: 
-          { return symbol(CHARLITERAL, yytext());
-          }
-        case 103: break;
-        case 18: 
-          { return symbol(GREATER);
-          }
-        case 104: break;
-        case 53: 
-          { return symbol(ELLIPSIS);
+        case 67: break;
+        case 24: 
+          { return symbol(CARET);
           }
-        case 105: break;
-        case 35: 
+        case 68: break;
+        case 39: 
           { return symbol(MUL_ASSIGN);
           }
-        case 106: break;
-        case 3: 
-          { return symbol(ID, yytext());
-          }
-        case 107: break;
-        case 8: 
-          { return symbol(TIMES);
+        case 69: break;
+        case 38: 
+          { return symbol(DIV_ASSIGN);
           }
-        case 108: break;
-        case 63: 
-          { return symbol(TRUE);
+        case 70: break;
+        case 12: 
+          { return symbol(LCURLY);
           }
-        case 109: break;
-        case 75: 
-          { return symbol(SHORT);
+        case 71: break;
+        case 20: 
+          { return symbol(PLUS);
           }
-        case 110: break;
-        case 13: 
-          { return symbol(LSQBRACKET);
+        case 72: break;
+        case 44: 
+          { return symbol(GE_OP);
           }
-        case 111: break;
-        case 62: 
-          { return symbol(NULL);
+        case 73: break;
+        case 42: 
+          { return symbol(LE_OP);
           }
-        case 112: break;
-        case 7: 
-          { return symbol(DIVIDE);
+        case 74: break;
+        case 18: 
+          { return symbol(LESS);
           }
-        case 113: break;
-        case 60: 
-          { return symbol(LONG);
+        case 75: break;
+        case 17: 
+          { return symbol(COMMA);
           }
-        case 114: break;
-        case 19: 
-          { return symbol(PLUS);
+        case 76: break;
+        case 54: 
+          { return symbol(NE_OP);
           }
-        case 115: break;
-        case 47: 
-          { return symbol(AND_ASSIGN);
+        case 77: break;
+        case 16: 
+          { return symbol(SEMICOLON);
           }
-        case 116: break;
+        case 78: break;
         case 10: 
-          { return symbol(RPAREN);
+          { return symbol(LPAREN);
           }
-        case 117: break;
-        case 76: 
-          { return symbol(CONST);
+        case 79: break;
+        case 27: 
+          { return symbol(TILDE);
           }
-        case 118: break;
-        case 67: 
-          { return symbol(AUTO);
+        case 80: break;
+        case 50: 
+          { return symbol(AND_OP);
           }
-        case 119: break;
+        case 81: break;
         case 36: 
-          { return symbol(STRINGLITERAL, yytext());
-          }
-        case 120: break;
-        case 21: 
-          { return symbol(PERCENT);
-          }
-        case 121: break;
-        case 25: 
-          { return symbol(BANG);
-          }
-        case 122: break;
-        case 61: 
-          { return symbol(COMMENTBLOCK, yytext());
-          }
-        case 123: break;
-        case 20: 
-          { return symbol(ASSIGN);
-          }
-        case 124: break;
-        case 66: 
-          { return symbol(ENUM);
-          }
-        case 125: break;
-        case 32: 
           { return symbol(SUB_ASSIGN);
           }
-        case 126: break;
-        case 28: 
-          { return symbol(HASH);
-          }
-        case 127: break;
-        case 56: 
-          { return symbol(FOR);
-          }
-        case 128: break;
-        case 70: 
-          { return symbol(GOTO);
-          }
-        case 129: break;
-        case 44: 
-          { return symbol(ADD_ASSIGN);
+        case 82: break;
+        case 59: 
+          { return symbol(ELLIPSIS);
           }
-        case 130: break;
+        case 83: break;
         case 45: 
-          { return symbol(EQUALS);
+          { return symbol(INC_OP);
           }
-        case 131: break;
-        case 33: 
-          { return symbol(COMMENTLINE, yytext());
+        case 84: break;
+        case 14: 
+          { return symbol(LSQBRACKET);
           }
-        case 132: break;
-        case 51: 
-          { return symbol(OR_OP);
+        case 85: break;
+        case 33: 
+          { return symbol(REALLITERAL, realLiteral());
           }
-        case 133: break;
-        case 71: 
-          { return symbol(FALSE);
+        case 86: break;
+        case 28: 
+          { return symbol(QUESTIONMAR);
           }
-        case 134: break;
-        case 57: 
-          { return symbol(LEFT_ASSIGN);
+        case 87: break;
+        case 7: 
+          { return symbol(FULLSTOP);
           }
-        case 135: break;
-        case 87: 
-          { return symbol(DEFAULT);
+        case 88: break;
+        case 62: 
+          { return symbol(RIGHT_ASSIGN);
           }
-        case 136: break;
-        case 80: 
-          { return symbol(DOUBLE);
+        case 89: break;
+        case 26: 
+          { return symbol(BANG);
           }
-        case 137: break;
-        case 37: 
-          { return symbol(IF);
+        case 90: break;
+        case 29: 
+          { return symbol(HASH);
           }
-        case 138: break;
-        case 69: 
-          { return symbol(CHAR);
+        case 91: break;
+        case 56: 
+          { int end = runs.skipComment(zzBuffer, zzMarkedPos, zzEndRead);
+                                   if (end < 0) {
+                                     // unterminated: {CommentBlock} fails and "/" is the longest match
+                                     yypushback(1);
+                                     return symbol(DIVIDE);
+                                   }
+                                   zzMarkedPos = end;
+                                   getTrivia().add(yychar, yylength());
           }
-        case 139: break;
-        case 85: 
-          { return symbol(SWITCH);
+        case 92: break;
+        case 58: 
+          { Symbol divide = streamComment();
+                                   zzBufferL = zzBuffer;
+                                   zzEndReadL = zzEndRead;
+                                   if (divide != null)
+                                     return divide;
           }
-        case 140: break;
-        case 43: 
-          { return symbol(INC_OP);
+        case 93: break;
+        case 8: 
+          { return symbol(DIVIDE);
           }
-        case 141: break;
-        case 9: 
-          { return symbol(LPAREN);
+        case 94: break;
+        case 61: 
+          { return symbol(LEFT_ASSIGN);
           }
-        case 142: break;
-        case 72: 
-          { return symbol(BREAK);
+        case 95: break;
+        case 57: 
+          { streamLineComment();
+                                   zzBufferL = zzBuffer;
+                                   zzEndReadL = zzEndRead;
           }
-        case 143: break;
-        case 34: 
-          { return symbol(DIV_ASSIGN);
+        case 96: break;
+        case 46: 
+          { return symbol(ADD_ASSIGN);
           }
-        case 144: break;
-        case 4: 
-          { return symbol(INTLITERAL, yytext());
+        case 97: break;
+        case 30: 
+          { zzMarkedPos = runs.skipIdentifier(zzBuffer, zzMarkedPos, zzEndRead);
+                                         return identifier();
           }
-        case 145: break;
-        case 79: 
-          { return symbol(EXTERN);
+        case 98: break;
+        case 15: 
+          { return symbol(RSQBRACKET);
           }
-        case 146: break;
-        case 46: 
-          { return symbol(MOD_ASSIGN);
+        case 99: break;
+        case 32: 
+          { return streamLiteral(CHARLITERAL);
           }
-        case 147: break;
-        case 39: 
-          { return symbol(LEFT_OP);
+        case 100: break;
+        case 2: 
+          { track();
           }
-        case 148: break;
-        case 12: 
+        case 101: break;
+        case 13: 
           { return symbol(RCURLY);
           }
-        case 149: break;
-        case 64: 
-          { return symbol(BOOL);
-          }
-        case 150: break;
-        case 58: 
-          { return symbol(RIGHT_ASSIGN);
-          }
-        case 151: break;
-        case 86: 
-          { return symbol(TYPEDEF);
+        case 102: break;
+        case 37: 
+          { track(); getTrivia().add(yychar, yylength());
           }
-        case 152: break;
-        case 15: 
-          { return symbol(SEMICOLON);
+        case 103: break;
+        case 19: 
+          { return symbol(GREATER);
           }
-        case 153: break;
-        case 49: 
+        case 104: break;
+        case 51: 
           { return symbol(XOR_ASSIGN);
           }
-        case 154: break;
-        case 29: 
-          { return symbol(REALLITERAL, yytext());
-          }
-        case 155: break;
-        case 52: 
-          { return symbol(NE_OP);
+        case 105: break;
+        case 35: 
+          { return symbol(PTR_OP);
           }
-        case 156: break;
-        case 74: 
-          { return symbol(FLOAT);
+        case 106: break;
+        case 11: 
+          { return symbol(RPAREN);
           }
-        case 157: break;
-        case 68: 
-          { return symbol(CASE);
+        case 107: break;
+        case 9: 
+          { return symbol(TIMES);
           }
-        case 158: break;
-        case 5: 
-          { return symbol(MINUS);
+        case 108: break;
+        case 40: 
+          { track(); return symbol(STRINGLITERAL, stringLiteral());
           }
-        case 159: break;
-        case 22: 
+        case 109: break;
+        case 23: 
           { return symbol(AMPERSAND);
           }
-        case 160: break;
-        case 14: 
-          { return symbol(RSQBRACKET);
-          }
-        case 161: break;
-        case 89: 
-          { return symbol(REGISTER);
-          }
-        case 162: break;
-        case 55: 
-          { return symbol(INT);
+        case 110: break;
+        case 4: 
+          { return identifier();
           }
-        case 163: break;
-        case 50: 
+        case 111: break;
+        case 52: 
           { return symbol(OR_ASSIGN);
           }
-        case 164: break;
-        case 11: 
-          { return symbol(LCURLY);
-          }
-        case 165: break;
-        case 90: 
-          { return symbol(UNSIGNED);
-          }
-        case 166: break;
-        case 82: 
-          { return symbol(SIZEOF);
-          }
-        case 167: break;
-        case 26: 
-          { return symbol(TILDE);
-          }
-        case 168: break;
-        case 59: 
-          { return symbol(VOID);
-          }
-        case 169: break;
-        case 30: 
-          { return symbol(DEC_OP);
-          }
-        case 170: break;
-        case 2: 
-          { /* ignore */
+        case 112: break;
+        case 48: 
+          { return symbol(MOD_ASSIGN);
           }
-        case 171: break;
-        case 27: 
-          { return symbol(QUESTIONMAR);
+        case 113: break;
+        case 5: 
+          { return symbol(INTLITERAL, intLiteral());
           }
-        case 172: break;
-        case 83: 
-          { return symbol(STRUCT);
+        case 114: break;
+        case 60: 
+          { track(); return symbol(CHARLITERAL, charLiteral());
           }
-        case 173: break;
-        case 48: 
-          { return symbol(AND_OP);
+        case 115: break;
+        case 41: 
+          { return symbol(LEFT_OP);
           }
-        case 174: break;
-        case 77: 
-          { return symbol(WHILE);
+        case 116: break;
+        case 43: 
+          { return symbol(RIGHT_OP);
           }
-        case 175: break;
-        case 17: 
-          { return symbol(LESS);
+        case 117: break;
+        case 53: 
+          { return symbol(OR_OP);
           }
-        case 176: break;
-        case 42: 
-          { return symbol(GE_OP);
+        case 118: break;
+        case 55: 
+          { zzMarkedPos = runs.skipBlanks(zzBuffer, zzMarkedPos, zzEndRead);
           }
-        case 177: break;
-        case 65: 
-          { return symbol(ELSE);
+        case 119: break;
+        case 25: 
+          { return symbol(VERTICALBAR);
           }
-        case 178: break;
-        case 16: 
-          { return symbol(COMMA);
+        case 120: break;
+        case 34: 
+          { return symbol(DEC_OP);
           }
-        case 179: break;
-        case 78: 
-          { return symbol(RETURN);
+        case 121: break;
+        case 49: 
+          { return symbol(AND_ASSIGN);
           }
-        case 180: break;
-        case 31: 
-          { return symbol(PTR_OP);
+        case 122: break;
+        case 47: 
+          { return symbol(EQUALS);
           }
-        case 181: break;
-        case 6: 
-          { return symbol(FULLSTOP);
+        case 123: break;
+        case 21: 
+          { return symbol(ASSIGN);
           }
-        case 182: break;
+        case 124: break;
         default: 
           if (zzInput == YYEOF && zzStartRead == zzCurrentPos) {
             zzAtEOF = true;
@@ -1270,7 +1399,7 @@ public class Scanner implements sym, java_cup.runtime.Scanner {
    */
   public java_cup.runtime.Symbol debug_next_token() throws java.io.IOException {
     java_cup.runtime.Symbol s = next_token();
-    System.out.println( "line:" + (yyline+1) + " col:" + (yycolumn+1) + " --"+ yytext() + "--" + getTokenName(s.sym) + "--");
+    System.out.println( " --"+ yytext() + "--" + getTokenName(s.sym) + "--");
     return s;
   }
 
@@ -0,0 +1,321 @@
+/**
+ * A scanned token stream stored as parallel primitive arrays.
+ *
+ * Scanner.tokenize() appends tokens here without creating a symbol per
+ * token. Token i is described by its kind (a sym code), its start offset
+ * and length in the source and an index into the value table (-1 for
+ * tokens without a value). Lines and columns come from the LineIndex of
+ * the source. The stream can be read any
+ * number of times through a {@link TokenStream}.
+ */
+final class TokenBuffer implements TokenSlices {
+    private char[] source;
+    private LineIndex lineIndex;
+
+    private short[] kinds;
+    private int[] starts;
+    private int[] lengths;
+    private int[] valueIndexes;
+    private int count;
+
+    private Object[] values;
+    private int valueCount;
+
+    TokenBuffer() {
+        this(1024);
+    }
+
+    TokenBuffer(int capacity) {
+        kinds = new short[capacity];
+        starts = new int[capacity];
+        lengths = new int[capacity];
+        valueIndexes = new int[capacity];
+        values = new Object[Math.max(16, capacity / 4)];
+    }
+
+    void setSource(char[] source) {
+        this.source = source;
+    }
+
+    /** Returns the source the offsets refer to, null for Reader input. */
+    char[] getSource() {
+        return source;
+    }
+
+    void setLineIndex(LineIndex lineIndex) {
+        this.lineIndex = lineIndex;
+    }
+
+    LineIndex getLineIndex() {
+        return lineIndex;
+    }
+
+    void add(int kind, int start, int length, Object value) {
+        if (count == kinds.length)
+            grow();
+        kinds[count] = (short) kind;
+        starts[count] = start;
+        lengths[count] = length;
+        if (value == null) {
+            valueIndexes[count] = -1;
+        } else {
+            if (valueCount == values.length) {
+                Object[] grown = new Object[values.length * 2];
+                System.arraycopy(values, 0, grown, 0, valueCount);
+                values = grown;
+            }
+            valueIndexes[count] = valueCount;
+            values[valueCount++] = value;
+        }
+        count++;
+    }
+
+    private void grow() {
+        grow(kinds.length * 2);
+    }
+
+    /** Makes room for <tt>capacity</tt> tokens in all, in arrays of that size. */
+    void ensureCapacity(int capacity) {
+        if (capacity > kinds.length)
+            grow(capacity);
+    }
+
+    private void grow(int capacity) {
+        short[] k = new short[capacity];
+        System.arraycopy(kinds, 0, k, 0, count);
+        kinds = k;
+        starts = grow(starts, capacity);
+        lengths = grow(lengths, capacity);
+        valueIndexes = grow(valueIndexes, capacity);
+    }
+
+    private int[] grow(int[] array, int capacity) {
+        int[] grown = new int[capacity];
+        System.arraycopy(array, 0, grown, 0, count);
+        return grown;
+    }
+
+    /**
+     * Appends the first <tt>n</tt> tokens of <tt>other</tt>. Both buffers
+     * must share the same source.
+     */
+    void append(TokenBuffer other, int n) {
+        while (count + n > kinds.length)
+            grow();
+
+        System.arraycopy(other.kinds, 0, kinds, count, n);
+        System.arraycopy(other.starts, 0, starts, count, n);
+        System.arraycopy(other.lengths, 0, lengths, count, n);
+        int used = 0;
+        for (int i = 0; i < n; ++i) {
+            int index = other.valueIndexes[i];
+            if (index >= 0) {
+                valueIndexes[count + i] = index + valueCount;
+                used = index + 1;
+            } else {
+                valueIndexes[count + i] = -1;
+            }
+        }
+        count += n;
+
+        if (valueCount + used > values.length) {
+            Object[] grown = new Object[Math.max(values.length * 2, valueCount + used)];
+            System.arraycopy(values, 0, grown, 0, valueCount);
+            values = grown;
+        }
+        System.arraycopy(other.values, 0, values, valueCount, used);
+        valueCount += used;
+    }
+
+    /**
+     * Replaces tokens <tt>from</tt> (inclusive) to <tt>to</tt> (exclusive)
+     * with the first <tt>n</tt> tokens of <tt>other</tt>. The tokens after
+     * the replaced range move in one arraycopy per column.
+     */
+    void replace(int from, int to, TokenBuffer other, int n) {
+        int newCount = count - (to - from) + n;
+        while (newCount > kinds.length)
+            grow();
+
+        int tail = count - to;
+        System.arraycopy(kinds, to, kinds, from + n, tail);
+        System.arraycopy(starts, to, starts, from + n, tail);
+        System.arraycopy(lengths, to, lengths, from + n, tail);
+        System.arraycopy(valueIndexes, to, valueIndexes, from + n, tail);
+
+        // the values of the replaced tokens stay behind until the next compaction
+        count = from;
+        append(other, n);
+        count = newCount;
+        if (valueCount > 2 * count + 16)
+            compactValues();
+    }
+
+    /** Moves the tokens from index <tt>from</tt> on by <tt>delta</tt> characters. */
+    void shift(int from, int delta) {
+        for (int i = from; i < count; ++i)
+            starts[i] += delta;
+    }
+
+    /** Drops the values no token refers to any more. */
+    private void compactValues() {
+        Object[] live = new Object[Math.max(16, values.length)];
+        int n = 0;
+        for (int i = 0; i < count; ++i) {
+            int index = valueIndexes[i];
+            if (index >= 0) {
+                live[n] = values[index];
+                valueIndexes[i] = n++;
+            }
+        }
+        values = live;
+        valueCount = n;
+    }
+
+    /**
+     * Returns the index of the token starting at <tt>start</tt>, or
+     * <tt>-(insertion point) - 1</tt> if no token starts there.
+     */
+    public int find(int start) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < start)
+                low = mid + 1;
+            else if (starts[mid] > start)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -(low + 1);
+    }
+
+    /** Forgets all tokens but keeps the arrays for the next input. */
+    void clear() {
+        java.util.Arrays.fill(values, 0, valueCount, null);
+        count = 0;
+        valueCount = 0;
+        source = null;
+        lineIndex = null;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getKind(int i) {
+        return kinds[i];
+    }
+
+    public int getStart(int i) {
+        return starts[i];
+    }
+
+    public int getLength(int i) {
+        return lengths[i];
+    }
+
+    public int getLine(int i) {
+        return lineIndex.getLine(starts[i]);
+    }
+
+    public int getColumn(int i) {
+        return lineIndex.getColumn(starts[i]);
+    }
+
+    public Object getValue(int i) {
+        int index = valueIndexes[i];
+        return index < 0 ? null : values[index];
+    }
+
+    /** Returns the text of token <tt>i</tt>, null if the source is gone. */
+    public String getText(int i) {
+        return source == null ? null : new String(source, starts[i], lengths[i]);
+    }
+
+    public java_cup.runtime.Scanner slice(int from, int to) {
+        return new TokenStream(this, from, to);
+    }
+
+    /** Creates the parser symbol for token <tt>i</tt>. */
+    MySymbol symbol(int i) {
+        int index = valueIndexes[i];
+        if (index < 0)
+            return new MySymbol(kinds[i], lineIndex, source, starts[i], starts[i] + lengths[i]);
+        return new MySymbol(kinds[i], lineIndex, starts[i], starts[i] + lengths[i],
+                values[index]);
+    }
+}
+
+/**
+ * Feeds the tokens of a TokenBuffer to a parser. After the last token the
+ * stream keeps returning it, which is the EOF token for a complete buffer.
+ */
+final class TokenStream implements java_cup.runtime.Scanner {
+    private final TokenBuffer tokens;
+    private int next;
+
+    /** where the stream goes on to the last token, -1 for the end of the buffer */
+    private final int end;
+
+    /** the messages of the lexer that made the tokens, held back, or null */
+    private final Diagnostics held;
+    private int replayed;
+
+    TokenStream(TokenBuffer tokens) {
+        this(tokens, 0, -1, null);
+    }
+
+    /**
+     * Feeds tokens <tt>from</tt> to <tt>to</tt> - 1 and then the last token
+     * of the buffer, so that a slice of a buffer parses on its own.
+     */
+    TokenStream(TokenBuffer tokens, int from, int to) {
+        this(tokens, from, to, null);
+    }
+
+    /**
+     * Feeds all tokens, reporting each message of <tt>held</tt>, in source
+     * order, once the parser asks for the token it lies in or before: when
+     * the lexer would have reported it, had the parser read from the lexer.
+     */
+    TokenStream(TokenBuffer tokens, Diagnostics held) {
+        this(tokens, 0, -1, held);
+    }
+
+    private TokenStream(TokenBuffer tokens, int from, int to, Diagnostics held) {
+        this.tokens = tokens;
+        next = from;
+        end = to;
+        this.held = held;
+    }
+
+    public java_cup.runtime.Symbol next_token() {
+        int last = tokens.size() - 1;
+        int end = this.end < 0 ? last : this.end;
+        int i = next < end ? next++ : last;
+        if (held != null && replayed < held.getMessages().size())
+            replay(i == last ? held.getMessages().size() : before(tokens.getStart(i) + tokens.getLength(i)));
+        return tokens.symbol(i);
+    }
+
+    /** Returns the index of the first held message at or after <tt>offset</tt>. */
+    private int before(int offset) {
+        LineIndex lines = tokens.getLineIndex();
+        int line = lines.getLine(offset);
+        int column = lines.getColumn(offset);
+        int to = replayed;
+        for (int n = held.getMessages().size(); to < n; ++to) {
+            Diagnostics.Message message = held.getMessages().get(to);
+            if (message.line > line || message.line == line && message.column >= column)
+                break;
+        }
+        return to;
+    }
+
+    private void replay(int to) {
+        held.replay(replayed, to);
+        replayed = to;
+    }
+}
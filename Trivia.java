@@ -0,0 +1,121 @@
+/**
+ * Comments seen by the scanner.
+ *
+ * Comments are not tokens; the scanner records each one as an (offset,
+ * length) pair in the source and moves on. The text is only copied out
+ * when a tool asks for it, and only if the scanner owned the whole input.
+ */
+final class Trivia {
+    private char[] source;
+    private byte[] bytes;
+    private int[] spans = new int[32];
+    private int count;
+
+    Trivia(char[] source) {
+        this.source = source;
+    }
+
+    void add(int offset, int length) {
+        if (2 * count == spans.length) {
+            int[] grown = new int[spans.length * 2];
+            System.arraycopy(spans, 0, grown, 0, spans.length);
+            spans = grown;
+        }
+        spans[2 * count] = offset;
+        spans[2 * count + 1] = length;
+        count++;
+    }
+
+    void addAll(Trivia other) {
+        for (int i = 0; i < other.count; ++i)
+            add(other.getOffset(i), other.getLength(i));
+    }
+
+    /** Forgets all comments but keeps the array for the next input. */
+    void clear() {
+        count = 0;
+    }
+
+    void setSource(char[] source) {
+        this.source = source;
+        this.bytes = null;
+    }
+
+    /** Makes the offsets refer to a source of ASCII bytes. */
+    void setBytes(byte[] bytes) {
+        this.source = null;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Replaces the comments starting in [<tt>from</tt>, <tt>to</tt>) with
+     * those of <tt>other</tt> and moves the comments after them by
+     * <tt>delta</tt> characters.
+     */
+    void replace(int from, int to, Trivia other, int delta) {
+        int first = find(from);
+        if (first < 0)
+            first = -(first + 1);
+        int last = find(to);
+        if (last < 0)
+            last = -(last + 1);
+        int tail = count - last;
+        int newCount = first + other.count + tail;
+        if (2 * newCount > spans.length) {
+            int[] grown = new int[Math.max(spans.length * 2, 2 * newCount)];
+            System.arraycopy(spans, 0, grown, 0, 2 * count);
+            spans = grown;
+        }
+        System.arraycopy(spans, 2 * last, spans, 2 * (first + other.count), 2 * tail);
+        System.arraycopy(other.spans, 0, spans, 2 * first, 2 * other.count);
+        for (int i = first + other.count; i < newCount; ++i)
+            spans[2 * i] += delta;
+        count = newCount;
+    }
+
+    /**
+     * Returns the index of the comment starting at <tt>offset</tt>, or
+     * <tt>-(insertion point) - 1</tt> if none starts there.
+     */
+    public int find(int offset) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int start = spans[2 * mid];
+            if (start < offset)
+                low = mid + 1;
+            else if (start > offset)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -(low + 1);
+    }
+
+    /** Returns the number of comments. */
+    public int size() {
+        return count;
+    }
+
+    /** Returns the source offset of comment <tt>i</tt>. */
+    public int getOffset(int i) {
+        return spans[2 * i];
+    }
+
+    /** Returns the length of comment <tt>i</tt>, delimiters included. */
+    public int getLength(int i) {
+        return spans[2 * i + 1];
+    }
+
+    /**
+     * Returns the text of comment <tt>i</tt>, or null when the scanner read
+     * from a Reader and the text is gone.
+     */
+    public String getText(int i) {
+        if (bytes != null)
+            return new String(bytes, getOffset(i), getLength(i),
+                    java.nio.charset.StandardCharsets.ISO_8859_1);
+        return source == null ? null : new String(source, getOffset(i), getLength(i));
+    }
+}
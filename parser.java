@@ -1,14 +1,14 @@
 
 //----------------------------------------------------
 // The following code was generated by CUP v0.11a beta 20060608
-// Tue Dec 26 22:58:18 ICT 2017
+// Sun Oct 18 09:59:31 UTC 2026
 //----------------------------------------------------
 
 import java_cup.runtime.*;
 import java.util.*;
 
 /** CUP v0.11a beta 20060608 generated parser.
-  * @version Tue Dec 26 22:58:18 ICT 2017
+  * @version Sun Oct 18 09:59:31 UTC 2026
   */
 public class parser extends java_cup.runtime.lr_parser {
 
@@ -21,89 +21,98 @@ public class parser extends java_cup.runtime.lr_parser {
   /** Constructor which sets the default scanner. */
   public parser(java_cup.runtime.Scanner s, java_cup.runtime.SymbolFactory sf) {super(s,sf);}
 
+  /** the tables below, as BinaryTables wrote them to parser.tables */
+  private static final BinaryTables _binary_tables = BinaryTables.of(parser.class);
+
   /** Production table. */
   protected static final short _production_table[][] = 
+    _binary_tables.has("_production_table", 1078223523) ? _binary_tables.rows("_production_table") :
     unpackFromStrings(new String[] {
-    "\000\037\000\002\002\004\000\002\002\003\000\002\003" +
+    "\000\040\000\002\002\004\000\002\002\003\000\002\003" +
     "\004\000\002\003\002\000\002\004\003\000\002\004\003" +
-    "\000\002\006\005\000\002\006\010\000\002\007\006\000" +
-    "\002\010\005\000\002\023\003\000\002\023\005\000\002" +
-    "\023\002\000\002\022\004\000\002\011\006\000\002\005" +
-    "\004\000\002\005\002\000\002\012\004\000\002\012\002" +
-    "\000\002\013\004\000\002\021\005\000\002\014\003\000" +
-    "\002\014\003\000\002\024\005\000\002\024\005\000\002" +
-    "\015\003\000\002\015\003\000\002\016\003\000\002\016" +
-    "\003\000\002\017\003\000\002\020\003" });
+    "\000\002\004\004\000\002\004\004\000\002\006\005\000" +
+    "\002\006\010\000\002\007\006\000\002\010\005\000\002" +
+    "\020\003\000\002\020\004\000\002\020\002\000\002\021" +
+    "\005\000\002\021\003\000\002\017\004\000\002\011\006" +
+    "\000\002\005\004\000\002\005\002\000\002\012\004\000" +
+    "\002\012\002\000\002\013\006\000\002\013\004\000\002" +
+    "\014\005\000\002\014\005\000\002\014\003\000\002\014" +
+    "\003\000\002\015\003\000\002\015\003\000\002\016\003" +
+    "" });
 
   /** Access to production table. */
   public short[][] production_table() {return _production_table;}
 
   /** Parse-action table. */
   protected static final short[][] _action_table = 
+    _binary_tables.has("_action_table", -392854187) ? _binary_tables.rows("_action_table") :
     unpackFromStrings(new String[] {
-    "\000\061\000\010\002\ufffe\004\ufffe\006\ufffe\001\002\000" +
-    "\010\002\000\004\014\006\013\001\002\000\004\002\006" +
-    "\001\002\000\004\002\001\001\002\000\010\002\ufffc\004" +
-    "\ufffc\006\ufffc\001\002\000\010\002\uffff\004\uffff\006\uffff" +
-    "\001\002\000\004\017\015\001\002\000\010\002\ufffd\004" +
-    "\ufffd\006\ufffd\001\002\000\004\017\uffe5\001\002\000\004" +
-    "\017\uffe6\001\002\000\022\026\uffe3\030\uffe3\031\uffe3\032" +
-    "\uffe3\033\uffe3\034\uffe3\035\uffe3\036\uffe3\001\002\000\010" +
-    "\026\017\030\022\034\020\001\002\000\004\020\061\001" +
-    "\002\000\014\002\ufffb\004\ufffb\006\ufffb\017\ufffb\025\ufffb" +
-    "\001\002\000\004\024\032\001\002\000\010\004\014\006" +
-    "\013\031\ufff5\001\002\000\004\017\015\001\002\000\004" +
-    "\031\030\001\002\000\006\031\ufff7\032\026\001\002\000" +
-    "\010\004\014\006\013\031\ufff5\001\002\000\004\031\ufff6" +
-    "\001\002\000\004\024\ufff8\001\002\000\006\031\ufff4\032" +
-    "\ufff4\001\002\000\012\004\ufff1\006\ufff1\017\ufff1\025\ufff1" +
-    "\001\002\000\010\002\ufff9\004\ufff9\006\ufff9\001\002\000" +
-    "\012\004\014\006\013\017\uffef\025\uffef\001\002\000\004" +
-    "\017\015\001\002\000\006\017\015\025\043\001\002\000" +
-    "\012\004\ufff2\006\ufff2\017\ufff2\025\ufff2\001\002\000\004" +
-    "\034\057\001\002\000\006\017\ufff0\025\ufff0\001\002\000" +
-    "\004\033\045\001\002\000\010\002\ufff3\004\ufff3\006\ufff3" +
-    "\001\002\000\012\033\uffe4\034\uffe4\035\uffe4\036\uffe4\001" +
-    "\002\000\006\017\015\020\050\001\002\000\010\034\uffec" +
-    "\035\uffec\036\uffec\001\002\000\010\034\uffeb\035\uffeb\036" +
-    "\uffeb\001\002\000\010\034\uffe7\035\uffe7\036\uffe7\001\002" +
-    "\000\010\034\uffed\035\053\036\054\001\002\000\010\034" +
-    "\uffe8\035\uffe8\036\uffe8\001\002\000\006\017\015\020\050" +
-    "\001\002\000\006\017\015\020\050\001\002\000\010\034" +
-    "\uffe9\035\uffe9\036\uffe9\001\002\000\010\034\uffea\035\uffea" +
-    "\036\uffea\001\002\000\006\017\uffee\025\uffee\001\002\000" +
-    "\006\026\017\034\020\001\002\000\004\027\062\001\002" +
-    "\000\004\034\063\001\002\000\014\002\ufffa\004\ufffa\006" +
-    "\ufffa\017\ufffa\025\ufffa\001\002" });
+    "\000\063\000\012\002\ufffe\003\ufffe\004\ufffe\006\ufffe\001" +
+    "\002\000\012\002\000\003\011\004\015\006\014\001\002" +
+    "\000\004\002\006\001\002\000\004\002\001\001\002\000" +
+    "\012\002\ufffc\003\ufffc\004\ufffc\006\ufffc\001\002\000\012" +
+    "\002\uffff\003\uffff\004\uffff\006\uffff\001\002\000\006\025" +
+    "\065\034\064\001\002\000\004\017\016\001\002\000\012" +
+    "\002\ufffd\003\ufffd\004\ufffd\006\ufffd\001\002\000\004\017" +
+    "\uffe3\001\002\000\004\017\uffe4\001\002\000\016\026\uffe2" +
+    "\030\uffe2\031\uffe2\032\uffe2\033\uffe2\034\uffe2\001\002\000" +
+    "\010\026\020\030\023\034\021\001\002\000\004\020\061" +
+    "\001\002\000\016\002\ufff9\003\ufff9\004\ufff9\006\ufff9\017" +
+    "\ufff9\025\ufff9\001\002\000\004\024\034\001\002\000\010" +
+    "\004\015\006\014\031\ufff3\001\002\000\004\017\016\001" +
+    "\002\000\006\031\ufff5\032\031\001\002\000\004\031\030" +
+    "\001\002\000\006\031\ufff1\032\ufff1\001\002\000\004\024" +
+    "\ufff6\001\002\000\010\004\015\006\014\031\ufff4\001\002" +
+    "\000\006\031\ufff2\032\ufff2\001\002\000\006\031\ufff0\032" +
+    "\ufff0\001\002\000\014\003\uffed\004\uffed\006\uffed\017\uffed" +
+    "\025\uffed\001\002\000\012\002\ufff7\003\ufff7\004\ufff7\006" +
+    "\ufff7\001\002\000\014\003\uffeb\004\015\006\014\017\uffeb" +
+    "\025\uffeb\001\002\000\004\017\016\001\002\000\014\003" +
+    "\uffee\004\uffee\006\uffee\017\uffee\025\uffee\001\002\000\010" +
+    "\003\042\017\016\025\045\001\002\000\004\034\057\001" +
+    "\002\000\010\003\uffec\017\uffec\025\uffec\001\002\000\004" +
+    "\033\046\001\002\000\012\002\uffef\003\uffef\004\uffef\006" +
+    "\uffef\001\002\000\006\017\047\020\050\001\002\000\010" +
+    "\034\uffe6\035\uffe6\036\uffe6\001\002\000\010\034\uffe5\035" +
+    "\uffe5\036\uffe5\001\002\000\010\034\052\035\053\036\054" +
+    "\001\002\000\010\003\uffea\017\uffea\025\uffea\001\002\000" +
+    "\006\017\047\020\050\001\002\000\006\017\047\020\050" +
+    "\001\002\000\010\034\uffe7\035\uffe7\036\uffe7\001\002\000" +
+    "\010\034\uffe8\035\uffe8\036\uffe8\001\002\000\010\003\uffe9" +
+    "\017\uffe9\025\uffe9\001\002\000\006\026\020\034\021\001" +
+    "\002\000\004\027\062\001\002\000\004\034\063\001\002" +
+    "\000\016\002\ufff8\003\ufff8\004\ufff8\006\ufff8\017\ufff8\025" +
+    "\ufff8\001\002\000\012\002\ufffb\003\ufffb\004\ufffb\006\ufffb" +
+    "\001\002\000\012\002\ufffa\003\ufffa\004\ufffa\006\ufffa\001" +
+    "\002" });
 
   /** Access to parse-action table. */
   public short[][] action_table() {return _action_table;}
 
   /** <code>reduce_goto</code> table. */
   protected static final short[][] _reduce_table = 
+    _binary_tables.has("_reduce_table", -1640419607) ? _binary_tables.rows("_reduce_table") :
     unpackFromStrings(new String[] {
-    "\000\061\000\006\002\004\003\003\001\001\000\012\004" +
-    "\007\006\011\007\006\016\010\001\001\000\002\001\001" +
+    "\000\063\000\006\002\004\003\003\001\001\000\012\004" +
+    "\007\006\012\007\006\015\011\001\001\000\002\001\001" +
     "\000\002\001\001\000\002\001\001\000\002\001\001\000" +
-    "\004\020\015\001\001\000\002\001\001\000\002\001\001" +
-    "\000\002\001\001\000\002\001\001\000\004\010\020\001" +
-    "\001\000\002\001\001\000\002\001\001\000\004\011\032" +
-    "\001\001\000\010\016\022\022\024\023\023\001\001\000" +
-    "\004\020\030\001\001\000\002\001\001\000\002\001\001" +
-    "\000\010\016\022\022\024\023\026\001\001\000\002\001" +
-    "\001\000\002\001\001\000\002\001\001\000\004\005\033" +
-    "\001\001\000\002\001\001\000\010\006\036\012\035\016" +
-    "\034\001\001\000\004\020\057\001\001\000\012\013\040" +
-    "\017\041\020\043\021\037\001\001\000\002\001\001\000" +
-    "\002\001\001\000\002\001\001\000\002\001\001\000\002" +
-    "\001\001\000\002\001\001\000\014\014\050\015\046\017" +
-    "\051\020\043\024\045\001\001\000\002\001\001\000\002" +
-    "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
-    "\001\000\014\014\055\015\046\017\051\020\043\024\045" +
-    "\001\001\000\014\014\054\015\046\017\051\020\043\024" +
-    "\045\001\001\000\002\001\001\000\002\001\001\000\002" +
+    "\002\001\001\000\004\016\016\001\001\000\002\001\001" +
+    "\000\002\001\001\000\002\001\001\000\002\001\001\000" +
+    "\004\010\021\001\001\000\002\001\001\000\002\001\001" +
+    "\000\004\011\034\001\001\000\012\015\023\017\026\020" +
+    "\025\021\024\001\001\000\004\016\032\001\001\000\002" +
     "\001\001\000\002\001\001\000\002\001\001\000\002\001" +
-    "\001\000\002\001\001" });
+    "\001\000\006\015\023\017\031\001\001\000\002\001\001" +
+    "\000\002\001\001\000\004\005\035\001\001\000\002\001" +
+    "\001\000\010\006\037\012\040\015\036\001\001\000\004" +
+    "\016\057\001\001\000\002\001\001\000\006\013\042\016" +
+    "\043\001\001\000\002\001\001\000\002\001\001\000\002" +
+    "\001\001\000\002\001\001\000\004\014\050\001\001\000" +
+    "\002\001\001\000\002\001\001\000\002\001\001\000\002" +
+    "\001\001\000\004\014\055\001\001\000\004\014\054\001" +
+    "\001\000\002\001\001\000\002\001\001\000\002\001\001" +
+    "\000\002\001\001\000\002\001\001\000\002\001\001\000" +
+    "\002\001\001\000\002\001\001\000\002\001\001" });
 
   /** Access to <code>reduce_goto</code> table. */
   public short[][] reduce_table() {return _reduce_table;}
@@ -144,15 +153,145 @@ public class parser extends java_cup.runtime.lr_parser {
 
 
 public void syntax_error(Symbol curToken) {
-    if (curToken.value == null) {
+    reportSyntaxError(curToken, getScanner() instanceof Lexer ? (Lexer)getScanner() : null);
+}
+
+/**
+ * Reports a syntax error at <tt>curToken</tt>, the last token read from
+ * <tt>lexer</tt>. DescentParser and Recognizer report theirs here too.
+ */
+static void reportSyntaxError(Symbol curToken, Lexer lexer) {
+    if (curToken.sym == sym.EOF) {
        Errors.fatal(0,0, "SYNTAX ERROR at end of file");
     }
-    else {
+    else if (curToken.sym != sym.ILLEGAL) {
+       // an ILLEGAL token has been reported by the scanner
        MySymbol cur = (MySymbol)curToken;
+       String text = cur.getText();
+       if (text == null && lexer != null)
+          text = lexer.yytext();
        Errors.fatal(cur.getLine(), cur.getColumn(),
-            "SYNTAX ERROR while reading token " + ((Scanner)this.getScanner()).getTokName(cur.sym) + " ("+ ((Scanner)this.getScanner()).yytext() + ")");
+            "SYNTAX ERROR while reading token " + MySymbol.tokenName(cur.sym) + " ("+ text + ")");
+    }
+}
+
+/**
+ * Gives up the parse when no error production can take the input up again.
+ * The errors have been reported.
+ */
+public void unrecovered_syntax_error(Symbol curToken) throws Exception {
+    done_parsing();
+    throw new Exception("Can't recover from previous error(s)");
+}
+
+/**
+ * The action and goto tables unpacked for lookups without a search, null
+ * to parse with the lookups of lr_parser; see ParseTables.
+ */
+private static final ParseTables tables = ParseTables.load(_action_table, _reduce_table);
+
+// lr_parser's java.util.Stack synchronizes every access
+{
+    stack = new ParseStack();
+}
+
+/** what the actions wrap their results in while parse() runs */
+private final RecyclingSymbolFactory reductions = new RecyclingSymbolFactory();
+
+/**
+ * Parses as lr_parser.parse() does, with the actions and gotos looked up
+ * in the unpacked tables and the entries pushed and popped as primitives.
+ * The actions get their Symbols from a RecyclingSymbolFactory meanwhile,
+ * since the stack copies them, so a reduction allocates only what its
+ * action builds. Error recovery still looks its actions up in the packed
+ * tables and goes through the Stack methods; it is rare enough.
+ * Symbol.used_by_parser is out of reach here, so unlike lr_parser this
+ * does not catch a scanner that returns a symbol twice; the scanners of
+ * this parser never do.
+ */
+public Symbol parse() throws Exception {
+    if (tables == null)
+        return super.parse();
+
+    production_tab = production_table();
+    action_tab = action_table();
+    reduce_tab = reduce_table();
+    init_actions();
+    user_init();
+
+    ParseStack stack = (ParseStack) this.stack;
+    cur_token = scan();
+    stack.removeAllElements();
+    stack.push(start_state(), 0, 0, 0, null);
+    tos = 0;
+
+    SymbolFactory factory = symbolFactory;
+    symbolFactory = reductions;
+    try {
+        return new Symbol(0, drive(stack).value);
+    } finally {
+        symbolFactory = factory;
+    }
+}
+
+/** Runs the parse on <tt>stack</tt> and returns the symbol it was accepted with. */
+private Symbol drive(ParseStack stack) throws Exception {
+    Symbol lhs = null;
+    for (_done_parsing = false; !_done_parsing; ) {
+        int act = tables.action(stack.state(), cur_token.sym);
+        if (act > 0) {
+            // shift
+            Symbol token = cur_token;
+            stack.push(act - 1, token.sym, token.left, token.right, token.value);
+            tos++;
+            cur_token = scan();
+        } else if (act < 0) {
+            // reduce
+            int production = -act - 1;
+            lhs = do_action(production, this, stack, tos);
+            int handle = production_tab[production][1];
+            stack.pop(handle);
+            tos -= handle;
+            lhs.parse_state = tables.reduce(stack.state(), production_tab[production][0]);
+            stack.push(lhs.parse_state, lhs.sym, lhs.left, lhs.right, lhs.value);
+            tos++;
+        } else {
+            syntax_error(cur_token);
+            if (!error_recovery(false)) {
+                unrecovered_syntax_error(cur_token);
+                done_parsing();
+            } else {
+                lhs = (Symbol) stack.peek();
+            }
+        }
     }
-    System.exit(-1);
+    return lhs;
+}
+
+/** where the top-level declarations go, null to keep them in the Program */
+private DeclListener declListener;
+
+/** Hands each top-level declaration to <tt>listener</tt> as it is parsed. */
+public void setDeclListener(DeclListener listener) {
+    declListener = listener;
+}
+
+/**
+ * Adds <tt>decl</tt> to <tt>list</tt>, or hands it to the DeclListener;
+ * a declaration dropped by error recovery is null.
+ */
+NodeList declared(NodeList list, Decl decl) throws Exception {
+    if (decl == null)
+        return list;
+    if (declListener == null)
+        return list.add(decl);
+    declListener.declaration(decl);
+    return list;
+}
+
+/** Returns the comments of the parsed input. */
+public Trivia getTrivia() {
+    return ((Lexer)getScanner()).getTrivia();
 }
 
 
@@ -182,75 +321,63 @@ class CUP$parser$actions {
       switch (CUP$parser$act_num)
         {
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 30: // id ::= ID 
+          case 31: // id ::= ID 
             {
               ID RESULT =null;
 		int ileft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int iright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		String i = (String)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		Name i = (Name)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT = new ID(i); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("id",14, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("id",12, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 29: // loc ::= id 
-            {
-              Expr RESULT =null;
-		int ileft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int iright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		ID i = (ID)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 RESULT = i; 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("loc",13, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
-            }
-          return CUP$parser$result;
-
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 28: // type ::= VOID 
+          case 30: // type ::= VOID 
             {
               Type RESULT =null;
 		 RESULT = new VoidType(); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("type",12, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("type",11, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 27: // type ::= INT 
+          case 29: // type ::= INT 
             {
               Type RESULT =null;
 		 RESULT = new IntType(); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("type",12, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("type",11, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 26: // term ::= INTLITERAL 
+          case 28: // exp ::= INTLITERAL 
             {
               Expr RESULT =null;
 		int ileft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int iright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Integer i = (Integer)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT = new IntLiteral(i); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("term",11, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",10, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 25: // term ::= loc 
+          case 27: // exp ::= ID 
             {
               Expr RESULT =null;
-		int lleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int lright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		Expr l = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 RESULT = l; 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("term",11, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+		int ileft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
+		int iright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
+		Name i = (Name)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		 RESULT = new ID(i); 
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",10, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 24: // binaryExpr ::= exp MINUS exp 
+          case 26: // exp ::= exp MINUS exp 
             {
-              BinaryExpr RESULT =null;
+              Expr RESULT =null;
 		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
 		int e1right = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
 		Expr e1 = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
@@ -258,14 +385,14 @@ class CUP$parser$actions {
 		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT = new MinusExpr(e1, e2); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("binaryExpr",18, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",10, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 23: // binaryExpr ::= exp PLUS exp 
+          case 25: // exp ::= exp PLUS exp 
             {
-              BinaryExpr RESULT =null;
+              Expr RESULT =null;
 		int e1left = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
 		int e1right = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
 		Expr e1 = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
@@ -273,126 +400,100 @@ class CUP$parser$actions {
 		int e2right = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Expr e2 = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT = new PlusExpr(e1, e2); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("binaryExpr",18, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",10, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 22: // exp ::= term 
-            {
-              Expr RESULT =null;
-		int tleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int tright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		Expr t = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 RESULT = t; 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",10, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
-            }
-          return CUP$parser$result;
-
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 21: // exp ::= binaryExpr 
-            {
-              Expr RESULT =null;
-		int bleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int bright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		BinaryExpr b = (BinaryExpr)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 RESULT = b; 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("exp",10, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
-            }
-          return CUP$parser$result;
-
-          /*. . . . . . . . . . . . . . . . . . . .*/
-          case 20: // assignStmt ::= loc ASSIGN exp 
+          case 24: // stmt ::= error SEMICOLON 
             {
               Stmt RESULT =null;
-		int lleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int lright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		Expr l = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 RESULT = new AssignStmt(l, e); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("assignStmt",15, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+		 RESULT = null; 
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",9, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 19: // stmt ::= assignStmt SEMICOLON 
+          case 23: // stmt ::= id ASSIGN exp SEMICOLON 
             {
               Stmt RESULT =null;
-		int aleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
-		int aright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		Stmt a = (Stmt)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
-		 RESULT = a; 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",9, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+		int lleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)).left;
+		int lright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)).right;
+		ID l = (ID)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-3)).value;
+		int eleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
+		int eright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
+		Expr e = (Expr)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		 RESULT = new AssignStmt(l, e); 
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("stmt",9, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 18: // stmtList ::= 
+          case 22: // stmtList ::= 
             {
-              LinkedList RESULT =null;
-		 RESULT = new LinkedList(); 
+              NodeList RESULT =null;
+		 RESULT = new NodeList(8); 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("stmtList",8, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 17: // stmtList ::= stmtList stmt 
+          case 21: // stmtList ::= stmtList stmt 
             {
-              LinkedList RESULT =null;
+              NodeList RESULT =null;
 		int lleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
 		int lright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList l = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		NodeList l = (NodeList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
 		int sleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int sright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Stmt s = (Stmt)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 l.addLast(s); RESULT = l; 
+		 RESULT = s != null ? l.add(s) : l; 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("stmtList",8, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 16: // varDeclList ::= 
+          case 20: // varDeclList ::= 
             {
-              LinkedList RESULT =null;
-		 RESULT = new LinkedList(); 
+              NodeList RESULT =null;
+		 RESULT = new NodeList(4); 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("varDeclList",3, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 15: // varDeclList ::= varDeclList varDecl 
+          case 19: // varDeclList ::= varDeclList varDecl 
             {
-              LinkedList RESULT =null;
+              NodeList RESULT =null;
 		int lleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
 		int lright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList l = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		NodeList l = (NodeList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
 		int varleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int varright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		VarDecl var = (VarDecl)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 l.addLast(var); RESULT = l; 
+		 RESULT = l.add(var); 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("varDeclList",3, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 14: // funcBody ::= LCURLY varDeclList stmtList RCURLY 
+          case 18: // funcBody ::= LCURLY varDeclList stmtList RCURLY 
             {
               FuncBody RESULT =null;
 		int vleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
 		int vright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		LinkedList v = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
+		NodeList v = (NodeList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
 		int sleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
 		int sright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList s = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
-		 RESULT = new FuncBody(new DeclList(v), new StmtList(s)); 
+		NodeList s = (NodeList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		 RESULT = new FuncBody(new DeclList(v.toArray(DeclList.NONE)),
+                                       new StmtList(s.toArray(StmtList.NONE))); 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("funcBody",7, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 13: // formalDecl ::= type id 
+          case 17: // formalDecl ::= type id 
             {
               FormalDecl RESULT =null;
 		int tleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
@@ -402,64 +503,84 @@ class CUP$parser$actions {
 		int iright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		ID i = (ID)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
 		 RESULT = new FormalDecl(t, i); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("formalDecl",16, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("formalDecl",13, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 12: // formalsList ::= 
+          case 16: // formalSeq ::= formalDecl 
             {
-              LinkedList RESULT =null;
-		 RESULT = new LinkedList(); 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("formalsList",17, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              NodeList RESULT =null;
+		int fmdleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
+		int fmdright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
+		FormalDecl fmd = (FormalDecl)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		 RESULT = new NodeList(4).add(fmd); 
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("formalSeq",15, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 11: // formalsList ::= formalDecl COMMA formalsList 
+          case 15: // formalSeq ::= formalSeq COMMA formalDecl 
             {
-              LinkedList RESULT =null;
-		int fmdleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
-		int fmdright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
-		FormalDecl fmd = (FormalDecl)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
-		int fmlleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int fmlright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		LinkedList fml = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 fml.addFirst(fmd); RESULT = fml; 
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("formalsList",17, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              NodeList RESULT =null;
+		int fsleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
+		int fsright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).right;
+		NodeList fs = (NodeList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-2)).value;
+		int fmdleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
+		int fmdright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
+		FormalDecl fmd = (FormalDecl)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		 RESULT = fs.add(fmd); 
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("formalSeq",15, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 10: // formalsList ::= formalDecl 
+          case 14: // formalsList ::= 
             {
-              LinkedList RESULT =null;
-		int fmdleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
-		int fmdright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		FormalDecl fmd = (FormalDecl)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		
-                LinkedList<FormalDecl> list = new LinkedList<FormalDecl>();
-                list.addLast(fmd);
-                RESULT = list;
-              
-              CUP$parser$result = parser.getSymbolFactory().newSymbol("formalsList",17, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+              NodeList RESULT =null;
+		 RESULT = new NodeList(1); 
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("formalsList",14, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+            }
+          return CUP$parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 13: // formalsList ::= formalSeq COMMA 
+            {
+              NodeList RESULT =null;
+		int fsleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
+		int fsright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
+		NodeList fs = (NodeList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		 RESULT = fs; 
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("formalsList",14, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 9: // formals ::= LPAREN formalsList RPAREN 
+          case 12: // formalsList ::= formalSeq 
+            {
+              NodeList RESULT =null;
+		int fsleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
+		int fsright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
+		NodeList fs = (NodeList)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		 RESULT = fs; 
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("formalsList",14, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+            }
+          return CUP$parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 11: // formals ::= LPAREN formalsList RPAREN 
             {
               FormalsList RESULT =null;
 		int flleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
 		int flright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList fl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
-		 RESULT = new FormalsList(fl); 
+		NodeList fl = (NodeList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		 RESULT = new FormalsList(fl.toArray(FormalsList.NONE)); 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("formals",6, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 8: // funcDef ::= type id formals funcBody 
+          case 10: // funcDef ::= type id formals funcBody 
             {
               FuncDef RESULT =null;
 		int tleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-3)).left;
@@ -480,7 +601,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 7: // varDecl ::= type id LSQBRACKET INTLITERAL RSQBRACKET SEMICOLON 
+          case 9: // varDecl ::= type id LSQBRACKET INTLITERAL RSQBRACKET SEMICOLON 
             {
               VarDecl RESULT =null;
 		int tleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-5)).left;
@@ -498,7 +619,7 @@ class CUP$parser$actions {
           return CUP$parser$result;
 
           /*. . . . . . . . . . . . . . . . . . . .*/
-          case 6: // varDecl ::= type id SEMICOLON 
+          case 8: // varDecl ::= type id SEMICOLON 
             {
               VarDecl RESULT =null;
 		int tleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-2)).left;
@@ -512,6 +633,24 @@ class CUP$parser$actions {
             }
           return CUP$parser$result;
 
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 7: // decl ::= error RCURLY 
+            {
+              Decl RESULT =null;
+		 RESULT = null; 
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("decl",2, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+            }
+          return CUP$parser$result;
+
+          /*. . . . . . . . . . . . . . . . . . . .*/
+          case 6: // decl ::= error SEMICOLON 
+            {
+              Decl RESULT =null;
+		 RESULT = null; 
+              CUP$parser$result = parser.getSymbolFactory().newSymbol("decl",2, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
+            }
+          return CUP$parser$result;
+
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 5: // decl ::= funcDef 
             {
@@ -539,8 +678,8 @@ class CUP$parser$actions {
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 3: // declList ::= 
             {
-              LinkedList RESULT =null;
-		 RESULT = new LinkedList(); 
+              NodeList RESULT =null;
+		 RESULT = new NodeList(64); 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("declList",1, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
@@ -548,14 +687,14 @@ class CUP$parser$actions {
           /*. . . . . . . . . . . . . . . . . . . .*/
           case 2: // declList ::= declList decl 
             {
-              LinkedList RESULT =null;
+              NodeList RESULT =null;
 		int dlleft = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).left;
 		int dlright = ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)).right;
-		LinkedList dl = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
+		NodeList dl = (NodeList)((java_cup.runtime.Symbol) CUP$parser$stack.elementAt(CUP$parser$top-1)).value;
 		int dleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int dright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
 		Decl d = (Decl)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 dl.addLast(d); RESULT = dl; 
+		 RESULT = parser.declared(dl, d); 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("declList",1, ((java_cup.runtime.Symbol)CUP$parser$stack.elementAt(CUP$parser$top-1)), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
@@ -566,8 +705,8 @@ class CUP$parser$actions {
               Program RESULT =null;
 		int dleft = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).left;
 		int dright = ((java_cup.runtime.Symbol)CUP$parser$stack.peek()).right;
-		LinkedList d = (LinkedList)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
-		 RESULT = new Program(new DeclList(d)); 
+		NodeList d = (NodeList)((java_cup.runtime.Symbol) CUP$parser$stack.peek()).value;
+		 RESULT = new Program(new DeclList(d.toArray(DeclList.NONE))); 
               CUP$parser$result = parser.getSymbolFactory().newSymbol("program",0, ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), ((java_cup.runtime.Symbol)CUP$parser$stack.peek()), RESULT);
             }
           return CUP$parser$result;
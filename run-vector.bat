@@ -0,0 +1,10 @@
+java -cp JFlex.jar JFlex.Main SimpleC.lex
+java -cp java-cup-11a.jar java_cup.Main -interface < SimpleC.cup
+javac -cp ;jflex.jar;java-cup-11a.jar *.java
+java -cp ;java-cup-11a.jar BinaryTables Scanner parser
+javac -cp ;jflex.jar;java-cup-11a.jar Scanner.java parser.java
+javac --add-modules jdk.incubator.vector -cp ;java-cup-11a.jar -d vector vector\VectorCharRuns.java
+javac -cp ;java-cup-11a.jar -d test test\Tokens.java test\CharRunsTest.java
+java --add-modules jdk.incubator.vector -cp ;vector;test;java-cup-11a.jar CharRunsTest
+java --add-modules jdk.incubator.vector -cp ;vector;jflex.jar;java-cup-11a.jar MyParser input.txt output.txt
+pause
\ No newline at end of file
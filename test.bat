@@ -0,0 +1,14 @@
+javac -cp ;java-cup-11a.jar *.java
+javac -cp ;java-cup-11a.jar -d test test\*.java
+java -cp ;test;java-cup-11a.jar ParallelLexerTest
+java -cp ;test;java-cup-11a.jar IncrementalLexerTest
+java -cp ;test;java-cup-11a.jar ScannerLinesTest
+java -cp ;test;java-cup-11a.jar TokenLimitTest
+java -cp ;test;java-cup-11a.jar DescentParserTest
+java -cp ;test;java-cup-11a.jar RecognizerTest
+java -cp ;test;java-cup-11a.jar ParallelParserTest
+java -cp ;test;java-cup-11a.jar ParserPoolTest
+java -cp ;test;java-cup-11a.jar PreprocessorTest
+java -cp ;test;java-cup-11a.jar ByteScannerTest
+java -cp ;test;java-cup-11a.jar BinaryTablesTest
+pause
\ No newline at end of file
@@ -0,0 +1,84 @@
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * Checks that Scanner and parser, patched as run.bat does, take their
+ * tables from the resources BinaryTables wrote, and that those hold what
+ * the generated code unpacks: the Scanner's tables entry by entry against
+ * its own zzUnpack methods, the parser's against the fingerprint taken
+ * from CUP's unpacking. A table asked for with another fingerprint, or
+ * one the resource lacks, must be unpacked as generated.
+ */
+public class BinaryTablesTest {
+    /** the tables of the Scanner and the methods JFlex unpacks them with */
+    static final String[][] SCANNER = {
+        {"ZZ_CMAP", "zzUnpackCMap"},
+        {"ZZ_ACTION", "zzUnpackAction"},
+        {"ZZ_ROWMAP", "zzUnpackRowMap"},
+        {"ZZ_TRANS", "zzUnpackTrans"},
+        {"ZZ_ATTRIBUTE", "zzUnpackAttribute"},
+    };
+
+    static final String[] PARSER = {"_production_table", "_action_table", "_reduce_table"};
+
+    public static void main(String[] args) throws Exception {
+        // the generated sources, as run.bat patches them
+        get(Scanner.class, "ZZ_TABLES");
+        get(parser.class, "_binary_tables");
+
+        int checked = 0;
+        BinaryTables tables = BinaryTables.of(Scanner.class);
+        for (String[] table : SCANNER) {
+            Object loaded = get(Scanner.class, table[0]);
+            Object unpacked = table[0].equals("ZZ_CMAP")
+                    ? invoke(Scanner.class, table[1], get(Scanner.class, "ZZ_CMAP_PACKED"))
+                    : invoke(Scanner.class, table[1]);
+            int fingerprint = loaded instanceof char[] ? Arrays.hashCode((char[]) loaded)
+                    : Arrays.hashCode((int[]) loaded);
+            Object read = loaded instanceof char[] ? tables.chars(table[0]) : tables.ints(table[0]);
+            if (!Arrays.deepEquals(new Object[] {loaded, read}, new Object[] {unpacked, unpacked}))
+                throw new AssertionError("Scanner." + table[0] + " differs from what " + table[1] + " unpacks");
+            expectRead(tables, "Scanner." + table[0], table[0], fingerprint);
+            checked++;
+        }
+
+        tables = BinaryTables.of(parser.class);
+        for (String table : PARSER) {
+            short[][] loaded = (short[][]) get(parser.class, table);
+            if (!Arrays.deepEquals(loaded, tables.rows(table)))
+                throw new AssertionError("parser." + table + " differs from its resource");
+            expectRead(tables, "parser." + table, table, Arrays.deepHashCode(loaded));
+            checked++;
+        }
+
+        if (tables.has("ZZ_TRANS", 0) || tables.has("_unknown_table", 0))
+            throw new AssertionError("parser.tables has a table it was not written with");
+        if (BinaryTables.of(BinaryTablesTest.class).has("ZZ_CMAP", 0))
+            throw new AssertionError("a class without a resource has tables");
+        System.out.println("BinaryTablesTest: " + checked + " tables OK");
+    }
+
+    /** Checks that <tt>name</tt> is read from <tt>tables</tt> with <tt>fingerprint</tt> only. */
+    static void expectRead(BinaryTables tables, String what, String name, int fingerprint) {
+        if (!tables.has(name, fingerprint))
+            throw new AssertionError(what + " is not read from its resource, or differs from what was written");
+        if (tables.has(name, fingerprint + 1))
+            throw new AssertionError(what + " is read with a fingerprint it was not written with");
+    }
+
+    static Object get(Class<?> owner, String name) throws Exception {
+        Field field = owner.getDeclaredField(name);
+        field.setAccessible(true);
+        return field.get(null);
+    }
+
+    static Object invoke(Class<?> owner, String name, Object... args) throws Exception {
+        Class<?>[] types = new Class<?>[args.length];
+        for (int i = 0; i < args.length; ++i)
+            types[i] = args[i].getClass();
+        Method method = owner.getDeclaredMethod(name, types);
+        method.setAccessible(true);
+        return method.invoke(null, args);
+    }
+}
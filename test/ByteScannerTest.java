@@ -0,0 +1,106 @@
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks that a ByteScanner gives what a Scanner over the decoded bytes
+ * gives, symbol by symbol and into a TokenBuffer: kinds, offsets, lines,
+ * columns, values, text, comments and messages. Sources with a char
+ * outside ASCII, anywhere in them, check the hand-over to the Scanner,
+ * which must go on as if it had lexed the whole input.
+ */
+public class ByteScannerTest {
+    static final String[] SOURCES = {
+        "int a = 0x1F + 07 + 12u - 1.5e3f; char c = '\\n'; s = \"a\\tb\\\"\";",
+        "x = L'a' + L\"wide\" + '\\x41' + '\\0' + .5 + 1. + 1e+5;",
+        "a <<= b >>= c != d == e <= f >= g && h || i ++ -- -> ... ## ;",
+        "/* a */ x // b\r\ny /* c\n d */ z",
+        "@ $ ` \\ \"open\n 'x\n '' 'ab' \"\\q\" '\\q'",
+        "int caf\u00e9 = 1;",
+        "int a; \u00e9 int b;",
+        "s = \"\u00e9t\u00e9\"; c = '\u00e9';",
+        "// \u20ac comment\nint a; /* \u00e9\n */ int b;",
+        "int a;\r\n/* c */\n\tint b; \u00a0 int c;\n\"\u00e9\n x",
+        "x\u000b\u000by\fz \u0085 w",
+        "int a = 1;\n\u00e9",
+    };
+
+    /** tokens, literals and the chars outside ASCII the random sources are made of */
+    static final String[] PIECES = {
+        "int", "x", "L", "v", " ", "\t", "\n", "\r\n", "\f", "\u000b", ";", "{", "}", "(", ")", "=", "+", "-",
+        "<", ">", "&", "|", "!", ".", "...", "1", "0x1f", "017", "1.5e3", "2f", "3u", "'a'", "'\\n'",
+        "'\\x4'", "\"s\"", "\"\\\"\"", "'", "\"", "\\", "/*", "*/", "//", "/", "*", "#", "@", "`",
+        "\u00e9", "\u20ac", "\u00a0", "\u0085", "\u2028",
+    };
+
+    public static void main(String[] args) throws Exception {
+        Charset charset = Charset.defaultCharset();
+        if (!ByteScanner.isAsciiCompatible(charset)) {
+            System.out.println("ByteScannerTest: skipped, " + charset + " is not read as ASCII bytes");
+            return;
+        }
+        int checked = 0;
+        for (String source : SOURCES) {
+            check(source);
+            checked++;
+        }
+        Random random = new Random(13);
+        for (int i = 0; i < 2000; ++i) {
+            String program = Programs.generate(random, 1 + random.nextInt(6));
+            check(program);
+            check(Programs.mutate(random, program));
+            check(Tokens.random(random, 1 + random.nextInt(30)));
+            StringBuilder pieces = new StringBuilder();
+            for (int j = random.nextInt(40); j > 0; --j)
+                pieces.append(PIECES[random.nextInt(PIECES.length)]);
+            check(pieces.toString());
+            checked += 4;
+        }
+        System.out.println("ByteScannerTest: " + checked + " sources OK");
+    }
+
+    static void check(String text) throws Exception {
+        // the bytes of a UTF-8 file, which both scanners read in the platform charset
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        char[] chars = new String(bytes, Charset.defaultCharset()).toCharArray();
+        String what = Tokens.quote(text);
+
+        String[] expected = lex(new Scanner(chars, 0, chars.length));
+        String[] actual = lex(new ByteScanner(bytes, 0, bytes.length));
+        String[] parts = {"symbols", "comments", "messages"};
+        for (int i = 0; i < parts.length; ++i)
+            Tokens.expect(List.of(expected[i].split("\n", -1)), List.of(actual[i].split("\n", -1)), what + ", " + parts[i]);
+
+        Diagnostics diagnostics = new Diagnostics(0, null);
+        Diagnostics.install(diagnostics);
+        List<String> tokens = Tokens.dump(new Scanner(chars, 0, chars.length).tokenize(new TokenBuffer()));
+        List<String> messages = Tokens.dump(diagnostics);
+        diagnostics = new Diagnostics(0, null);
+        Diagnostics.install(diagnostics);
+        List<String> byteTokens = Tokens.dump(new ByteScanner(bytes, 0, bytes.length).tokenize(new TokenBuffer()));
+        Diagnostics.install(null);
+        Tokens.expect(tokens, byteTokens, what + ", tokens");
+        Tokens.expect(messages, Tokens.dump(diagnostics), what + ", tokenize messages");
+    }
+
+    /** Returns the symbols of <tt>lexer</tt> with their text, its comments and its messages, a line each. */
+    static String[] lex(Lexer lexer) throws Exception {
+        Diagnostics diagnostics = new Diagnostics(0, null);
+        Diagnostics.install(diagnostics);
+        List<String> symbols = new ArrayList<>();
+        try {
+            MySymbol t;
+            do {
+                t = (MySymbol) lexer.next_token();
+                symbols.add(MySymbol.tokenName(t.sym) + " " + t.left + "-" + t.right + " " + t.getLine() + ":"
+                        + t.getColumn() + " " + t.value + " " + Tokens.quote(String.valueOf(lexer.yytext())));
+            } while (t.sym != sym.EOF);
+        } finally {
+            Diagnostics.install(null);
+        }
+        return new String[] {String.join("\n", symbols), String.join("\n", Tokens.dump(lexer.getTrivia())),
+                String.join("\n", Tokens.dump(diagnostics))};
+    }
+}
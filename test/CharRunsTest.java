@@ -0,0 +1,91 @@
+import java.util.Random;
+
+/**
+ * Checks the CharRuns that CharRuns.get() picks against the scalar loops
+ * of CharRuns itself, on runs ending at every position across several
+ * vector widths, with tails shorter than a vector, and with chars outside
+ * ASCII that the vector range tests must not take for run chars. Only
+ * meaningful under the vector build: run-vector.bat runs it with the
+ * incubator module, and without VectorCharRuns there is nothing to compare.
+ */
+public class CharRunsTest {
+    /** chars in a run of each kind */
+    static final String BLANKS = " \n\t\r\f";
+    static final String IDENTIFIER = "azAZ09_mQ5";
+    static final String COMMENT = "a */\n*/ x*";
+
+    /** chars that end a run, or that a wrong range test would let through */
+    static final String BREAKERS = "\u000b\u0000@[`{/:*\"\u007f\u0080\u00e9\u0130\u0141\u0161\u00a0\u8000"
+            + "\uff41\uffff\u0120\u0109";
+
+    /** the longest run tried, past two vectors of the widest species */
+    static final int LONGEST = 140;
+
+    public static void main(String[] args) {
+        CharRuns best = CharRuns.get();
+        CharRuns scalar = new CharRuns();
+        if (best.getClass() == CharRuns.class) {
+            System.out.println("CharRunsTest: skipped, no VectorCharRuns on the class path");
+            return;
+        }
+        int checked = 0;
+        for (int length = 0; length <= LONGEST; ++length) {
+            for (int at = 0; at <= length; ++at) {
+                for (char breaker : BREAKERS.toCharArray()) {
+                    checked += check(best, scalar, run(BLANKS, length, at, breaker), length);
+                    checked += check(best, scalar, run(IDENTIFIER, length, at, breaker), length);
+                }
+                // a "*&#47;" at every position, and a "*" whose "/" is past the end
+                char[] comment = run("ab\n", length, at, 'x');
+                if (at < length) {
+                    comment[at] = '*';
+                    if (at + 1 < length)
+                        comment[at + 1] = '/';
+                }
+                checked += check(best, scalar, comment, length);
+            }
+        }
+        Random random = new Random(12);
+        for (int i = 0; i < 100000; ++i) {
+            String chars = new String[] {BLANKS, IDENTIFIER, COMMENT}[random.nextInt(3)];
+            char[] buf = new char[random.nextInt(LONGEST + 1)];
+            for (int j = 0; j < buf.length; ++j) {
+                buf[j] = random.nextInt(20) == 0 ? BREAKERS.charAt(random.nextInt(BREAKERS.length()))
+                        : chars.charAt(random.nextInt(chars.length()));
+            }
+            checked += check(best, scalar, buf, buf.length);
+        }
+        System.out.println("CharRunsTest: " + best.getClass().getName() + ", " + checked + " runs OK");
+    }
+
+    /** Returns <tt>length</tt> chars of <tt>chars</tt>, with <tt>breaker</tt> at <tt>at</tt> if that is inside. */
+    static char[] run(String chars, int length, int at, char breaker) {
+        char[] buf = new char[length];
+        for (int i = 0; i < length; ++i)
+            buf[i] = chars.charAt(i % chars.length());
+        if (at < length)
+            buf[at] = breaker;
+        return buf;
+    }
+
+    /** Compares the three scans from the first few offsets to every end in the last few; returns how many. */
+    static int check(CharRuns best, CharRuns scalar, char[] buf, int length) {
+        int checked = 0;
+        for (int from = 0; from <= Math.min(2, length); ++from) {
+            for (int end = Math.max(from, length - 2); end <= length; ++end) {
+                expect(buf, from, end, "skipBlanks", scalar.skipBlanks(buf, from, end), best.skipBlanks(buf, from, end));
+                expect(buf, from, end, "skipIdentifier", scalar.skipIdentifier(buf, from, end),
+                        best.skipIdentifier(buf, from, end));
+                expect(buf, from, end, "skipComment", scalar.skipComment(buf, from, end), best.skipComment(buf, from, end));
+                checked += 3;
+            }
+        }
+        return checked;
+    }
+
+    static void expect(char[] buf, int from, int end, String scan, int expected, int actual) {
+        if (expected != actual)
+            throw new AssertionError(scan + "(" + Tokens.quote(new String(buf)) + ", " + from + ", " + end + ") is "
+                    + actual + ", expected " + expected);
+    }
+}
@@ -0,0 +1,138 @@
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks that DescentParser and the CUP parser agree on every input: the
+ * same tree, compared node by node on all fields rather than on what
+ * print() shows, the same messages and the same outcome. Broken inputs
+ * take both through error recovery.
+ */
+public class DescentParserTest {
+    static final String[] SOURCES = {
+        "",
+        "int x;",
+        "int a[10]; void f() { }",
+        "void f(int a, int b,) { int x; x = a; y = 1; }",
+        "int f(int a) { x = a + b - 1; }",
+        "int f(int a) { x = a - b - c; y = a + 1 - b; z = 1 - 2 + 3 - c; }",
+        "void f() { x = a - (b); }",
+        "void f() { x = ; y = 1; }",
+        "void f() { x = 1 y = 2; z = 3; }",
+        "int x int y; int z;",
+        "void f() { int x; x = 1; } } int y;",
+        "void f() { x = 1; int y; }",
+        "x; int y;",
+        "int ; int y;",
+        "void f() { x = @; y = 1; }",
+        "void f() { x = 1;",
+        "void f( { }",
+        "int a[x]; int b;",
+    };
+
+    /**
+     * statements and the trees of their expressions: PLUS and MINUS are of
+     * one precedence and associate to the left, so the leftmost operator is
+     * the deepest
+     */
+    static final String[][] EXPRESSIONS = {
+        {"x = a - b - c;", "(MinusExpr (MinusExpr (ID a) (ID b)) (ID c))"},
+        {"x = a + 1 - b;", "(MinusExpr (PlusExpr (ID a) (IntLiteral 1)) (ID b))"},
+        {"x = a - 1 + b;", "(PlusExpr (MinusExpr (ID a) (IntLiteral 1)) (ID b))"},
+        {"x = 1 - 2 + 3 - c;", "(MinusExpr (PlusExpr (MinusExpr (IntLiteral 1) (IntLiteral 2)) (IntLiteral 3)) (ID c))"},
+        {"x = a;", "(ID a)"},
+        {"x = 7;", "(IntLiteral 7)"},
+    };
+
+    public static void main(String[] args) throws Exception {
+        int checked = 0;
+        for (String[] expression : EXPRESSIONS) {
+            String source = "void f() { " + expression[0] + " }";
+            String expected = "(Program (DeclList [(FuncDef (VoidType) (ID f) (FormalsList []) (FuncBody (DeclList [])"
+                    + " (StmtList [(AssignStmt (ID x) " + expression[1] + ")])))]))";
+            String tree = parse(source, false)[0];
+            if (!tree.equals(expected))
+                throw new AssertionError(Tokens.quote(source) + ": the CUP parser gives\n  " + tree + "\nnot\n  " + expected);
+            check(source);
+            checked++;
+        }
+        for (String source : SOURCES) {
+            check(source);
+            checked++;
+        }
+        Random random = new Random(19);
+        for (int i = 0; i < 2000; ++i) {
+            String program = Programs.generate(random, 1 + random.nextInt(6));
+            check(program);
+            check(Programs.mutate(random, program));
+            checked += 2;
+        }
+        System.out.println("DescentParserTest: " + checked + " sources OK");
+    }
+
+    static void check(String source) throws Exception {
+        String[] cup = parse(source, false);
+        String[] descent = parse(source, true);
+        String[] parts = {"tree", "outcome", "messages"};
+        for (int i = 0; i < parts.length; ++i) {
+            if (!cup[i].equals(descent[i]))
+                throw new AssertionError(Tokens.quote(source) + ", " + parts[i] + ": DescentParser gives\n  "
+                        + descent[i] + "\nthe CUP parser\n  " + cup[i]);
+        }
+    }
+
+    /** Returns the tree, the outcome and the messages of a parse of <tt>source</tt>. */
+    static String[] parse(String source, boolean descent) throws Exception {
+        byte[] bytes = source.getBytes(StandardCharsets.US_ASCII);
+        Diagnostics diagnostics = new Diagnostics(Diagnostics.DEFAULT_LIMIT, null);
+        Diagnostics previous = Diagnostics.install(diagnostics);
+        Program program = null;
+        String outcome = "parsed";
+        try {
+            Lexer lexer = new ByteScanner(bytes, 0, bytes.length);
+            program = descent ? new DescentParser(lexer).parse() : (Program) new parser(lexer).parse().value;
+        } catch (Diagnostics.LimitExceeded e) {
+            outcome = "too many errors";
+        } catch (Exception e) {
+            outcome = e.getMessage();
+        } finally {
+            Diagnostics.install(previous);
+        }
+        return new String[] {dump(program), outcome, Tokens.dump(diagnostics).toString()};
+    }
+
+    /**
+     * Returns a node with all its fields, and theirs, as (Class field ...):
+     * what a tree holds, whatever its print() shows.
+     */
+    static String dump(Object node) throws IllegalAccessException {
+        if (node == null)
+            return "null";
+        if (node instanceof Name)
+            return node.toString();
+        if (node instanceof Object[]) {
+            List<String> items = new ArrayList<>();
+            for (Object item : (Object[]) node)
+                items.add(dump(item));
+            return items.toString();
+        }
+        if (!(node instanceof AST))
+            return String.valueOf(node);
+        StringBuilder text = new StringBuilder("(").append(node.getClass().getSimpleName());
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> c = node.getClass(); c != AST.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()))
+                    fields.add(field);
+            }
+        }
+        for (Field field : fields) {
+            field.setAccessible(true);
+            text.append(' ').append(dump(field.get(node)));
+        }
+        return text.append(')').toString();
+    }
+}
@@ -0,0 +1,62 @@
+import java.util.Random;
+
+/**
+ * Checks that IncrementalLexer keeps the tokens and comments a full relex
+ * of the edited text produces, over edits that open and close comments and
+ * string literals on other lines.
+ */
+public class IncrementalLexerTest {
+    /** a source and an edit of it: offset, removed, inserted */
+    static final Object[][] EDITS = {
+        // a " inserted on a later line closes a stray " before the edit
+        {"/\"\r*", 4, 0, "\"s\";"},
+        {"a \"b\nc;\nd;", 10, 0, "\""},
+
+        // a \ and line end, removed or split by a \r, or inserted, opens
+        // or breaks a string across lines
+        {"a \"b\\\nc;\nd\";", 4, 1, ""},
+        {"a \"b\\\nc;\nd\";", 5, 0, "\r"},
+        {"a \"b\"\nc;\nd\";", 3, 0, "\\\n"},
+
+        // a comment or a char literal closed or opened on a later line
+        {"a /* b\nc;\nd;", 9, 0, "*/"},
+        {"a /* b\nc;\nd */;", 11, 2, ""},
+        {"a ' b\nc;\nd';", 4, 0, "'"},
+    };
+
+    public static void main(String[] args) throws Exception {
+        Diagnostics.install(new Diagnostics(0, null));
+        int checked = 0;
+        for (Object[] edit : EDITS) {
+            String text = (String) edit[0];
+            IncrementalLexer lexer = new IncrementalLexer(text.toCharArray(), text.length());
+            edit(lexer, (Integer) edit[1], (Integer) edit[2], (String) edit[3]);
+            checked++;
+        }
+        Random random = new Random(10);
+        for (int i = 0; i < 500; ++i) {
+            String text = Tokens.random(random, 20 + random.nextInt(40));
+            IncrementalLexer lexer = new IncrementalLexer(text.toCharArray(), text.length());
+            for (int j = 0; j < 10; ++j) {
+                int length = lexer.getText().length();
+                int offset = random.nextInt(length + 1);
+                int removed = random.nextInt(Math.min(4, length - offset) + 1);
+                edit(lexer, offset, removed, Tokens.random(random, random.nextInt(3)));
+                checked++;
+            }
+        }
+        System.out.println("IncrementalLexerTest: " + checked + " edits OK");
+    }
+
+    static void edit(IncrementalLexer lexer, int offset, int removed, String inserted) throws Exception {
+        String before = lexer.getText();
+        lexer.edit(offset, removed, inserted);
+        char[] text = lexer.getText().toCharArray();
+        Scanner scanner = new Scanner(text, 0, text.length);
+        TokenBuffer full = scanner.tokenize(new TokenBuffer());
+
+        String what = Tokens.quote(before) + " edited at " + offset + ", -" + removed + " +" + Tokens.quote(inserted);
+        Tokens.expect(Tokens.dump(full), Tokens.dump(lexer.getTokens()), what + ", tokens");
+        Tokens.expect(Tokens.dump(scanner.getTrivia()), Tokens.dump(lexer.getTrivia()), what + ", comments");
+    }
+}
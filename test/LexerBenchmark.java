@@ -0,0 +1,115 @@
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures lexing with the keywords found by Keywords.lookup: the Scanner
+ * over chars and the ByteScanner over bytes, each into a TokenBuffer, and
+ * the lookup alone over every word of the input. The input is a file given
+ * as argument, or generated C of about 20 MB, dense in keywords, comments
+ * and literals; --write saves the generated input, to lex the same text
+ * with another build.
+ *
+ * Usage: LexerBenchmark [file [rounds]]
+ *        LexerBenchmark --write file [bytes]
+ */
+public class LexerBenchmark {
+    static final String[] NAMES = {"i", "j", "count", "value", "buffer_len", "x1", "_tmp", "result", "alpha", "beta"};
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 1 && args[0].equals("--write")) {
+            int size = args.length > 2 ? Integer.parseInt(args[2]) : 20 << 20;
+            Files.write(Paths.get(args[1]), generate(new Random(1), size).getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        byte[] bytes = args.length > 0 ? Files.readAllBytes(Paths.get(args[0]))
+                : generate(new Random(1), 20 << 20).getBytes(StandardCharsets.US_ASCII);
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 15;
+        char[] chars = Scanner.decode(bytes, bytes.length);
+        Diagnostics.install(new Diagnostics(0, null));
+
+        TokenBuffer tokens = new TokenBuffer();
+        List<char[]> words = words(chars, new ByteScanner(bytes, 0, bytes.length).tokenize(tokens));
+        System.out.println(bytes.length + " bytes, " + tokens.size() + " tokens, " + words.size() + " words");
+        long scanner = Long.MAX_VALUE;
+        long byteScanner = Long.MAX_VALUE;
+        long lookup = Long.MAX_VALUE;
+        for (int round = 0; round < rounds; ++round) {
+            tokens.clear();
+            long start = System.nanoTime();
+            new Scanner(chars, 0, chars.length).tokenize(tokens);
+            scanner = Math.min(scanner, System.nanoTime() - start);
+
+            tokens.clear();
+            start = System.nanoTime();
+            new ByteScanner(bytes, 0, bytes.length).tokenize(tokens);
+            byteScanner = Math.min(byteScanner, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            int keywords = 0;
+            for (char[] word : words) {
+                if (Keywords.lookup(word, 0, word.length) >= 0)
+                    keywords++;
+            }
+            lookup = Math.min(lookup, System.nanoTime() - start);
+            if (keywords == 0)
+                throw new IllegalStateException("no keywords");
+        }
+        System.out.printf("best of %d: Scanner %.1f ms, ByteScanner %.1f ms, lookup %.1f ms (%.1f ns/word)%n", rounds,
+                scanner / 1e6, byteScanner / 1e6, lookup / 1e6, (double) lookup / words.size());
+    }
+
+    /** Returns the text of every ID and keyword token. */
+    static List<char[]> words(char[] chars, TokenBuffer tokens) {
+        List<char[]> words = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); ++i) {
+            int start = tokens.getStart(i);
+            int length = tokens.getLength(i);
+            if (length > 0 && CharRuns.isIdentifierPart(chars[start]) && !Character.isDigit(chars[start]))
+                words.add(Arrays.copyOfRange(chars, start, start + length));
+        }
+        return words;
+    }
+
+    /** Returns C text of about <tt>size</tt> chars: statements, declarations, comments and literals. */
+    static String generate(Random random, int size) {
+        StringBuilder text = new StringBuilder(size + 200);
+        while (text.length() < size) {
+            double r = random.nextDouble();
+            if (r < .08) {
+                text.append("/*");
+                for (int i = 3 + random.nextInt(38); i > 0; --i)
+                    text.append(' ').append(NAMES[random.nextInt(NAMES.length)]);
+                text.append("\n * more text here */\n");
+            } else if (r < .15) {
+                text.append("//");
+                for (int i = 1 + random.nextInt(10); i > 0; --i)
+                    text.append(" comment");
+                text.append('\n');
+            } else if (r < .2) {
+                text.append("\tchar *s = L\"hello \\\"world\\\" ").append(random.nextInt(100)).append("\\n\";\n");
+            } else if (r < .25) {
+                text.append("\tc = 'a' + '\\n' + '\\x41';\n");
+            } else if (r < .35) {
+                text.append("\tdouble d = ").append(random.nextInt(1000)).append('.').append(random.nextInt(1000))
+                        .append('e').append(random.nextInt(31)).append(" + .5f - 1.0;\n");
+            } else if (r < .45) {
+                text.append("\tunsigned long x = 0x").append(Integer.toHexString(random.nextInt(1 << 30)).toUpperCase())
+                        .append("UL | 017 | ").append(random.nextInt(1 << 20)).append(";\n");
+            } else {
+                text.append(String.format("\tif (%s <= %s && %s != %s) { %s += %s->%s; } else { return %s[%s]++; }%n",
+                        name(random), name(random), name(random), name(random), name(random), name(random),
+                        name(random), name(random), name(random)));
+            }
+        }
+        return text.toString();
+    }
+
+    static String name(Random random) {
+        return random.nextInt(10) < 7 ? NAMES[random.nextInt(NAMES.length)] : "v" + random.nextInt(5001);
+    }
+}
@@ -0,0 +1,77 @@
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Checks that ParallelLexer produces the token stream, comments and
+ * messages of one sequential Scanner, with chunks small enough that every
+ * line end is a candidate cut.
+ *
+ * The sources put stray quotes, escapes and comment markers on either side
+ * of line ends: a ' or " that opens no literal is an illegal character,
+ * and the text after it is lexed again, so a " or /* after it may open a
+ * string or comment that crosses the line.
+ */
+public class ParallelLexerTest {
+    static final String[] SOURCES = {
+        // a stray ' before a " or /* on the same line, which then opens a
+        // string or comment that goes on past the line end
+        "int a; x ' \"\nint b;\n\" c;\n",
+        "int a; '/*\r int b;\n */ c;\n",
+        "'/*\r\n x;\n */\n",
+
+        // a ' that opens no char literal: '' is empty, \x takes no digit or
+        // a non-hex one, \' escapes the closing quote; then some that close
+        "a '' \"\n b;\n\";\n",
+        "a '\\x' /*\n b;\n */\n",
+        "a '\\xg' \"\n b;\n\"\n",
+        "a '\\'\n\" b;\n\";\n",
+        "a 'b' \"c\" '\\n' '\\x41'\n d;\n",
+
+        // a \ before the line end in a string, which ends no literal
+        "a \"b\\\nc\" /*\n d;\n */\n",
+        "a \"b\\\r\nc\";\n d;\n",
+
+        // quotes alone on their lines, and quotes in comments
+        "L'\n\"\nL\"\n'\n",
+        "// '\n\" \n\"\n/* ' */\n'\"'\n",
+        "\"\n'\n\"\n'\n",
+        "'\n'\n'\n",
+    };
+
+    public static void main(String[] args) throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        int checked = 0;
+        for (String source : SOURCES) {
+            check(pool, source);
+            checked++;
+        }
+        Random random = new Random(9);
+        for (int i = 0; i < 3000; ++i) {
+            check(pool, Tokens.random(random, 10 + random.nextInt(60)));
+            checked++;
+        }
+        pool.shutdown();
+        System.out.println("ParallelLexerTest: " + checked + " sources OK");
+    }
+
+    static void check(ForkJoinPool pool, String text) throws Exception {
+        char[] source = text.toCharArray();
+        Diagnostics expected = new Diagnostics(0, null);
+        Diagnostics.install(expected);
+        Scanner scanner = new Scanner(source, 0, source.length);
+        TokenBuffer sequential = scanner.tokenize(new TokenBuffer());
+
+        for (int chunk : new int[] {1, 3, 8}) {
+            Diagnostics actual = new Diagnostics(0, null);
+            Diagnostics.install(actual);
+            ParallelLexer lexer = new ParallelLexer(pool, chunk);
+            TokenBuffer parallel = lexer.tokenize(source, 0, source.length, new TokenBuffer());
+
+            String what = Tokens.quote(text) + " in chunks of " + chunk;
+            Tokens.expect(Tokens.dump(sequential), Tokens.dump(parallel), what + ", tokens");
+            Tokens.expect(Tokens.dump(scanner.getTrivia()), Tokens.dump(lexer.getTrivia()), what + ", comments");
+            Tokens.expect(Tokens.dump(expected), Tokens.dump(actual), what + ", messages");
+        }
+        Diagnostics.install(null);
+    }
+}
@@ -0,0 +1,141 @@
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.Random;
+
+/**
+ * Checks the --parallel path of MyParser against a parse straight from the
+ * lexer, for a file lexed by ParallelLexer and for one with directives:
+ * the same tree, outcome and messages, in the same order, with the CUP
+ * parser and with DescentParser. A source with an error must make
+ * ParallelParser give up, and is parsed again from its tokens, which must
+ * report what the lexer and the parser would have.
+ */
+public class ParallelParserTest {
+    static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    static final String[] SOURCES = {
+        "int a; int b; void f() { a = 1; } int c[3];",
+        "int a; @ int b; void f() { a = 'xy'; }",
+        "int a; void f() { a = 1 + ; } int b; void g() { b = 2; }",
+        "int a; } int b;",
+        "int a; \"s\n int b;",
+        "void f() { x = 1; y = 2 } int z; void g() { } int w",
+    };
+
+    /** an included file with an error, which must be reported in it and not on the #include line */
+    static final String HEADER = "int h;\nint ;\n";
+    static final String MAIN = "#define N 4\nint a[N];\n#include \"h.h\"\nvoid f() { a = N +; }\nint b;\n";
+
+    public static void main(String[] args) throws Exception {
+        int checked = 0;
+        for (String source : SOURCES) {
+            check(source);
+            checked++;
+        }
+        Random random = new Random(25);
+        for (int i = 0; i < 2000; ++i) {
+            String program = Programs.generate(random, 1 + random.nextInt(8));
+            check(program);
+            check(Programs.mutate(random, program));
+            check(program + Tokens.random(random, 6) + program);
+            checked += 3;
+        }
+
+        Path dir = Files.createTempDirectory("parallel");
+        try {
+            Files.write(dir.resolve("h.h"), HEADER.getBytes(StandardCharsets.US_ASCII));
+            Files.write(dir.resolve("main.c"), MAIN.getBytes(StandardCharsets.US_ASCII));
+            String main = dir.resolve("main.c").toString();
+            for (boolean descent : new boolean[] {false, true}) {
+                String[] expected = parse(null, Preprocessor.fromFile(main), descent, 0);
+                expect(MAIN, expected, parse(null, Preprocessor.fromFile(main), descent, 1), descent);
+                if (!expected[2].contains("At line: 2, column: 5"))
+                    throw new AssertionError("the error of h.h is reported as " + expected[2]);
+            }
+            checked++;
+        } finally {
+            Files.deleteIfExists(dir.resolve("h.h"));
+            Files.deleteIfExists(dir.resolve("main.c"));
+            Files.delete(dir);
+        }
+        System.out.println("ParallelParserTest: " + checked + " sources OK");
+    }
+
+    static void check(String source) throws Exception {
+        byte[] bytes = source.getBytes(StandardCharsets.ISO_8859_1);
+        for (boolean descent : new boolean[] {false, true}) {
+            String[] expected = parse(source, new ByteScanner(bytes, 0, bytes.length), descent, 0);
+            for (int slice : new int[] {1, 3}) {
+                String[] actual = parse(source, new ByteScanner(bytes, 0, bytes.length), descent, slice);
+                expect(source, expected, actual, descent);
+                // a tree from the slices exactly when the input has no error
+                boolean errors = expected[2].contains("**ERROR**");
+                if (errors == actual[3].equals("slices"))
+                    throw new AssertionError(Tokens.quote(source) + ": parsed by " + actual[3] + " with " + expected[2]);
+            }
+        }
+    }
+
+    static void expect(String source, String[] expected, String[] actual, boolean descent) {
+        String[] parts = {"tree", "outcome", "messages"};
+        for (int i = 0; i < parts.length; ++i) {
+            if (!expected[i].equals(actual[i]))
+                throw new AssertionError(Tokens.quote(source) + ", " + parts[i] + (descent ? ", descent" : ", CUP")
+                        + ": --parallel gives\n  " + actual[i] + "\nnot\n  " + expected[i]);
+        }
+    }
+
+    /**
+     * Returns the tree, the outcome and the messages of a parse of what
+     * <tt>lexer</tt> reads, and what built the tree: straight from the lexer
+     * for a slice of 0, else as MyParser --parallel does, with slices of at
+     * least <tt>slice</tt> tokens. The <tt>source</tt> of a lexer other than
+     * a Preprocessor is lexed in parallel, in chunks of a few chars.
+     */
+    static String[] parse(String source, Lexer lexer, boolean descent, int slice) throws Exception {
+        Diagnostics diagnostics = new Diagnostics(Diagnostics.DEFAULT_LIMIT, null);
+        Diagnostics previous = Diagnostics.install(diagnostics);
+        Program program = null;
+        String outcome = "parsed";
+        String by = "lexer";
+        try {
+            java_cup.runtime.Scanner input = lexer;
+            if (slice > 0) {
+                Diagnostics lexed = new Diagnostics(0, null);
+                TokenSlices tokens;
+                if (lexer instanceof Preprocessor) {
+                    RecordedTokens recorded = new RecordedTokens(lexer, lexed);
+                    tokens = recorded;
+                    input = recorded;
+                } else {
+                    char[] chars = source.toCharArray();
+                    TokenBuffer buffer = new TokenBuffer();
+                    Diagnostics.install(lexed);
+                    try {
+                        new ParallelLexer(POOL, 4).tokenize(chars, 0, chars.length, buffer);
+                    } finally {
+                        Diagnostics.install(diagnostics);
+                    }
+                    tokens = buffer;
+                    input = new TokenStream(buffer, lexed);
+                }
+                if (lexed.getErrorCount() == 0)
+                    program = new ParallelParser(POOL, slice, descent).parse(tokens);
+                if (program != null)
+                    lexed.replay();
+                by = program != null ? "slices" : "tokens";
+            }
+            if (program == null)
+                program = descent ? new DescentParser(input).parse() : (Program) new parser(input).parse().value;
+        } catch (Diagnostics.LimitExceeded e) {
+            outcome = "too many errors";
+        } catch (Exception e) {
+            outcome = e.getMessage();
+        } finally {
+            Diagnostics.install(previous);
+        }
+        return new String[] {DescentParserTest.dump(program), outcome, Tokens.dump(diagnostics).toString(), by};
+    }
+}
@@ -0,0 +1,40 @@
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Compares the throughput of the CUP parser and DescentParser on one
+ * input held in memory, lexing included: a file given as argument, or a
+ * generated program of some 13 MB.
+ *
+ * Usage: ParserBenchmark [file [rounds]]
+ */
+public class ParserBenchmark {
+    public static void main(String[] args) throws Exception {
+        byte[] bytes = args.length > 0 ? Files.readAllBytes(Paths.get(args[0]))
+                : Programs.generate(new Random(1), 200000).getBytes(StandardCharsets.US_ASCII);
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Diagnostics.install(new Diagnostics(0, null));
+        TokenBuffer tokens = new ByteScanner(bytes, 0, bytes.length).tokenize(new TokenBuffer());
+        System.out.println(bytes.length + " bytes, " + tokens.size() + " tokens");
+        for (int round = 1; round <= rounds; ++round) {
+            long cup = time(bytes, false);
+            long descent = time(bytes, true);
+            System.out.printf("round %d: cup %d ms (%.1f ns/token), descent %d ms (%.1f ns/token)%n", round,
+                    cup / 1000000, (double) cup / tokens.size(), descent / 1000000, (double) descent / tokens.size());
+        }
+    }
+
+    /** Returns the nanoseconds one parse of <tt>bytes</tt> takes. */
+    static long time(byte[] bytes, boolean descent) throws Exception {
+        long start = System.nanoTime();
+        Lexer lexer = new ByteScanner(bytes, 0, bytes.length);
+        Program program = descent ? new DescentParser(lexer).parse() : (Program) new parser(lexer).parse().value;
+        long time = System.nanoTime() - start;
+        if (program == null)
+            throw new IllegalStateException("no tree");
+        return time;
+    }
+}
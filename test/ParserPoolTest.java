@@ -0,0 +1,55 @@
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks that a ParserPool, reused for input after input from files and
+ * Readers, builds the trees a fresh parser does, that the trees it handed
+ * out stay whole after the next inputs, and that it keeps the names of
+ * its inputs out of the global NameTable.
+ */
+public class ParserPoolTest {
+    public static void main(String[] args) throws Exception {
+        Random random = new Random(3);
+        Path file = Files.createTempFile("pool", ".c");
+        int checked = 0;
+        try {
+            ParserPool pool = ParserPool.get();
+            List<Program> trees = new ArrayList<>();
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < 500; ++i) {
+                String source = Programs.generate(random, 1 + random.nextInt(6));
+                if (i % 3 == 0)
+                    source = Programs.mutate(random, source);
+                // a name new to the global table each time
+                source = source.replace("x", "x" + i);
+
+                int global = NameTable.global.size();
+                Program program;
+                if (i % 2 == 0) {
+                    Files.write(file, source.getBytes(StandardCharsets.US_ASCII));
+                    program = pool.parse(file.toString());
+                } else {
+                    program = pool.parse(new StringReader(source));
+                }
+                if (NameTable.global.size() != global)
+                    throw new AssertionError(Tokens.quote(source) + ": the pool added "
+                            + (NameTable.global.size() - global) + " names to the global table");
+                String tree = DescentParserTest.parse(source, false)[0];
+                Tokens.expect(List.of(tree), List.of(DescentParserTest.dump(program)), Tokens.quote(source) + ", tree");
+                trees.add(program);
+                expected.add(tree);
+                checked++;
+            }
+            for (int i = 0; i < trees.size(); ++i)
+                Tokens.expect(List.of(expected.get(i)), List.of(DescentParserTest.dump(trees.get(i))), "tree " + i + " later");
+        } finally {
+            Files.delete(file);
+        }
+        System.out.println("ParserPoolTest: " + checked + " sources OK");
+    }
+}
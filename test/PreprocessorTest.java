@@ -0,0 +1,206 @@
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java_cup.runtime.Symbol;
+
+/**
+ * Checks the Preprocessor on small files written to a temporary directory:
+ * macro expansion, conditionals, the raw skip of an inactive branch,
+ * include guards, the cache of included files and the errors of
+ * #include. The tokens it hands out are compared, kind and value, with
+ * those a Scanner gives for the text the preprocessing should come to,
+ * and its messages with the ones expected.
+ */
+public class PreprocessorTest {
+    /** a source, the text it preprocesses to, and its messages */
+    static final String[][] CASES = {
+        // object-like and function-like macros
+        {"#define N 4\nint a[N];\n", "int a[4];"},
+        {"#define ADD(a, b) (a + b)\nx = ADD(1, y * 2);\n", "x = (1 + y * 2);"},
+        {"#define F(x) G(x)\n#define G(x) x + 1\ny = F(2);\n", "y = 2 + 1;"},
+        {"#define x x + 1\ny = x;\n", "y = x + 1;"},
+        {"#define E() 7\n#define O (1)\ny = E() + O;\n", "y = 7 + (1);"},
+        {"#define N 4\n#undef N\nint a[N];\n", "int a[N];"},
+        {"#define LONG 1 + \\\n 2\nx = LONG;\n", "x = 1 + 2;"},
+        {"#define P(f, ...) g(f, __VA_ARGS__)\nP(1, 2, 3);\n", "g(1, 2, 3);"},
+        {"#define V(...) h(__VA_ARGS__)\nV(a, (b, c));\n", "h(a, (b, c));"},
+        {"#define ADD(a, b) (a + b)\nx = ADD(1);\n", "x = ADD(1);",
+            "At line: 2, column: 5 **ERROR** Macro ADD takes 2 arguments, 1 given"},
+
+        // nested conditionals
+        {"#define A\n#ifdef A\n#if 0\nno;\n#else\n#ifndef B\nyes;\n#else\nno;\n#endif\n#endif\n#else\nno;\n#endif\n",
+            "yes;"},
+        {"#define N 2\n#if N > 3\nno;\n#elif defined(N) && N == 2\nyes;\n#elif 1\nno;\n#else\nno;\n#endif\n",
+            "yes;"},
+        {"#ifdef A\n#ifdef B\nno;\n#endif\n#else\n#ifndef A\nyes;\n#endif\n#endif\nend;\n", "yes; end;"},
+        {"#if 1\nyes;\n#else\nno;\n#else\n#endif\n", "yes;",
+            "At line: 5, column: 1 **ERROR** #else after #else"},
+        {"#endif\nx;\n", "x;", "At line: 1, column: 1 **ERROR** #endif without #if"},
+        {"#if 1\nx;\n", "x;", "At line: 1, column: 1 **ERROR** Unterminated conditional directive"},
+
+        // an inactive branch, skipped without being lexed
+        {"#if 0\n/* #endif */ \"#endif\" '#' // #else\n\"unterminated #endif\n'\n/*\n#endif\n*/\n"
+                + "#if 1\n#else\n#endif\n@ `\n#bogus\n#error not reached\n#else\nyes;\n#endif\n",
+            "yes;"},
+        {"#ifdef UNDEFINED\n#define X \\\n#endif\nno;\n#endif\nX;\n", "X;"},
+    };
+
+    static final String GUARDED = "/* a header */\n#ifndef H_H\n#define H_H\nint h;\n#endif\n";
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("preprocessor");
+        int checked = 0;
+        try {
+            for (String[] c : CASES) {
+                check(dir, c[0], c[1], Arrays.asList(c).subList(2, c.length));
+                checked++;
+            }
+            checkNameTable(dir);
+            checkGuard(dir);
+            checkCache(dir);
+            checkIncludeErrors(dir);
+            checked += 4;
+        } finally {
+            try (java.util.stream.Stream<Path> files = Files.list(dir)) {
+                for (Path file : (Iterable<Path>) files::iterator)
+                    Files.delete(file);
+            }
+            Files.delete(dir);
+        }
+        System.out.println("PreprocessorTest: " + checked + " cases OK");
+    }
+
+    static void check(Path dir, String source, String expected, List<String> messages) throws Exception {
+        Path file = write(dir, "main.c", source);
+        String[] actual = preprocess((Preprocessor) Preprocessor.fromFile(file.toString()));
+        Tokens.expect(lex(expected), Arrays.asList(actual[0].split("\n", -1)), Tokens.quote(source) + ", tokens");
+        Tokens.expect(messages, lines(actual[1]), Tokens.quote(source) + ", messages");
+    }
+
+    /** A macro with "..." expands __VA_ARGS__ named in a table other than the global one. */
+    static void checkNameTable(Path dir) throws Exception {
+        String source = "#define P(f, ...) g(f, __VA_ARGS__)\nP(1, x);\n";
+        Path file = write(dir, "main.c", source);
+        Preprocessor preprocessor = (Preprocessor) Preprocessor.fromFile(file.toString());
+        preprocessor.setNameTable(new NameTable());
+        String[] actual = preprocess(preprocessor);
+        Tokens.expect(lex("g(1, x);"), Arrays.asList(actual[0].split("\n", -1)), "own NameTable, tokens");
+        Tokens.expect(List.of(), lines(actual[1]), "own NameTable, messages");
+    }
+
+    /**
+     * A header whose tokens all sit in one #ifndef group is not read again
+     * while its macro is defined: it is deleted between two includes of it,
+     * which a second read would fail on. Once the macro is undefined, it
+     * is looked for again.
+     */
+    static void checkGuard(Path dir) throws Exception {
+        Path header = write(dir, "h.h", GUARDED);
+        Path file = write(dir, "main.c", "#include \"h.h\"\nmid;\n#include \"h.h\"\nend;\n#undef H_H\n#include \"h.h\"\n");
+        Diagnostics diagnostics = new Diagnostics(0, null);
+        Diagnostics previous = Diagnostics.install(diagnostics);
+        try {
+            Lexer lexer = Preprocessor.fromFile(file.toString());
+            List<String> tokens = new ArrayList<>();
+            while (tokens.size() < 5)
+                tokens.add(token(lexer.next_token()));
+            Tokens.expect(lex("int h; mid;"), tokens, "guarded header, first include");
+            Files.delete(header);
+            for (Symbol t; (t = lexer.next_token()).sym != sym.EOF; )
+                tokens.add(token(t));
+            Tokens.expect(lex("int h; mid; end;"), tokens, "guarded header, second include");
+            Tokens.expect(List.of("At line: 6, column: 1 **ERROR** Include file h.h not found"),
+                    Tokens.dump(diagnostics), "guarded header, after #undef");
+        } finally {
+            Diagnostics.install(previous);
+        }
+    }
+
+    /**
+     * An included file is read again when its size or its time changes,
+     * and taken from the cache while both stay the same.
+     */
+    static void checkCache(Path dir) throws Exception {
+        Path header = write(dir, "c.h", "int a;\n");
+        Path file = write(dir, "main.c", "#include \"c.h\"\n");
+        FileTime time = Files.getLastModifiedTime(header);
+        expectInclude(file, "int a;", "first read");
+
+        write(dir, "c.h", "int bb;\n");
+        Files.setLastModifiedTime(header, time);
+        expectInclude(file, "int bb;", "size changed");
+
+        write(dir, "c.h", "int cc;\n");
+        Files.setLastModifiedTime(header, time);
+        expectInclude(file, "int bb;", "nothing changed");
+
+        Files.setLastModifiedTime(header, FileTime.fromMillis(time.toMillis() + 10000));
+        expectInclude(file, "int cc;", "time changed");
+    }
+
+    static void expectInclude(Path file, String expected, String what) throws Exception {
+        String[] actual = preprocess((Preprocessor) Preprocessor.fromFile(file.toString()));
+        Tokens.expect(lex(expected), Arrays.asList(actual[0].split("\n", -1)), "cache, " + what);
+    }
+
+    /** The errors of #include, each on the line of the directive, and an error in a header on its own line. */
+    static void checkIncludeErrors(Path dir) throws Exception {
+        write(dir, "bad.h", "int b;\n#include\n");
+        write(dir, "self.h", "int s;\n#include \"self.h\"\n");
+        check(dir, "#include\n#include <stdio.h>\n#include \"missing.h\"\n#include nothing\nx;\n", "x;", List.of(
+                "At line: 1, column: 1 **ERROR** #include expects \"FILENAME\" or <FILENAME>",
+                "At line: 2, column: 1 **ERROR** Include file stdio.h not found",
+                "At line: 3, column: 1 **ERROR** Include file missing.h not found",
+                "At line: 4, column: 1 **ERROR** #include expects \"FILENAME\" or <FILENAME>"));
+        check(dir, "#include \"bad.h\"\nx;\n", "int b; x;", List.of(
+                "At line: 2, column: 1 **ERROR** #include expects \"FILENAME\" or <FILENAME>"));
+
+        StringBuilder nested = new StringBuilder();
+        for (int i = 0; i < 199; ++i)
+            nested.append(" int s;");
+        check(dir, "#include \"self.h\"\nx;\n", nested + " x;", List.of(
+                "At line: 2, column: 1 **ERROR** #include nested more than 200 deep"));
+    }
+
+    /** Returns the tokens a Preprocessor hands out, one per line, and its messages. */
+    static String[] preprocess(Preprocessor preprocessor) throws Exception {
+        Diagnostics diagnostics = new Diagnostics(0, null);
+        Diagnostics previous = Diagnostics.install(diagnostics);
+        try {
+            List<String> tokens = new ArrayList<>();
+            for (Symbol t; (t = preprocessor.next_token()).sym != sym.EOF; )
+                tokens.add(token(t));
+            return new String[] {String.join("\n", tokens), String.join("\n", Tokens.dump(diagnostics))};
+        } finally {
+            Diagnostics.install(previous);
+        }
+    }
+
+    /** Returns the kind and value of each token of <tt>text</tt>, as a Scanner lexes it. */
+    static List<String> lex(String text) throws Exception {
+        char[] chars = text.toCharArray();
+        Scanner scanner = new Scanner(chars, 0, chars.length);
+        List<String> tokens = new ArrayList<>();
+        for (Symbol t; (t = scanner.next_token()).sym != sym.EOF; )
+            tokens.add(token(t));
+        if (tokens.isEmpty())
+            tokens.add("");
+        return tokens;
+    }
+
+    static String token(Symbol t) {
+        return MySymbol.tokenName(t.sym) + (t.value == null ? "" : " " + t.value);
+    }
+
+    static List<String> lines(String text) {
+        return text.isEmpty() ? List.of() : Arrays.asList(text.split("\n"));
+    }
+
+    static Path write(Path dir, String name, String text) throws Exception {
+        return Files.write(dir.resolve(name), text.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,94 @@
+import java.util.Random;
+
+/**
+ * Random programs in the language of SimpleC.cup for the parser tests and
+ * benchmarks, and broken copies of them for error recovery.
+ */
+final class Programs {
+    private Programs() {
+    }
+
+    /** Returns a program of <tt>decls</tt> top-level declarations. */
+    static String generate(Random random, int decls) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < decls; ++i) {
+            if (random.nextInt(3) == 0)
+                variable(random, text.append(type(random)).append(' ').append(name(random)));
+            else
+                function(random, text);
+        }
+        return text.toString();
+    }
+
+    private static void function(Random random, StringBuilder text) {
+        text.append(type(random)).append(' ').append(name(random)).append('(');
+        int formals = random.nextInt(4);
+        for (int i = 0; i < formals; ++i) {
+            if (i > 0)
+                text.append(", ");
+            text.append(type(random)).append(' ').append(name(random));
+        }
+        if (formals > 0 && random.nextInt(4) == 0)
+            text.append(',');
+        text.append(") {\n");
+        for (int i = random.nextInt(3); i > 0; --i)
+            variable(random, text.append("    ").append(type(random)).append(' ').append(name(random)));
+        for (int i = random.nextInt(6); i > 0; --i) {
+            text.append("    ").append(name(random)).append(" = ");
+            expression(random, text, 3);
+            text.append(";\n");
+        }
+        text.append("}\n");
+    }
+
+    private static void variable(Random random, StringBuilder text) {
+        if (random.nextInt(4) == 0)
+            text.append('[').append(random.nextInt(100)).append(']');
+        text.append(";\n");
+    }
+
+    private static void expression(Random random, StringBuilder text, int depth) {
+        operand(random, text);
+        for (int i = random.nextInt(depth + 1); i > 0; --i)
+            operand(random, text.append(random.nextBoolean() ? " + " : " - "));
+    }
+
+    private static void operand(Random random, StringBuilder text) {
+        if (random.nextBoolean())
+            text.append(name(random));
+        else
+            text.append(random.nextInt(1000));
+    }
+
+    private static String type(Random random) {
+        return random.nextInt(4) == 0 ? "void" : "int";
+    }
+
+    private static final String[] NAMES = {"a", "b", "c", "x", "y", "count", "total", "f", "main"};
+
+    private static String name(Random random) {
+        return NAMES[random.nextInt(NAMES.length)];
+    }
+
+    private static final String[] NOISE = {";", "}", "{", "(", ")", "int", "void", "x", "=", "+", "-", "1", "[", "]", ",", "@"};
+
+    /** Returns <tt>text</tt> with a few of its characters or words dropped, replaced or added. */
+    static String mutate(Random random, String text) {
+        StringBuilder broken = new StringBuilder(text);
+        for (int i = 1 + random.nextInt(3); i > 0 && broken.length() > 0; --i) {
+            int at = random.nextInt(broken.length());
+            switch (random.nextInt(3)) {
+            case 0:
+                broken.deleteCharAt(at);
+                break;
+            case 1:
+                broken.insert(at, " " + NOISE[random.nextInt(NOISE.length)] + " ");
+                break;
+            default:
+                broken.replace(at, at + 1, NOISE[random.nextInt(NOISE.length)]);
+                break;
+            }
+        }
+        return broken.toString();
+    }
+}
@@ -0,0 +1,68 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Checks that Recognizer finds the first error the parser reports, and
+ * that a lexer told to recognize only gives the tokens it gives otherwise,
+ * less the values.
+ */
+public class RecognizerTest {
+    public static void main(String[] args) throws Exception {
+        Recognizer recognizer = new Recognizer();
+        int checked = 0;
+        for (String source : DescentParserTest.SOURCES) {
+            check(recognizer, source);
+            checked++;
+        }
+        Random random = new Random(23);
+        for (int i = 0; i < 2000; ++i) {
+            String program = Programs.generate(random, 1 + random.nextInt(6));
+            check(recognizer, program);
+            check(recognizer, Programs.mutate(random, program));
+            check(recognizer, Tokens.random(random, 20));
+            checked += 3;
+        }
+        System.out.println("RecognizerTest: " + checked + " sources OK");
+    }
+
+    static void check(Recognizer recognizer, String source) throws Exception {
+        byte[] bytes = source.getBytes(StandardCharsets.ISO_8859_1);
+        Diagnostics.Message error = recognizer.check(new ByteScanner(bytes, 0, bytes.length));
+
+        Diagnostics diagnostics = new Diagnostics(1, null);
+        Diagnostics.install(diagnostics);
+        try {
+            new parser(new ByteScanner(bytes, 0, bytes.length)).parse();
+        } catch (Exception e) {
+            // the parser gave up or stopped at the first error
+        }
+        String expected = null;
+        for (Diagnostics.Message message : diagnostics.getMessages()) {
+            if (message.error) {
+                expected = message.toString();
+                break;
+            }
+        }
+        if (!String.valueOf(expected).equals(String.valueOf(error)))
+            throw new AssertionError(Tokens.quote(source) + ": Recognizer reports " + error + ", the parser " + expected);
+
+        char[] chars = source.toCharArray();
+        for (boolean decode : new boolean[] {false, true}) {
+            Lexer full = decode ? new Scanner(chars, 0, chars.length) : new ByteScanner(bytes, 0, bytes.length);
+            Lexer kinds = decode ? new Scanner(chars, 0, chars.length) : new ByteScanner(bytes, 0, bytes.length);
+            kinds.setRecognizeOnly(true);
+            TokenBuffer values = full.tokenize(new TokenBuffer());
+            // only a string literal keeps its value
+            TokenBuffer stripped = new TokenBuffer();
+            stripped.setLineIndex(values.getLineIndex());
+            for (int i = 0; i < values.size(); ++i) {
+                int kind = values.getKind(i);
+                stripped.add(kind, values.getStart(i), values.getLength(i),
+                        kind == sym.STRINGLITERAL ? values.getValue(i) : null);
+            }
+            Tokens.expect(Tokens.dump(stripped), Tokens.dump(kinds.tokenize(new TokenBuffer())),
+                    Tokens.quote(source) + (decode ? ", Scanner" : ", ByteScanner") + " tokens");
+        }
+        Diagnostics.install(null);
+    }
+}
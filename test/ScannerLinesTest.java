@@ -0,0 +1,74 @@
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks that a Scanner reading a Reader reports the lines and columns of
+ * one over the same text in a char[], which finds them in the source.
+ * Every line terminator of %line is used, including those the scanner
+ * lexes as illegal characters: U+000B, U+0085, U+2028 and U+2029.
+ */
+public class ScannerLinesTest {
+    static final String[] TERMINATORS = {"\n", "\r", "\r\n", "\u000b", "\f", "\u0085", "\u2028", "\u2029"};
+
+    static final String[] SOURCES = {
+        "int a;\u000bint b;\n@ c;",
+        "int a;\u0085int b;\u2028int c;\u2029int d;",
+        "x\u000b\u000b\u2028\ry\n\u0085\r\nz",
+        "/* a\u2028b */ x\u2029\"s\u0085t\" y\u000b'c' z",
+        "int a; // c\u2028 int b;\n",
+    };
+
+    public static void main(String[] args) throws Exception {
+        int checked = 0;
+        for (String source : SOURCES) {
+            check(source);
+            checked++;
+        }
+        Random random = new Random(11);
+        String[] words = {"int", "x", "1", ";", "@", " ", "\"s\"", "'c'", "/* c */", "// c"};
+        for (int i = 0; i < 2000; ++i) {
+            StringBuilder source = new StringBuilder();
+            for (int j = random.nextInt(40); j > 0; --j) {
+                String[] pieces = random.nextBoolean() ? TERMINATORS : words;
+                source.append(pieces[random.nextInt(pieces.length)]);
+            }
+            check(source.toString());
+            checked++;
+        }
+        System.out.println("ScannerLinesTest: " + checked + " sources OK");
+    }
+
+    static void check(String text) throws Exception {
+        char[] source = text.toCharArray();
+        Diagnostics expected = new Diagnostics(0, null);
+        Diagnostics.install(expected);
+        List<String> tokens = Tokens.dump(new Scanner(source, 0, source.length).tokenize(new TokenBuffer()));
+
+        Diagnostics actual = new Diagnostics(0, null);
+        Diagnostics.install(actual);
+        // a char at a time, so that the scanner refills between any two
+        List<String> read = Tokens.dump(new Scanner(new OneCharReader(text)).tokenize(new TokenBuffer()));
+        Diagnostics.install(null);
+
+        Tokens.expect(tokens, read, Tokens.quote(text) + ", tokens");
+        Tokens.expect(Tokens.dump(expected), Tokens.dump(actual), Tokens.quote(text) + ", messages");
+    }
+
+    /** A Reader that hands out one char per read. */
+    static final class OneCharReader extends Reader {
+        private final Reader text;
+
+        OneCharReader(String text) {
+            this.text = new StringReader(text);
+        }
+
+        public int read(char[] buf, int offset, int length) throws java.io.IOException {
+            return text.read(buf, offset, Math.min(length, 1));
+        }
+
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,107 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks a Scanner reading a Reader with a token limit against one
+ * without: the same tokens and messages while no comment or literal
+ * outgrows the limit, and for those that do, what setTokenLimit
+ * documents, including the text an unterminated one takes with it.
+ */
+public class TokenLimitTest {
+    static final int LIMIT = 8;
+
+    /** source, then its tokens and messages with the limit */
+    static final String[][] OVERSIZED = {
+        {"x = \"abcdefghijkl\";",
+            "ID 0+1 1:1 x", "ASSIGN 2+1 1:3 null", "STRINGLITERAL 4+14 1:5 abcdefgh", "SEMICOLON 18+1 1:19 null",
+            "EOF 19+0 1:20 null",
+            "At line: 1, column: 5 **WARNING** String literal longer than 8 characters truncated"},
+        {"/* abcdefghijkl */ x",
+            "ID 19+1 1:20 x", "EOF 20+0 1:21 null"},
+        // what the DFA would lex again is lost with the text of the literal
+        {"x = \"abc;\ny = 1;\nz = 2;",
+            "ID 0+1 1:1 x", "ASSIGN 2+1 1:3 null", "ILLEGAL 4+19 1:5 null", "EOF 23+0 3:7 null",
+            "At line: 1, column: 5 **ERROR** Unterminated string literal longer than 8 characters skipped"},
+        {"c = 'abcdefghijkl\nint y;",
+            "ID 0+1 1:1 c", "ASSIGN 2+1 1:3 null", "ILLEGAL 4+13 1:5 null", "INT 18+3 2:1 null",
+            "ID 22+1 2:5 y", "SEMICOLON 23+1 2:6 null", "EOF 24+0 2:7 null",
+            "At line: 1, column: 5 **WARNING** Multi-character character constant",
+            "At line: 1, column: 5 **ERROR** Unterminated character constant longer than 8 characters skipped"},
+        {"s = L\"abcdefghijkl\\\nx;",
+            "ID 0+1 1:1 s", "ASSIGN 2+1 1:3 null", "ILLEGAL 4+14 1:5 null", "ILLEGAL 18+1 1:19 null",
+            "ID 20+1 2:1 x", "SEMICOLON 21+1 2:2 null", "EOF 22+0 2:3 null",
+            "At line: 1, column: 6 **ERROR** Unterminated string literal longer than 8 characters skipped",
+            "At line: 1, column: 19 **ERROR** Illegal character \"\\\""},
+    };
+
+    public static void main(String[] args) throws Exception {
+        int checked = 0;
+        for (String[] test : OVERSIZED) {
+            List<String> expected = Arrays.asList(test).subList(1, test.length);
+            Tokens.expect(expected, lex(test[0], LIMIT), Tokens.quote(test[0]));
+            checked++;
+        }
+        // below the limit, with quotes that do not close and escapes cut by refills
+        String[] pieces = {"int", "x", " ", "\n", "\r", ";", "1", "\"", "\"s\"", "\"a\\\"b\"", "'", "'c'",
+                "'\\x4'", "\\", "\\\n", "L", "/*", "*/", "/* c */", "//", "@"};
+        Random random = new Random(14);
+        for (int i = 0; i < 5000; ++i) {
+            StringBuilder source = new StringBuilder();
+            for (int j = random.nextInt(16); j > 0; --j)
+                source.append(pieces[random.nextInt(pieces.length)]);
+            String text = source.toString();
+            if (longest(text) < LIMIT) {
+                Tokens.expect(lex(text, 0), lex(text, LIMIT), Tokens.quote(text));
+                checked++;
+            }
+        }
+        System.out.println("TokenLimitTest: " + checked + " sources OK");
+    }
+
+    /** Returns the tokens and then the messages of <tt>text</tt> read a char at a time. */
+    static List<String> lex(String text, int limit) throws Exception {
+        Diagnostics diagnostics = new Diagnostics(0, null);
+        Diagnostics.install(diagnostics);
+        try {
+            Scanner scanner = new Scanner(new ScannerLinesTest.OneCharReader(text));
+            scanner.setTokenLimit(limit);
+            List<String> lines = new ArrayList<>(Tokens.dump(scanner.tokenize(new TokenBuffer())));
+            lines.addAll(Tokens.dump(diagnostics));
+            return lines;
+        } finally {
+            Diagnostics.install(null);
+        }
+    }
+
+    /**
+     * Returns at least the length of the longest comment or literal of
+     * <tt>text</tt>, or of what the scanner tries as one and gives up.
+     */
+    static int longest(String text) {
+        int longest = 0;
+        for (int i = 0; i < text.length(); ++i) {
+            char c = text.charAt(i);
+            int end;
+            if (c == '/' && text.startsWith("*", i + 1)) {
+                end = text.indexOf("*/", i + 2);
+                end = end < 0 ? text.length() : end + 2;
+            } else if (c == '"' || c == '\'') {
+                end = i + 1;
+                while (end < text.length()) {
+                    char d = text.charAt(end++);
+                    if (d == c || c == '\'' && (d == '\r' || d == '\n'))
+                        break;
+                    if (d == '\\')
+                        end++;
+                }
+            } else {
+                continue;
+            }
+            // with the L before the quote
+            longest = Math.max(longest, end - i + 1);
+        }
+        return longest;
+    }
+}
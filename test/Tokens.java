@@ -0,0 +1,73 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * What the lexer tests share: token streams and comments written out one
+ * line per entry, so that two lexers are compared on everything they
+ * produce, and a source of random text made of the characters that start
+ * or end comments and literals.
+ */
+final class Tokens {
+    private Tokens() {
+    }
+
+    /** Returns kind, offsets, line, column and value of each token. */
+    static List<String> dump(TokenBuffer tokens) {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); ++i) {
+            lines.add(MySymbol.tokenName(tokens.getKind(i)) + " " + tokens.getStart(i) + "+" + tokens.getLength(i)
+                    + " " + tokens.getLine(i) + ":" + tokens.getColumn(i) + " " + tokens.getValue(i));
+        }
+        return lines;
+    }
+
+    /** Returns the offsets of each comment. */
+    static List<String> dump(Trivia trivia) {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < trivia.size(); ++i)
+            lines.add(trivia.getOffset(i) + "+" + trivia.getLength(i));
+        return lines;
+    }
+
+    /** Returns the messages of <tt>diagnostics</tt>. */
+    static List<String> dump(Diagnostics diagnostics) {
+        List<String> lines = new ArrayList<>();
+        for (Diagnostics.Message message : diagnostics.getMessages())
+            lines.add(message.toString());
+        return lines;
+    }
+
+    private static final String[] PIECES = {
+        "int", "x", "L", " ", "  ", "\t", "\n", "\r", "\r\n", ";", "{", "}", "=", "+", "-", "1", "0x1f",
+        "'", "'a'", "\"", "\"s\"", "\\", "\\x", "\\x4", "/", "*", "/*", "*/", "//", "#", "@", "\u000b",
+    };
+
+    /** Returns random text of about <tt>pieces</tt> tokens, comments and quotes. */
+    static String random(Random random, int pieces) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < pieces; ++i)
+            text.append(PIECES[random.nextInt(PIECES.length)]);
+        return text.toString();
+    }
+
+    /** Compares <tt>actual</tt> with <tt>expected</tt> and throws on the first difference. */
+    static void expect(List<String> expected, List<String> actual, String what) {
+        for (int i = 0; i < Math.min(expected.size(), actual.size()); ++i) {
+            if (!expected.get(i).equals(actual.get(i)))
+                throw new AssertionError(what + ": entry " + i + " is " + actual.get(i) + ", expected " + expected.get(i));
+        }
+        if (expected.size() != actual.size())
+            throw new AssertionError(what + ": " + actual.size() + " entries, expected " + expected.size());
+    }
+
+    /** Shows the control characters and the chars outside ASCII of a test source in a message. */
+    static String quote(String source) {
+        String quoted = source.replace("\\", "\\\\").replace("\r", "\\r").replace("\n", "\\n")
+                .replace("\u000b", "\\v");
+        StringBuilder text = new StringBuilder("\"");
+        for (char c : quoted.toCharArray())
+            text.append(c < 0x7f ? String.valueOf(c) : String.format("\\u%04x", (int) c));
+        return text.append('"').toString();
+    }
+}
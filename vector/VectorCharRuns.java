@@ -0,0 +1,70 @@
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * CharRuns on the Vector API: each step classifies a whole vector of
+ * chars (16 with AVX2, 32 with AVX-512) and stops at the first one that
+ * ends the run. The first char is tested on its own because most runs
+ * between two tokens are a single blank or a short name.
+ *
+ * Needs --add-modules jdk.incubator.vector to compile and to run, so it
+ * is kept out of the default build: run-vector.bat compiles it into this
+ * directory and puts it on the class path. Without it, or without the
+ * module, CharRuns.get() falls back to the scalar loops.
+ */
+final class VectorCharRuns extends CharRuns {
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+    private static final int LANES = SPECIES.length();
+
+    int skipBlanks(char[] buf, int from, int end) {
+        int i = from;
+        if (i < end && !isBlank(buf[i]))
+            return i;
+        for (; i + LANES <= end; i += LANES) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, buf, i);
+            VectorMask<Short> blank = v.eq((short) ' ')
+                    .or(v.eq((short) '\n'))
+                    .or(v.eq((short) '\t'))
+                    .or(v.eq((short) '\r'))
+                    .or(v.eq((short) '\f'));
+            if (!blank.allTrue())
+                return i + blank.not().firstTrue();
+        }
+        return super.skipBlanks(buf, i, end);
+    }
+
+    int skipIdentifier(char[] buf, int from, int end) {
+        int i = from;
+        if (i < end && !isIdentifierPart(buf[i]))
+            return i;
+        for (; i + LANES <= end; i += LANES) {
+            ShortVector v = ShortVector.fromCharArray(SPECIES, buf, i);
+            // chars of 0x8000 and up are negative shorts and fail every range test
+            ShortVector letter = v.or((short) 0x20);
+            VectorMask<Short> part = letter.compare(VectorOperators.GE, (short) 'a')
+                    .and(letter.compare(VectorOperators.LE, (short) 'z'))
+                    .or(v.compare(VectorOperators.GE, (short) '0')
+                            .and(v.compare(VectorOperators.LE, (short) '9')))
+                    .or(v.eq((short) '_'));
+            if (!part.allTrue())
+                return i + part.not().firstTrue();
+        }
+        return super.skipIdentifier(buf, i, end);
+    }
+
+    int skipComment(char[] buf, int from, int end) {
+        int i = from;
+        for (; i + 1 + LANES <= end; i += LANES) {
+            VectorMask<Short> star = ShortVector.fromCharArray(SPECIES, buf, i).eq((short) '*');
+            if (!star.anyTrue())
+                continue;
+            VectorMask<Short> close = star.and(
+                    ShortVector.fromCharArray(SPECIES, buf, i + 1).eq((short) '/'));
+            if (close.anyTrue())
+                return i + close.firstTrue() + 2;
+        }
+        return super.skipComment(buf, i, end);
+    }
+}